@@ -0,0 +1,43 @@
+package com.ltp.sudomaster.config;
+
+import com.ltp.sudomaster.util.StateCodec;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+
+public class GameStateMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType STATE = MediaType.parseMediaType(StateCodec.MEDIA_TYPE);
+
+    public GameStateMessageConverter() {
+        super(STATE);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return StateCodec.supports(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Game state cannot be sent to the server", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object response, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = StateCodec.encode(response);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
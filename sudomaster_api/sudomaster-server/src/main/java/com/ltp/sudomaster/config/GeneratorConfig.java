@@ -0,0 +1,44 @@
+package com.ltp.sudomaster.config;
+
+import com.ltp.sudomaster.sudokugen.BoardGenerator;
+import com.ltp.sudomaster.sudokugen.SolvedGridBank;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+public class GeneratorConfig {
+
+    @Bean
+    public SolvedGridBank solvedGridBank(
+            @Value("${sudomaster.generator.grid-bank.size:64}") int size,
+            @Value("${sudomaster.generator.grid-bank.file:}") String file) throws IOException {
+        if (file == null || file.isBlank()) {
+            log.info("Building in-memory solved grid bank with {} grids", size);
+            return new SolvedGridBank(size);
+        }
+
+        Path path = Path.of(file);
+        if (Files.exists(path)) {
+            SolvedGridBank bank = SolvedGridBank.loadFrom(path);
+            log.info("Loaded {} solved grids from {}", bank.size(), path);
+            return bank;
+        }
+
+        SolvedGridBank bank = new SolvedGridBank(size);
+        bank.saveTo(path);
+        log.info("Created solved grid bank file {} with {} grids", path, size);
+        return bank;
+    }
+
+    @Bean
+    public BoardGenerator boardGenerator(SolvedGridBank solvedGridBank) {
+        return new BoardGenerator(solvedGridBank);
+    }
+}
@@ -21,27 +21,32 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder(10);
     }
 
+    static java.util.List<String> allowedOrigins() {
+        var origins = new java.util.ArrayList<String>(java.util.List.of(
+            "http://localhost:5173",
+            "http://localhost:3000",
+            "http://localhost:8000",
+            "http://127.0.0.1:5173",
+            "http://127.0.0.1:3000",
+            "http://127.0.0.1:8000"
+        ));
+        String frontendUrl = System.getenv("FRONTEND_URL");
+        if (frontendUrl != null && !frontendUrl.isBlank()) {
+            origins.add(frontendUrl);
+        }
+        return origins;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(request -> {
                 var corsConfig = new org.springframework.web.cors.CorsConfiguration();
-                var origins = new java.util.ArrayList<String>(java.util.List.of(
-                    "http://localhost:5173",
-                    "http://localhost:3000",
-                    "http://localhost:8000",
-                    "http://127.0.0.1:5173",
-                    "http://127.0.0.1:3000",
-                    "http://127.0.0.1:8000"
-                ));
-                String frontendUrl = System.getenv("FRONTEND_URL");
-                if (frontendUrl != null && !frontendUrl.isBlank()) {
-                    origins.add(frontendUrl);
-                }
-                corsConfig.setAllowedOrigins(origins);
+                corsConfig.setAllowedOrigins(allowedOrigins());
                 corsConfig.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
                 corsConfig.setAllowedHeaders(java.util.List.of("*"));
-                corsConfig.setExposedHeaders(java.util.List.of("Authorization", "Content-Type"));
+                corsConfig.setExposedHeaders(java.util.List.of("Authorization", "Content-Type", "Preference-Applied", "Retry-After", "ETag",
+                        "Idempotent-Replayed"));
                 corsConfig.setAllowCredentials(true);
                 corsConfig.setMaxAge(3600L);
                 return corsConfig;
@@ -55,6 +60,8 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/h2/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/ws/game").permitAll()
                 .requestMatchers("/error").permitAll()
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,27 @@
+package com.ltp.sudomaster.config;
+
+import com.ltp.sudomaster.controller.GameSocketHandler;
+import com.ltp.sudomaster.security.TokenHandshakeInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final GameSocketHandler gameSocketHandler;
+
+    public WebSocketConfig(GameSocketHandler gameSocketHandler) {
+        this.gameSocketHandler = gameSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(@NonNull WebSocketHandlerRegistry registry) {
+        registry.addHandler(gameSocketHandler, "/ws/game")
+                .addInterceptors(new TokenHandshakeInterceptor())
+                .setAllowedOrigins(SecurityConfig.allowedOrigins().toArray(String[]::new));
+    }
+}
@@ -0,0 +1,455 @@
+package com.ltp.sudomaster.controller;
+
+import com.ltp.sudomaster.dto.*;
+import com.ltp.sudomaster.exception.GenerationUnavailableException;
+import com.ltp.sudomaster.exception.StaleStateException;
+import com.ltp.sudomaster.pointsengine.GameEngine;
+import com.ltp.sudomaster.util.ErrorMessages;
+import com.ltp.sudomaster.util.StateCodec;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/game")
+@Tag(name = "Games", description = "Sudoku game operations")
+public class GameController {
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @PostMapping("/new")
+    @Operation(summary = "Create a new Sudoku game", description = "Creates a new game session with random puzzle at specified difficulty")
+    public ResponseEntity<?> createGame(@Valid @RequestBody CreateGameRequest request) {
+        try {
+            GameResponse response = gameEngine.createGame(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", ErrorMessages.INVALID_DIFFICULTY));
+        } catch (GenerationUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", ErrorMessages.GENERATION_BUSY));
+        } catch (Exception e) {
+            log.error("Game creation error", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", ErrorMessages.FAILED_TO_GENERATE_PUZZLE));
+        }
+    }
+
+    @GetMapping("/{sessionId}")
+    @Operation(summary = "Get game state", description = "Retrieves current state of a Sudoku game. Honours If-None-Match with 304")
+    public ResponseEntity<GameResponse> getGame(
+            @PathVariable String sessionId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        try {
+            if (webRequest.checkNotModified(entityTag(gameEngine.getGameVersionTag(sessionId), accept))) {
+                return null;
+            }
+            GameResponse response = gameEngine.getGame(sessionId);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(response);
+        } catch (IllegalStateException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Unauthorized")) {
+                log.warn("Unauthorized game access attempt: {}", sessionId);
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found");
+        } catch (Exception e) {
+            log.error("Error retrieving game: {}", sessionId, e);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found");
+        }
+    }
+
+    @PostMapping("/{sessionId}/move")
+    @Operation(summary = "Make a move", description = "Places or clears a value at specified position. Send Prefer: return=minimal for a delta response")
+    public ResponseEntity<?> makeMove(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody MoveRequest request) {
+        return idempotent(idempotencyKey, Arrays.asList("move", sessionId, prefersMinimal(prefer), request),
+                () -> applyMove(sessionId, prefer, request));
+    }
+
+    private ResponseEntity<?> applyMove(String sessionId, String prefer, MoveRequest request) {
+        try {
+            if (prefersMinimal(prefer)) {
+                MoveDeltaResponse delta = gameEngine.makeMoveDelta(sessionId, request);
+                return ResponseEntity.ok()
+                        .header("Preference-Applied", "return=minimal")
+                        .header(HttpHeaders.VARY, "Prefer")
+                        .body(delta);
+            }
+            MoveResponse response = gameEngine.makeMove(sessionId, request);
+            return ResponseEntity.ok().header(HttpHeaders.VARY, "Prefer").body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", ErrorMessages.INVALID_MOVE));
+        } catch (EntityNotFoundException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Session not found")) {
+                log.warn("Unauthorized move attempt: {}", sessionId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Optimistic lock conflict on move in session: {}", sessionId);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Concurrent update conflict, please retry"));
+        } catch (Exception e) {
+            log.error("Error making move in session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", ErrorMessages.FAILED_TO_PROCESS_MOVE));
+        }
+    }
+
+    @PostMapping("/{sessionId}/moves")
+    @Operation(summary = "Make several moves", description = "Applies an ordered list of moves in one pass and persists once")
+    public ResponseEntity<?> makeMoves(
+            @PathVariable String sessionId,
+            @Valid @RequestBody BatchMoveRequest request) {
+        try {
+            BatchMoveResponse response = gameEngine.makeMoves(sessionId, request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", ErrorMessages.INVALID_MOVE));
+        } catch (EntityNotFoundException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Session not found")) {
+                log.warn("Unauthorized batch move attempt: {}", sessionId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Optimistic lock conflict on batch move in session: {}", sessionId);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Concurrent update conflict, please retry"));
+        } catch (Exception e) {
+            log.error("Error making batch move in session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", ErrorMessages.FAILED_TO_PROCESS_MOVE));
+        }
+    }
+
+    @PostMapping("/{sessionId}/undo")
+    @Operation(summary = "Undo last move", description = "Reverts the most recent move recorded in the session journal")
+    public ResponseEntity<?> undoMove(@PathVariable String sessionId) {
+        try {
+            MoveResponse response = gameEngine.undoMove(sessionId);
+            return ResponseEntity.ok(response);
+        } catch (EntityNotFoundException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Session not found")) {
+                log.warn("Unauthorized undo attempt: {}", sessionId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Optimistic lock conflict on undo in session: {}", sessionId);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Concurrent update conflict, please retry"));
+        } catch (Exception e) {
+            log.error("Error undoing move in session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", ErrorMessages.FAILED_TO_PROCESS_MOVE));
+        }
+    }
+
+    @GetMapping("/{sessionId}/journal")
+    @Operation(summary = "Get move journal", description = "Returns the base board and the timed moves recorded since it, for replay")
+    public ResponseEntity<?> getJournal(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(gameEngine.getJournal(sessionId));
+        } catch (EntityNotFoundException e) {
+            log.warn("Unauthorized journal access attempt: {}", sessionId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+        } catch (Exception e) {
+            log.error("Error reading journal of session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        }
+    }
+
+    @PostMapping("/{sessionId}/validate")
+    @Operation(summary = "Validate game", description = "Checks if the current board state is valid and if puzzle is complete")
+    public ResponseEntity<ValidationResponse> validateGame(@PathVariable String sessionId) {
+        try {
+            ValidationResponse response = gameEngine.validateGame(sessionId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error validating game: {}", sessionId, e);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    @Operation(summary = "Complete game", description = "Mark game as complete and save the score")
+    public ResponseEntity<?> completeGame(
+            @PathVariable String sessionId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody GameCompleteRequest request) {
+        return idempotent(idempotencyKey, Arrays.asList("complete", sessionId, request),
+                () -> applyComplete(sessionId, request));
+    }
+
+    private ResponseEntity<GameCompleteResponse> applyComplete(String sessionId, GameCompleteRequest request) {
+        try {
+            if (sessionId == null || sessionId.trim().isEmpty()) {
+                throw new IllegalArgumentException("Session ID cannot be null or empty");
+            }
+            if (request.getElapsedTime() == null || request.getElapsedTime() <= 0) {
+                throw new IllegalArgumentException("Elapsed time must be a positive number");
+            }
+            if (request.getMistakes() == null || request.getMistakes() < 0) {
+                throw new IllegalArgumentException("Mistakes count must be non-negative");
+            }
+            if (request.getAutoCandidateMode() == null) {
+                throw new IllegalArgumentException("Auto-candidate mode flag is required");
+            }
+            
+            GameCompleteResponse response = gameEngine.completeGame(
+                    sessionId, 
+                    request.getElapsedTime(),
+                    request.getMistakes(),
+                    request.getAutoCandidateMode()
+            );
+            
+            log.info("Game completed: session={}", sessionId);
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad request in completeGame: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            log.warn("Invalid state in completeGame: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Optimistic lock conflict on complete for session: {}", sessionId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Concurrent update conflict, please retry");
+        } catch (Exception e) {
+            log.error("Error completing game: session={}", sessionId, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to complete game: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{sessionId}/completion")
+    @Operation(summary = "Get completion result", description = "Returns the rank once the background stage of a completion has run")
+    public ResponseEntity<?> getCompletion(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(gameEngine.getCompletion(sessionId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Completion not found"));
+        } catch (Exception e) {
+            log.error("Error reading completion of session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to read completion"));
+        }
+    }
+
+    @GetMapping("/saved")
+    @Operation(summary = "Get saved game", description = "Retrieves the user's active IN_PROGRESS game session for a specific difficulty. Honours If-None-Match with 304")
+    public ResponseEntity<?> getSavedGame(
+            @RequestParam String difficulty,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null || !auth.isAuthenticated()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Not authenticated"));
+            }
+
+            String userId = auth.getName();
+            Optional<String> latest = gameEngine.getSavedGameVersionTag(userId, difficulty);
+            if (latest.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            if (webRequest.checkNotModified(entityTag(latest.get(), accept))) {
+                return null;
+            }
+
+            SavedGameResponse savedGame = gameEngine.getSavedGame(userId, difficulty);
+            if (savedGame == null) {
+                return ResponseEntity.noContent().build();
+            }
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(savedGame);
+        } catch (Exception e) {
+            log.error("Error retrieving saved game", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to retrieve saved game"));
+        }
+    }
+
+    @GetMapping("/saved/all")
+    @Operation(summary = "Get all saved games", description = "Summaries of every IN_PROGRESS session of the user, grouped by difficulty")
+    public ResponseEntity<?> getSavedGames() {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null || !auth.isAuthenticated()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Not authenticated"));
+            }
+            return ResponseEntity.ok(gameEngine.getSavedGameSummaries(auth.getName()));
+        } catch (Exception e) {
+            log.error("Error retrieving saved games", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to retrieve saved games"));
+        }
+    }
+
+    @PutMapping("/{sessionId}/save")
+    @Operation(summary = "Save game state", description = "Saves the current game state including timer, errors, candidates")
+    public ResponseEntity<?> saveGameState(
+            @PathVariable String sessionId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody SaveGameRequest request) {
+        return idempotent(idempotencyKey, Arrays.asList("save", sessionId, request),
+                () -> applySave(sessionId, request));
+    }
+
+    private ResponseEntity<?> applySave(String sessionId, SaveGameRequest request) {
+        try {
+            long boardVersion = gameEngine.saveGameState(sessionId, request);
+            return ResponseEntity.ok(Map.of("message", "Game saved successfully", "boardVersion", boardVersion));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (StaleStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Save is out of date", "boardVersion", e.getCurrentVersion()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Optimistic lock conflict on save for session: {}", sessionId);
+            return ResponseEntity.ok(Map.of("message", "Game save skipped due to concurrent update"));
+        } catch (Exception e) {
+            log.error("Error saving game state: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to save game"));
+        }
+    }
+
+    @PostMapping("/{sessionId}/pause-resume")
+    @Operation(summary = "Pause or resume game", description = "Pausing writes any buffered autosave immediately")
+    public ResponseEntity<?> pauseResumeGame(
+            @PathVariable String sessionId,
+            @Valid @RequestBody PauseResumeRequest request) {
+        try {
+            return ResponseEntity.ok(gameEngine.pauseResumeGame(sessionId, request));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error pausing or resuming game: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to update game"));
+        }
+    }
+
+    @DeleteMapping("/{sessionId}/abandon")
+    @Operation(summary = "Abandon game", description = "Deletes an in-progress game session and all associated data")
+    public ResponseEntity<?> abandonGame(@PathVariable String sessionId) {
+        try {
+            gameEngine.abandonGame(sessionId);
+            return ResponseEntity.ok(Map.of("message", "Game abandoned successfully"));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error abandoning game: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to abandon game"));
+        }
+    }
+
+    @GetMapping("/{sessionId}/check")
+    @Operation(summary = "Check board", description = "Compares every filled cell with the solution and returns the wrong cells")
+    public ResponseEntity<?> checkBoard(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(gameEngine.checkBoard(sessionId));
+        } catch (EntityNotFoundException e) {
+            log.warn("Unauthorized board check attempt: {}", sessionId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+        } catch (Exception e) {
+            log.error("Error checking board of session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Error checking answer"));
+        }
+    }
+
+    @GetMapping("/{sessionId}/hint")
+    @Operation(summary = "Next hint", description = "Returns the next logical step for the current board: the technique, the cells involved and the digit to place or the candidates to remove")
+    public ResponseEntity<?> getHint(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(gameEngine.getHint(sessionId));
+        } catch (EntityNotFoundException e) {
+            log.warn("Unauthorized hint attempt: {}", sessionId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+        } catch (Exception e) {
+            log.error("Error finding a hint for session: {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Error finding a hint"));
+        }
+    }
+
+    @PostMapping("/iscorrect")
+    @Operation(summary = "Check answer", description = "Checks if the user's answer is correct by comparing with the solution")
+    public ResponseEntity<?> checkAnswer(@Valid @RequestBody CheckAnswerRequest request) {
+        try {
+            CheckAnswerResponse response = gameEngine.checkAnswer(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Unauthorized")) {
+                log.warn("Unauthorized answer check attempt for session: {}", request.getSessionId());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Access denied"));
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        } catch (EntityNotFoundException e) {
+            log.warn("Session not found for answer check: {}", request.getSessionId());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Game not found"));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid answer check request for session: {}", request.getSessionId());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error checking answer for session: {}", request.getSessionId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Error checking answer"));
+        }
+    }
+
+    private ResponseEntity<?> idempotent(String key, Object fingerprint, Supplier<ResponseEntity<?>> action) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+        return idempotencyStore.execute(userId, key, fingerprint, action);
+    }
+
+    // Strong validator for one representation of a session: the JSON and binary forms get different tags.
+    private static String entityTag(String versionTag, String accept) {
+        boolean binary = accept != null && accept.contains(StateCodec.MEDIA_TYPE)
+                && !accept.contains(MediaType.APPLICATION_JSON_VALUE);
+        return "\"" + versionTag + (binary ? ".b" : "") + "\"";
+    }
+
+    private static boolean prefersMinimal(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.split(";")[0].trim().equalsIgnoreCase("return=minimal")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
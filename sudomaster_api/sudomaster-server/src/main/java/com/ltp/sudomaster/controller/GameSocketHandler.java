@@ -0,0 +1,218 @@
+package com.ltp.sudomaster.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ltp.sudomaster.dto.*;
+import com.ltp.sudomaster.exception.StaleStateException;
+import com.ltp.sudomaster.pointsengine.GameEngine;
+import com.ltp.sudomaster.security.BearerToken;
+import com.ltp.sudomaster.security.TokenHandshakeInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Frames are handled on the connection's own container thread, one at a time, so a client that
+// sends faster than the engine answers is slowed by TCP flow control rather than queued here.
+@Slf4j
+@Component
+public class GameSocketHandler extends TextWebSocketHandler {
+
+    public static final CloseStatus TOKEN_EXPIRED = new CloseStatus(4001, "Token expired");
+    private static final String CONNECTION_ATTRIBUTE = "gameConnection";
+
+    private final GameEngine gameEngine;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final int maxMessageBytes;
+    private final long idleTimeoutMillis;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferBytes;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong messages = new AtomicLong();
+
+    record Connection(WebSocketSession out, BearerToken token, Authentication authentication) {}
+
+    record Reply(JsonNode id, String type, int status, Object body) {}
+
+    public GameSocketHandler(
+            GameEngine gameEngine,
+            ObjectMapper objectMapper,
+            Validator validator,
+            MeterRegistry meterRegistry,
+            @Value("${sudomaster.ws.max-message-bytes:16384}") int maxMessageBytes,
+            @Value("${sudomaster.ws.idle-timeout-ms:300000}") long idleTimeoutMillis,
+            @Value("${sudomaster.ws.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+            @Value("${sudomaster.ws.send-buffer-bytes:65536}") int sendBufferBytes) {
+        this.gameEngine = gameEngine;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.maxMessageBytes = maxMessageBytes;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferBytes = sendBufferBytes;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("sudomaster.ws.connections", openConnections, AtomicInteger::get)
+                .description("Open game socket connections")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudomaster.ws.messages", messages, AtomicLong::get)
+                .description("Game socket frames handled")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(@NonNull WebSocketSession session) {
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            jakarta.websocket.Session container = nativeSession.getNativeSession(jakarta.websocket.Session.class);
+            if (container != null) {
+                container.setMaxIdleTimeout(idleTimeoutMillis);
+            }
+        }
+
+        BearerToken token = (BearerToken) session.getAttributes().get(TokenHandshakeInterceptor.TOKEN_ATTRIBUTE);
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferBytes);
+        session.getAttributes().put(CONNECTION_ATTRIBUTE, new Connection(out, token, token.toAuthentication()));
+        openConnections.incrementAndGet();
+        log.debug("Game socket opened for user {}", token.userId());
+    }
+
+    @Override
+    public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus status) {
+        if (session.getAttributes().remove(CONNECTION_ATTRIBUTE) != null) {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(@NonNull WebSocketSession session, @NonNull TextMessage message) throws IOException {
+        Connection connection = (Connection) session.getAttributes().get(CONNECTION_ATTRIBUTE);
+        if (connection == null) {
+            return;
+        }
+        if (System.currentTimeMillis() > connection.token().expiresAtMillis()) {
+            session.close(TOKEN_EXPIRED);
+            return;
+        }
+        messages.incrementAndGet();
+
+        JsonNode frame;
+        try {
+            frame = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            send(connection, new Reply(null, "error", 400, Map.of("message", "Invalid message")));
+            return;
+        }
+        JsonNode id = frame.get("id");
+        String type = frame.path("type").asText("");
+        String sessionId = frame.path("sessionId").asText("");
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(connection.authentication());
+        SecurityContextHolder.setContext(context);
+        try {
+            send(connection, new Reply(id, type, 200, dispatch(type, sessionId, frame.get("body"))));
+        } catch (Exception e) {
+            send(connection, failure(id, type, sessionId, e));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private Object dispatch(String type, String sessionId, JsonNode body) {
+        if (sessionId.isBlank()) {
+            throw new IllegalArgumentException("Session ID cannot be null or empty");
+        }
+        return switch (type) {
+            case "move" -> gameEngine.makeMoveDelta(sessionId, read(body, MoveRequest.class));
+            case "moves" -> gameEngine.makeMoves(sessionId, read(body, BatchMoveRequest.class));
+            case "save" -> Map.of("message", "Game saved successfully",
+                    "boardVersion", gameEngine.saveGameState(sessionId, read(body, SaveGameRequest.class)));
+            case "pause-resume" -> gameEngine.pauseResumeGame(sessionId, read(body, PauseResumeRequest.class));
+            case "complete" -> {
+                GameCompleteRequest request = read(body, GameCompleteRequest.class);
+                yield gameEngine.completeGame(sessionId, request.getElapsedTime(), request.getMistakes(),
+                        request.getAutoCandidateMode());
+            }
+            default -> throw new IllegalArgumentException("Unknown message type: " + type);
+        };
+    }
+
+    private <T> T read(JsonNode body, Class<T> type) {
+        if (body == null || !body.isObject()) {
+            throw new IllegalArgumentException("Invalid request body");
+        }
+        T request;
+        try {
+            request = objectMapper.treeToValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid request body");
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return request;
+    }
+
+    private Reply failure(JsonNode id, String type, String sessionId, Exception e) {
+        if (e instanceof StaleStateException stale) {
+            return new Reply(id, type, 409, Map.of("message", "Save is out of date", "boardVersion", stale.getCurrentVersion()));
+        }
+        if (e instanceof ObjectOptimisticLockingFailureException) {
+            return new Reply(id, type, 409, Map.of("message", "Concurrent update conflict, please retry"));
+        }
+        if (e instanceof EntityNotFoundException) {
+            return new Reply(id, type, 404, Map.of("message", "Game not found"));
+        }
+        if (e instanceof IllegalArgumentException) {
+            return new Reply(id, type, 400, Map.of("message", e.getMessage()));
+        }
+        if (e instanceof IllegalStateException) {
+            if (e.getMessage() != null && e.getMessage().contains("Unauthorized")) {
+                return new Reply(id, type, 403, Map.of("message", "Access denied"));
+            }
+            return new Reply(id, type, 400, Map.of("message", e.getMessage()));
+        }
+        log.error("Error handling {} frame for session: {}", type, sessionId, e);
+        return new Reply(id, type, 500, Map.of("message", "Failed to process message"));
+    }
+
+    private void send(Connection connection, Reply reply) {
+        try {
+            connection.out().sendMessage(new TextMessage(objectMapper.writeValueAsString(reply)));
+        } catch (IOException e) {
+            log.debug("Dropping reply to closed game socket: {}", e.getMessage());
+        }
+    }
+}
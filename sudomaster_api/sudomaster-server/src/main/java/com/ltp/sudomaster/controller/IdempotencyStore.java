@@ -0,0 +1,169 @@
+package com.ltp.sudomaster.controller;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Outcomes of requests sent with an Idempotency-Key, kept per user for a fixed TTL. A retry with
+// the same key gets the stored response back without running the request again. Failures that a
+// retry could fix (5xx, 409, 429, exceptions) are not stored.
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Entry(Object fingerprint, CompletableFuture<ResponseEntity<?>> outcome, long expiresAtMillis) {}
+
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final Map<String, Entry> entries;
+    private final AtomicLong replays = new AtomicLong();
+
+    public IdempotencyStore(
+            MeterRegistry meterRegistry,
+            @Value("${sudomaster.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${sudomaster.idempotency.ttl-ms:600000}") long ttlMillis,
+            @Value("${sudomaster.idempotency.wait-ms:10000}") long waitMillis) {
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("sudomaster.idempotency.entries", this, IdempotencyStore::size)
+                .description("Request outcomes held for Idempotency-Key replay")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudomaster.idempotency.replays", replays, AtomicLong::get)
+                .description("Retried requests answered from a stored outcome")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<?> execute(String userId, String key, Object fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", "Invalid Idempotency-Key"));
+        }
+        String scope = userId + ":" + key;
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry entry;
+            boolean owner = false;
+            synchronized (entries) {
+                purgeExpired(now);
+                entry = entries.get(scope);
+                if (entry == null) {
+                    entry = new Entry(fingerprint, new CompletableFuture<>(), now + ttlMillis);
+                    entries.put(scope, entry);
+                    owner = true;
+                }
+            }
+
+            if (owner) {
+                return run(scope, entry, action);
+            }
+            if (!entry.fingerprint().equals(fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(Map.of("message", "Idempotency-Key was already used for a different request"));
+            }
+
+            ResponseEntity<?> stored;
+            try {
+                stored = entry.outcome().get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "A request with this Idempotency-Key is still in progress"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the original request", e);
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            if (stored != null) {
+                replays.incrementAndGet();
+                return ResponseEntity.status(stored.getStatusCode())
+                        .headers(stored.getHeaders())
+                        .header(REPLAYED_HEADER, "true")
+                        .body(stored.getBody());
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private ResponseEntity<?> run(String scope, Entry entry, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            forget(scope, entry);
+            entry.outcome().completeExceptionally(e);
+            throw e;
+        }
+        if (isReplayable(response.getStatusCode())) {
+            entry.outcome().complete(response);
+        } else {
+            forget(scope, entry);
+            entry.outcome().complete(null);
+        }
+        return response;
+    }
+
+    private static boolean isReplayable(HttpStatusCode status) {
+        return !status.is5xxServerError()
+                && status.value() != HttpStatus.CONFLICT.value()
+                && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void forget(String scope, Entry entry) {
+        synchronized (entries) {
+            entries.remove(scope, entry);
+        }
+    }
+
+    // Every entry gets the same TTL, so insertion order is also expiry order.
+    private void purgeExpired(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (entry.expiresAtMillis() > now) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+}
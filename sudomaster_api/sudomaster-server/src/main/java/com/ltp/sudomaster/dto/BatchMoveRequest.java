@@ -0,0 +1,18 @@
+package com.ltp.sudomaster.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchMoveRequest {
+
+    @NotEmpty(message = "Moves must not be empty")
+    @Size(max = 200, message = "At most 200 moves per batch")
+    private List<@Valid @NotNull(message = "Move must not be null") MoveRequest> moves;
+}
@@ -0,0 +1,32 @@
+package com.ltp.sudomaster.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchMoveResponse {
+
+    private String sessionId;
+    private String boardString;
+    private Object candidates;
+    private String completionStatus;
+    private Integer moveCount;
+    private Long boardVersion;
+    private List<Integer> conflicts;
+    private List<MoveResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MoveResult {
+        private Integer position;
+        private Integer value;
+        private Boolean valid;
+        private Boolean applied;
+        private String message;
+    }
+}
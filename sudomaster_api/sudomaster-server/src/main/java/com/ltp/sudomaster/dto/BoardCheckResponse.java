@@ -0,0 +1,20 @@
+package com.ltp.sudomaster.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BoardCheckResponse {
+
+    private String sessionId;
+    private Long boardVersion;
+    private Integer filledCells;
+    private Integer wrongCount;
+    private List<Integer> wrongCells;
+    private String wrongBitmap;
+    private Boolean complete;
+}
@@ -0,0 +1,16 @@
+package com.ltp.sudomaster.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompletionResponse {
+
+    private String sessionId;
+    private String difficulty;
+    private Integer bestScore;
+    private String state;
+    private Integer rank;
+}
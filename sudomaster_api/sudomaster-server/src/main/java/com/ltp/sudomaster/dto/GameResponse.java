@@ -18,6 +18,7 @@ public class GameResponse {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long boardVersion;
 
     public GameResponse() {}
 
@@ -135,4 +136,12 @@ public class GameResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getBoardVersion() {
+        return boardVersion;
+    }
+
+    public void setBoardVersion(Long boardVersion) {
+        this.boardVersion = boardVersion;
+    }
 }
@@ -0,0 +1,25 @@
+package com.ltp.sudomaster.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HintResponse {
+
+    private String sessionId;
+    private Long boardVersion;
+    private String technique;
+    private Integer position;
+    private Integer value;
+    private List<Integer> cells;
+    private Map<String, Integer> eliminations;
+    private List<Integer> wrongCells;
+    private String message;
+}
@@ -0,0 +1,28 @@
+package com.ltp.sudomaster.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveDeltaResponse {
+
+    private Long boardVersion;
+    private Boolean resync;
+    private Integer position;
+    private Integer value;
+    private Boolean valid;
+    private String message;
+    private List<Integer> conflicts;
+    private Map<String, Integer> candidateMasks;
+    private String completionStatus;
+    private Integer moveCount;
+    private String boardString;
+    private Object candidates;
+}
@@ -0,0 +1,29 @@
+package com.ltp.sudomaster.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveJournalResponse {
+
+    private String sessionId;
+    private String baseBoard;
+    private Integer baseSequence;
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Integer sequence;
+        private Integer position;
+        private Integer oldValue;
+        private Integer newValue;
+        private String kind;
+        private Long atMillis;
+    }
+}
@@ -21,4 +21,6 @@ public class MoveRequest {
 
     @Builder.Default
     private java.util.List<Integer> candidates = new java.util.ArrayList<>();
+
+    private Long baseVersion;
 }
@@ -10,6 +10,8 @@ public class MoveResponse {
     private Long moveId;
     private String completionStatus;
     private Integer moveCount;
+    private Long boardVersion;
+    private java.util.List<Integer> conflicts;
 
     public MoveResponse() {}
 
@@ -99,4 +101,20 @@ public class MoveResponse {
     public void setMoveCount(Integer moveCount) {
         this.moveCount = moveCount;
     }
+
+    public Long getBoardVersion() {
+        return boardVersion;
+    }
+
+    public void setBoardVersion(Long boardVersion) {
+        this.boardVersion = boardVersion;
+    }
+
+    public java.util.List<Integer> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(java.util.List<Integer> conflicts) {
+        this.conflicts = conflicts;
+    }
 }
@@ -16,4 +16,5 @@ public class SaveGameRequest {
     private String boardString;
     private String colorProfile;
     private String settingsJson;
+    private Long baseVersion;
 }
@@ -0,0 +1,21 @@
+package com.ltp.sudomaster.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SavedGameSummary {
+
+    private String sessionId;
+    private String difficulty;
+    private Integer elapsedTimeSeconds;
+    private Integer errorCount;
+    private Integer moveCount;
+    private Long boardVersion;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,60 @@
+package com.ltp.sudomaster.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "completion_tasks", indexes = {
+    @Index(name = "idx_completion_state_created", columnList = "state,created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompletionTask {
+
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    @Column(name = "user_id", length = 36, nullable = false)
+    private String userId;
+
+    private Long puzzleId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Enums.Difficulty difficulty;
+
+    @Column(nullable = false)
+    private Integer bestScore;
+
+    // When the best score was set; equal scores rank by it, earliest first.
+    private LocalDateTime bestCompletedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Enums.CompletionState state = Enums.CompletionState.PENDING;
+
+    private Integer rank;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    private LocalDateTime claimedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
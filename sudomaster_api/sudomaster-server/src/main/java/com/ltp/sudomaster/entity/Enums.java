@@ -9,4 +9,8 @@ public class Enums {
     public enum GameStatus {
         IN_PROGRESS, COMPLETED
     }
+
+    public enum CompletionState {
+        PENDING, DONE
+    }
 }
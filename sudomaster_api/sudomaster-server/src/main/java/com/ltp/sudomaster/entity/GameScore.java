@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_user_difficulty", columnList = "user_id,difficulty"),
     @Index(name = "idx_user_difficulty_time", columnList = "user_id,difficulty,elapsed_time_seconds ASC"),
     @Index(name = "idx_user_difficulty_score", columnList = "user_id,difficulty,score DESC"),
-    @Index(name = "idx_session_id", columnList = "session_id")
+    @Index(name = "idx_session_id", columnList = "session_id"),
+    @Index(name = "idx_difficulty_score", columnList = "difficulty,score DESC")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,39 @@
+package com.ltp.sudomaster.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "move_journal_chunk", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_journal_session_sequence", columnNames = {"session_id", "first_sequence"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveJournalChunk {
+
+    public static final int MAX_RECORDS = 256;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", length = 36, nullable = false)
+    private String sessionId;
+
+    @Column(name = "first_sequence", nullable = false)
+    private Integer firstSequence;
+
+    @Column(nullable = false)
+    private Integer recordCount;
+
+    @Column(length = MAX_RECORDS * 6)
+    private byte[] records;
+
+    @Column(length = 81)
+    private String snapshotBoard;
+
+    @Column(nullable = false)
+    private Long startedAtMillis;
+}
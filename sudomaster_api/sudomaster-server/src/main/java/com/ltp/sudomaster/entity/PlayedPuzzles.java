@@ -0,0 +1,27 @@
+package com.ltp.sudomaster.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_played_puzzles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayedPuzzles {
+
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Column(nullable = false, length = 1048576)
+    private byte[] bitmap;
+
+    @Column(nullable = false)
+    private Long playedCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
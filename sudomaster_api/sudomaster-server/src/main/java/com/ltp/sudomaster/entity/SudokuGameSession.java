@@ -0,0 +1,140 @@
+package com.ltp.sudomaster.entity;
+
+import com.ltp.sudomaster.util.CandidateMasks;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sudoku_game_session", indexes = {
+    @Index(name = "idx_user_created", columnList = "user_id,created_at DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class SudokuGameSession {
+
+    @Id
+    private String sessionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "puzzle_id", nullable = false)
+    private SudokuPuzzle puzzle;
+
+    @Column(length = 81, nullable = false)
+    private String boardString;
+
+    @Column(length = CandidateMasks.PACKED_BYTES)
+    private byte[] candidateMasks;
+
+    @Column(columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String candidatesJson;
+
+    @ToString.Exclude
+    private transient CandidateMasks decodedCandidates;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer elapsedTimeSeconds = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer errorCount = 0;
+
+    @Builder.Default
+    @Column(name = "move_count")
+    private Integer moveCount = 0;
+
+    @Builder.Default
+    @Column(name = "board_version")
+    private Long boardVersion = 0L;
+
+    // Sequence number of the next move journal record; advanced with the board under its compare-and-set.
+    @Builder.Default
+    @Column(name = "journal_sequence")
+    private Integer journalSequence = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean autoCandidateModeUsed = false;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean isAutoCandidateMode = false;
+
+    @Column(length = 20)
+    @Builder.Default
+    private String colorProfile = "orange";
+
+    @Column(columnDefinition = "TEXT")
+    private String settingsJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Enums.GameStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    // Column groups written independently by SudokuGameSessionRepository.patch. updatedAt goes with every group.
+    public enum FieldGroup {
+        BOARD,       // boardString, boardVersion, moveCount, status, journalSequence
+        CANDIDATES,  // candidateMasks, candidatesJson
+        TIMER,       // elapsedTimeSeconds, errorCount
+        SETTINGS     // autoCandidateModeUsed, isAutoCandidateMode, colorProfile, settingsJson
+    }
+
+    public CandidateMasks getCandidates() {
+        if (decodedCandidates == null && candidateMasks != null) {
+            decodedCandidates = CandidateMasks.fromBytes(candidateMasks);
+        }
+        return decodedCandidates;
+    }
+
+    public void setCandidates(CandidateMasks candidates) {
+        this.decodedCandidates = candidates;
+        this.candidateMasks = candidates != null ? candidates.toBytes() : null;
+        this.candidatesJson = null;
+    }
+
+    public String getCandidatesJson() {
+        CandidateMasks candidates = getCandidates();
+        return candidates != null ? candidates.toJson() : candidatesJson;
+    }
+
+    public void setCandidatesJson(String json) {
+        CandidateMasks candidates = CandidateMasks.parse(json);
+        if (candidates != null) {
+            setCandidates(candidates);
+        } else {
+            this.decodedCandidates = null;
+            this.candidateMasks = null;
+            this.candidatesJson = json;
+        }
+    }
+
+    public void setCandidateMasks(byte[] candidateMasks) {
+        this.candidateMasks = candidateMasks;
+        this.decodedCandidates = null;
+    }
+
+    @PrePersist
+    void packCandidates() {
+        if (candidateMasks == null && candidatesJson != null) {
+            setCandidatesJson(candidatesJson);
+        }
+    }
+}
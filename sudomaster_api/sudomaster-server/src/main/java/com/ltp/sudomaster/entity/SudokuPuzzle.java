@@ -24,4 +24,7 @@ public class SudokuPuzzle {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Enums.Difficulty difficulty;
+
+    @Column
+    private Integer catalogueId;
 }
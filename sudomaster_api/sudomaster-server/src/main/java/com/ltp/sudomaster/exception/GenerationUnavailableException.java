@@ -0,0 +1,16 @@
+package com.ltp.sudomaster.exception;
+
+import lombok.Getter;
+
+@Getter
+public class GenerationUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public GenerationUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
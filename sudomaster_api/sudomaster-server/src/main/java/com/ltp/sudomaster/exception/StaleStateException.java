@@ -0,0 +1,16 @@
+package com.ltp.sudomaster.exception;
+
+import lombok.Getter;
+
+@Getter
+public class StaleStateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long currentVersion;
+
+    public StaleStateException(String message, long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,448 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.entity.SudokuGameSession;
+import com.ltp.sudomaster.repository.SudokuGameSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+
+@Slf4j
+@Component
+public class ActiveSessionStore {
+
+    private static final Set<SudokuGameSession.FieldGroup> ALL_GROUPS = EnumSet.allOf(SudokuGameSession.FieldGroup.class);
+
+    private final SudokuGameSessionRepository sessionRepository;
+    private final MoveJournal moveJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean writeBehind;
+    private final int maxSessions;
+    private final long flushIntervalMs;
+    private final int flushThreshold;
+    private final long idleEvictMillis;
+    private final long saveWindowMillis;
+
+    private final LinkedHashMap<String, LiveSession> sessions = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, LiveSession> evicting = new ConcurrentHashMap<>();
+    private final Map<String, LiveSession> deferred = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final List<ObjLongConsumer<String>> activityListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong recordedChanges = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+
+    public ActiveSessionStore(
+            SudokuGameSessionRepository sessionRepository,
+            MoveJournal moveJournal,
+            TransactionTemplate transactionTemplate,
+            @Value("${sudomaster.session-store.write-behind:true}") boolean writeBehind,
+            @Value("${sudomaster.session-store.max-sessions:10000}") int maxSessions,
+            @Value("${sudomaster.session-store.flush-interval-ms:2000}") long flushIntervalMs,
+            @Value("${sudomaster.session-store.flush-threshold:20}") int flushThreshold,
+            @Value("${sudomaster.session-store.idle-evict-ms:900000}") long idleEvictMillis,
+            @Value("${sudomaster.session-store.save-window-ms:5000}") long saveWindowMillis) {
+        this.sessionRepository = sessionRepository;
+        this.moveJournal = moveJournal;
+        this.transactionTemplate = transactionTemplate;
+        this.writeBehind = writeBehind;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.idleEvictMillis = idleEvictMillis;
+        this.saveWindowMillis = Math.max(0, saveWindowMillis);
+
+        if (writeBehind || this.saveWindowMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    @PostConstruct
+    public void startFlusher() {
+        if (flusher != null) {
+            flusher.scheduleWithFixedDelay(this::flushSweep, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public Optional<LiveSession> find(String sessionId) {
+        if (!writeBehind) {
+            LiveSession held = deferred.get(sessionId);
+            if (held != null) {
+                return Optional.of(held);
+            }
+            return sessionRepository.findBySessionId(sessionId).map(this::open);
+        }
+
+        LiveSession live;
+        synchronized (sessions) {
+            live = sessions.get(sessionId);
+            if (live == null) {
+                live = evicting.remove(sessionId);
+                if (live != null) {
+                    sessions.put(sessionId, live);
+                }
+            }
+        }
+        if (live != null) {
+            live.touch();
+            return Optional.of(live);
+        }
+
+        Optional<SudokuGameSession> loaded = sessionRepository.findBySessionId(sessionId);
+        if (loaded.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<LiveSession> overflow = new ArrayList<>();
+        synchronized (sessions) {
+            live = sessions.get(sessionId);
+            if (live == null) {
+                live = open(loaded.get());
+                sessions.put(sessionId, live);
+                Iterator<LiveSession> eldest = sessions.values().iterator();
+                while (sessions.size() > maxSessions && eldest.hasNext()) {
+                    overflow.add(eldest.next());
+                    eldest.remove();
+                }
+            }
+        }
+        overflow.forEach(this::evictAsync);
+        return Optional.of(live);
+    }
+
+    public Optional<SudokuGameSession> peek(String sessionId) {
+        return findHeld(sessionId).map(LiveSession::getSession);
+    }
+
+    // The session only if it is already in memory; never loads it.
+    public Optional<LiveSession> findHeld(String sessionId) {
+        return Optional.ofNullable(held(sessionId));
+    }
+
+    public void markDirty(LiveSession live) {
+        markDirty(live, ALL_GROUPS);
+    }
+
+    public void markDirty(LiveSession live, Set<SudokuGameSession.FieldGroup> groups) {
+        recordedChanges.incrementAndGet();
+        touch(live.getSessionId());
+        int pending = live.recordChange(groups);
+        if (!writeBehind) {
+            writeThrough(live);
+            return;
+        }
+
+        boolean registered;
+        synchronized (sessions) {
+            registered = sessions.get(live.getSessionId()) == live || evicting.get(live.getSessionId()) == live;
+        }
+        if (!registered) {
+            flush(live);
+        } else if (pending >= flushThreshold) {
+            submit(() -> flush(live));
+        }
+    }
+
+    // Saves carry the whole client state, so only the latest one in each window is written.
+    // Moves (markDirty) and pause/complete (flush/evict) still persist it straight away.
+    public void markSaved(LiveSession live) {
+        markSaved(live, ALL_GROUPS);
+    }
+
+    public void markSaved(LiveSession live, Set<SudokuGameSession.FieldGroup> groups) {
+        if (saveWindowMillis == 0) {
+            markDirty(live, groups);
+            return;
+        }
+        recordedChanges.incrementAndGet();
+        touch(live.getSessionId());
+        live.deferSave(groups);
+
+        if (!writeBehind) {
+            deferred.put(live.getSessionId(), live);
+            return;
+        }
+        boolean registered;
+        synchronized (sessions) {
+            registered = sessions.get(live.getSessionId()) == live || evicting.get(live.getSessionId()) == live;
+        }
+        if (!registered) {
+            flush(live);
+        }
+    }
+
+    // Listeners hear about every recorded change with its wall-clock time (used for session expiry).
+    public void onActivity(ObjLongConsumer<String> listener) {
+        activityListeners.add(listener);
+    }
+
+    public void touch(String sessionId) {
+        long now = System.currentTimeMillis();
+        for (ObjLongConsumer<String> listener : activityListeners) {
+            listener.accept(sessionId, now);
+        }
+    }
+
+    public void flush(String sessionId) {
+        LiveSession live = held(sessionId);
+        if (live == null) {
+            return;
+        }
+        flush(live);
+        if (!writeBehind) {
+            releaseDeferred(live);
+        }
+    }
+
+    // True while the session has changes that have not reached the database, e.g. after a failed flush.
+    public boolean hasPendingChanges(String sessionId) {
+        LiveSession live = held(sessionId);
+        return live != null && live.isDirty();
+    }
+
+    public void evict(String sessionId, boolean flushFirst) {
+        if (!writeBehind) {
+            LiveSession held = deferred.remove(sessionId);
+            if (held != null) {
+                if (flushFirst) {
+                    flush(held);
+                }
+                held.markRemoved();
+            }
+            return;
+        }
+        LiveSession live;
+        synchronized (sessions) {
+            live = sessions.remove(sessionId);
+        }
+        LiveSession pending = evicting.remove(sessionId);
+        if (live == null) {
+            live = pending;
+        }
+        if (live == null) {
+            return;
+        }
+        if (flushFirst) {
+            flush(live);
+        }
+        live.markRemoved();
+    }
+
+    public void evictAll(Collection<String> sessionIds) {
+        for (String sessionId : sessionIds) {
+            evict(sessionId, false);
+        }
+    }
+
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    public long getRecordedChanges() {
+        return recordedChanges.get();
+    }
+
+    public long getFlushedWrites() {
+        return flushedWrites.get();
+    }
+
+    void flushSweep() {
+        long now = System.currentTimeMillis();
+        long idleCutoff = now - idleEvictMillis;
+        List<LiveSession> snapshot;
+        synchronized (sessions) {
+            snapshot = new ArrayList<>(sessions.values());
+        }
+
+        for (LiveSession live : snapshot) {
+            if (live.isFlushDue(now, saveWindowMillis)) {
+                flush(live);
+            }
+            // Session lock before the map monitor, the order markDirty takes them in.
+            if (live.getLastAccessMillis() < idleCutoff) {
+                live.lock();
+                try {
+                    synchronized (sessions) {
+                        if (!live.isDirty()) {
+                            sessions.remove(live.getSessionId(), live);
+                        }
+                    }
+                } finally {
+                    live.unlock();
+                }
+            }
+        }
+        for (LiveSession live : new ArrayList<>(evicting.values())) {
+            flush(live);
+            evicting.remove(live.getSessionId(), live);
+        }
+        for (LiveSession live : new ArrayList<>(deferred.values())) {
+            if (live.isFlushDue(now, saveWindowMillis)) {
+                flush(live);
+            }
+            releaseDeferred(live);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        List<LiveSession> remaining;
+        synchronized (sessions) {
+            remaining = new ArrayList<>(sessions.values());
+            sessions.clear();
+        }
+        remaining.addAll(evicting.values());
+        evicting.clear();
+        remaining.addAll(deferred.values());
+        deferred.clear();
+        remaining.forEach(this::flush);
+        log.info("Flushed {} active session(s) on shutdown", remaining.size());
+    }
+
+    private void evictAsync(LiveSession live) {
+        if (!live.isDirty()) {
+            return;
+        }
+        evicting.put(live.getSessionId(), live);
+        submit(() -> {
+            flush(live);
+            evicting.remove(live.getSessionId(), live);
+        });
+    }
+
+    private void submit(Runnable task) {
+        try {
+            flusher.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    // The session lock is only held while the snapshot is taken, so moves are not held up by the write.
+    private void flush(LiveSession live) {
+        LiveSession.Snapshot snapshot = live.beginFlush();
+        if (snapshot == null) {
+            return;
+        }
+        boolean applied;
+        try {
+            applied = write(live, snapshot);
+        } catch (Exception e) {
+            log.warn("Failed to flush session {}: {}", live.getSessionId(), e.getMessage());
+            live.flushFailed(snapshot);
+            return;
+        } finally {
+            live.endFlush();
+        }
+        if (!applied) {
+            log.warn("Session {} changed or was deleted outside the store, dropping cached state", live.getSessionId());
+            dropCached(live);
+        }
+    }
+
+    // Write-through callers get the failure back instead of a silent drop, so the request can report it.
+    private void writeThrough(LiveSession live) {
+        LiveSession.Snapshot snapshot = live.beginFlush();
+        deferred.remove(live.getSessionId(), live);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            if (!write(live, snapshot)) {
+                throw new ObjectOptimisticLockingFailureException(SudokuGameSession.class, live.getSessionId());
+            }
+        } finally {
+            live.endFlush();
+        }
+    }
+
+    // The row patch and the journal chunks commit together, so the journal never skips or repeats a sequence.
+    private boolean write(LiveSession live, LiveSession.Snapshot snapshot) {
+        Boolean applied = transactionTemplate.execute(status -> {
+            if (!sessionRepository.patch(snapshot.session(), snapshot.expectedBoardVersion(), snapshot.groups())) {
+                status.setRollbackOnly();
+                return false;
+            }
+            if (snapshot.journal() != null) {
+                moveJournal.append(snapshot.session().getSessionId(), snapshot.journal());
+            }
+            return true;
+        });
+        flushedWrites.incrementAndGet();
+        if (!Boolean.TRUE.equals(applied)) {
+            return false;
+        }
+        live.flushed(snapshot);
+        return true;
+    }
+
+    private LiveSession open(SudokuGameSession row) {
+        LiveSession live = new LiveSession(row);
+        if (row.getJournalSequence() == null) {
+            live.getSession().setJournalSequence(moveJournal.nextSequence(row.getSessionId()));
+        }
+        return live;
+    }
+
+    private LiveSession held(String sessionId) {
+        if (!writeBehind) {
+            return deferred.get(sessionId);
+        }
+        LiveSession live;
+        synchronized (sessions) {
+            live = sessions.get(sessionId);
+        }
+        return live != null ? live : evicting.get(sessionId);
+    }
+
+    private void releaseDeferred(LiveSession live) {
+        deferred.computeIfPresent(live.getSessionId(), (id, held) -> held == live && !live.isDirty() ? null : held);
+    }
+
+    private void dropCached(LiveSession live) {
+        synchronized (sessions) {
+            sessions.remove(live.getSessionId(), live);
+        }
+        evicting.remove(live.getSessionId(), live);
+        deferred.remove(live.getSessionId(), live);
+        live.markRemoved();
+    }
+}
@@ -0,0 +1,166 @@
+package com.ltp.sudomaster.pointsengine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BoardState {
+
+    public static final int CELLS = 81;
+
+    private static final int UNITS = 27;
+    private static final int[][] UNITS_OF_CELL = new int[CELLS][3];
+    private static final int[][] CELLS_OF_UNIT = new int[UNITS][9];
+
+    static {
+        int[] filled = new int[UNITS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / 9;
+            int col = cell % 9;
+            int[] units = {row, 9 + col, 18 + (row / 3) * 3 + col / 3};
+            UNITS_OF_CELL[cell] = units;
+            for (int unit : units) {
+                CELLS_OF_UNIT[unit][filled[unit]++] = cell;
+            }
+        }
+    }
+
+    private final byte[] cells = new byte[CELLS];
+    private final byte[] counts = new byte[UNITS * 10];
+    private final short[] duplicateDigits = new short[UNITS];
+    private int filledCells;
+    private int duplicateUnits;
+
+    private BoardState() {}
+
+    public static BoardState parse(String board) {
+        if (board == null || board.length() != CELLS) {
+            throw new IllegalArgumentException("Board must have " + CELLS + " cells");
+        }
+        BoardState state = new BoardState();
+        for (int i = 0; i < CELLS; i++) {
+            int digit = board.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid cell value at position " + i);
+            }
+            state.set(i, digit);
+        }
+        return state;
+    }
+
+    public int get(int position) {
+        return cells[position];
+    }
+
+    public int set(int position, int value) {
+        int old = cells[position];
+        if (old == value) {
+            return old;
+        }
+        if (old != 0) {
+            filledCells--;
+            for (int unit : UNITS_OF_CELL[position]) {
+                if (--counts[unit * 10 + old] == 1) {
+                    clearDuplicate(unit, old);
+                }
+            }
+        }
+        cells[position] = (byte) value;
+        if (value != 0) {
+            filledCells++;
+            for (int unit : UNITS_OF_CELL[position]) {
+                if (++counts[unit * 10 + value] == 2) {
+                    markDuplicate(unit, value);
+                }
+            }
+        }
+        return old;
+    }
+
+    public boolean hasConflict(int position) {
+        int value = cells[position];
+        if (value == 0) {
+            return false;
+        }
+        for (int unit : UNITS_OF_CELL[position]) {
+            if (counts[unit * 10 + value] > 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAnyConflict() {
+        return duplicateUnits > 0;
+    }
+
+    public List<Integer> conflictingCells() {
+        if (duplicateUnits == 0) {
+            return List.of();
+        }
+        long low = 0;
+        long high = 0;
+        for (int unit = 0; unit < UNITS; unit++) {
+            int digits = duplicateDigits[unit];
+            if (digits == 0) {
+                continue;
+            }
+            for (int cell : CELLS_OF_UNIT[unit]) {
+                int value = cells[cell];
+                if (value != 0 && (digits & (1 << (value - 1))) != 0) {
+                    if (cell < 64) {
+                        low |= 1L << cell;
+                    } else {
+                        high |= 1L << (cell - 64);
+                    }
+                }
+            }
+        }
+        List<Integer> conflicts = new ArrayList<>(Long.bitCount(low) + Long.bitCount(high));
+        for (long bits = low; bits != 0; bits &= bits - 1) {
+            conflicts.add(Long.numberOfTrailingZeros(bits));
+        }
+        for (long bits = high; bits != 0; bits &= bits - 1) {
+            conflicts.add(64 + Long.numberOfTrailingZeros(bits));
+        }
+        return conflicts;
+    }
+
+    public boolean isFilled() {
+        return filledCells == CELLS;
+    }
+
+    public boolean matches(String board) {
+        if (board == null || board.length() != CELLS) {
+            return false;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            if (board.charAt(i) - '0' != cells[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String toBoardString() {
+        byte[] digits = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            digits[i] = (byte) ('0' + cells[i]);
+        }
+        return new String(digits, StandardCharsets.ISO_8859_1);
+    }
+
+    private void markDuplicate(int unit, int value) {
+        if (duplicateDigits[unit] == 0) {
+            duplicateUnits++;
+        }
+        duplicateDigits[unit] |= (short) (1 << (value - 1));
+    }
+
+    private void clearDuplicate(int unit, int value) {
+        duplicateDigits[unit] &= (short) ~(1 << (value - 1));
+        if (duplicateDigits[unit] == 0) {
+            duplicateUnits--;
+        }
+    }
+}
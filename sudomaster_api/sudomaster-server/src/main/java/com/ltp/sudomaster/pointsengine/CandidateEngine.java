@@ -0,0 +1,144 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.util.CandidateMasks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps a session's candidate masks in step with its board. Each unit (row, column, box) has a
+// mask of the digits placed in it, so a cell's possible digits are one OR of three masks, and a
+// move only revisits the cell and its 20 peers. Updates return the positions whose mask changed.
+public final class CandidateEngine {
+
+    private static final int ALL_DIGITS = 0x1FF;
+    private static final int UNITS = 27;
+    private static final int[][] UNITS_OF_CELL = new int[BoardState.CELLS][];
+    private static final int[][] PEERS = new int[BoardState.CELLS][20];
+
+    static {
+        for (int cell = 0; cell < BoardState.CELLS; cell++) {
+            int row = cell / 9;
+            int col = cell % 9;
+            UNITS_OF_CELL[cell] = new int[]{row, 9 + col, 18 + (row / 3) * 3 + col / 3};
+            int count = 0;
+            for (int other = 0; other < BoardState.CELLS; other++) {
+                if (other != cell && (other / 9 == row || other % 9 == col
+                        || (other / 27 == cell / 27 && (other % 9) / 3 == col / 3))) {
+                    PEERS[cell][count++] = other;
+                }
+            }
+        }
+    }
+
+    private final byte[] cells = new byte[BoardState.CELLS];
+    private final short[] masks = new short[BoardState.CELLS];
+    private final byte[] counts = new byte[UNITS * 10];
+    private final short[] placed = new short[UNITS];
+    private final boolean rowColKeys;
+
+    private CandidateEngine(boolean rowColKeys) {
+        this.rowColKeys = rowColKeys;
+    }
+
+    // Starts from the stored masks; cells the stored map does not list stay unlisted until they
+    // get candidates. With no stored masks every cell starts unlisted.
+    public static CandidateEngine of(BoardState board, CandidateMasks current) {
+        CandidateEngine engine = new CandidateEngine(current != null && current.usesRowColKeys());
+        for (int cell = 0; cell < BoardState.CELLS; cell++) {
+            engine.masks[cell] = current != null && current.isPresent(cell) ? (short) current.maskAt(cell) : -1;
+            engine.add(cell, board.get(cell));
+        }
+        return engine;
+    }
+
+    public boolean isPresent(int position) {
+        return masks[position] >= 0;
+    }
+
+    public int maskAt(int position) {
+        return Math.max(masks[position], 0);
+    }
+
+    // Digits not yet placed in any unit of an empty cell.
+    public int allowed(int position) {
+        if (cells[position] != 0) {
+            return 0;
+        }
+        int[] units = UNITS_OF_CELL[position];
+        return ALL_DIGITS & ~(placed[units[0]] | placed[units[1]] | placed[units[2]]);
+    }
+
+    // In auto mode the cell and its peers are set to exactly their allowed digits. Otherwise the
+    // masks are the player's notes: placing a digit clears the cell and removes the digit from its
+    // peers, and clearing a cell leaves the notes alone.
+    public List<Integer> place(int position, int value, boolean auto) {
+        int old = cells[position];
+        if (old == value) {
+            return List.of();
+        }
+        remove(position, old);
+        add(position, value);
+
+        List<Integer> changed = new ArrayList<>(4);
+        if (auto) {
+            update(position, allowed(position), changed);
+            for (int peer : PEERS[position]) {
+                update(peer, allowed(peer), changed);
+            }
+        } else if (value != 0) {
+            int bit = 1 << (value - 1);
+            update(position, 0, changed);
+            for (int peer : PEERS[position]) {
+                if (cells[peer] == 0 && masks[peer] > 0) {
+                    update(peer, masks[peer] & ~bit, changed);
+                }
+            }
+        }
+        return changed;
+    }
+
+    // Replaces every mask with the allowed digits, as when auto mode is switched on.
+    public List<Integer> fill() {
+        List<Integer> changed = new ArrayList<>();
+        for (int cell = 0; cell < BoardState.CELLS; cell++) {
+            update(cell, allowed(cell), changed);
+        }
+        return changed;
+    }
+
+    public CandidateMasks toMasks() {
+        return CandidateMasks.of(masks, rowColKeys);
+    }
+
+    private void update(int cell, int mask, List<Integer> changed) {
+        short next = masks[cell] < 0 && mask == 0 ? -1 : (short) mask;
+        if (next != masks[cell]) {
+            masks[cell] = next;
+            changed.add(cell);
+        }
+    }
+
+    private void add(int cell, int value) {
+        cells[cell] = (byte) value;
+        if (value == 0) {
+            return;
+        }
+        for (int unit : UNITS_OF_CELL[cell]) {
+            if (counts[unit * 10 + value]++ == 0) {
+                placed[unit] |= (short) (1 << (value - 1));
+            }
+        }
+    }
+
+    private void remove(int cell, int value) {
+        cells[cell] = 0;
+        if (value == 0) {
+            return;
+        }
+        for (int unit : UNITS_OF_CELL[cell]) {
+            if (--counts[unit * 10 + value] == 0) {
+                placed[unit] &= (short) ~(1 << (value - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.entity.CompletionTask;
+import com.ltp.sudomaster.entity.Enums;
+import com.ltp.sudomaster.repository.CompletionTaskRepository;
+import com.ltp.sudomaster.repository.GameScoreRepository;
+import com.ltp.sudomaster.repository.SudokuGameSessionRepository;
+import com.ltp.sudomaster.repository.SudokuPuzzleRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ranking and cleanup for completeGame. Tasks are written in the score's transaction, so a crash
+// only delays them until the next sweep.
+@Slf4j
+@Component
+public class CompletionPipeline {
+
+    private static final int SWEEP_BATCH = 100;
+
+    private final CompletionTaskRepository taskRepository;
+    private final GameScoreRepository gameScoreRepository;
+    private final SudokuGameSessionRepository sessionRepository;
+    private final SudokuPuzzleRepository puzzleRepository;
+    private final PuzzleCache puzzleCache;
+    private final TransactionTemplate transactionTemplate;
+    private final long claimTimeoutMillis;
+    private final long retainMillis;
+    private final ExecutorService workers;
+
+    public CompletionPipeline(
+            CompletionTaskRepository taskRepository,
+            GameScoreRepository gameScoreRepository,
+            SudokuGameSessionRepository sessionRepository,
+            SudokuPuzzleRepository puzzleRepository,
+            PuzzleCache puzzleCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${sudomaster.completion.workers:2}") int workers,
+            @Value("${sudomaster.completion.claim-timeout-ms:60000}") long claimTimeoutMillis,
+            @Value("${sudomaster.completion.retain-ms:86400000}") long retainMillis) {
+        this.taskRepository = taskRepository;
+        this.gameScoreRepository = gameScoreRepository;
+        this.sessionRepository = sessionRepository;
+        this.puzzleRepository = puzzleRepository;
+        this.puzzleCache = puzzleCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.retainMillis = retainMillis;
+
+        if (workers > 0) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "completion-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.workers = null;
+        }
+    }
+
+    // Must be called inside the transaction that persists the score.
+    void enqueue(CompletionTask task) {
+        taskRepository.save(task);
+        String sessionId = task.getSessionId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(sessionId);
+                }
+            });
+        } else {
+            dispatch(sessionId);
+        }
+    }
+
+    public Optional<CompletionTask> find(String sessionId) {
+        return taskRepository.findById(sessionId);
+    }
+
+    public boolean isRecorded(String sessionId) {
+        return taskRepository.existsById(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${sudomaster.completion.sweep-interval-ms:30000}",
+               initialDelayString = "${sudomaster.completion.sweep-interval-ms:30000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String sessionId : taskRepository.findClaimable(now.minusNanos(claimTimeoutMillis * 1_000_000),
+                PageRequest.of(0, SWEEP_BATCH))) {
+            process(sessionId);
+        }
+        Integer purged = transactionTemplate.execute(status ->
+                taskRepository.deleteDoneBefore(now.minusNanos(retainMillis * 1_000_000)));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} finished completion task(s)", purged);
+        }
+    }
+
+    // Idempotent: a task is claimed before it is worked and marked DONE in the same transaction
+    // as the cleanup, so concurrent or repeated calls for one session do the work at most once.
+    public boolean process(String sessionId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusNanos(claimTimeoutMillis * 1_000_000);
+        Integer claimed = transactionTemplate.execute(status -> taskRepository.claim(sessionId, now, staleBefore));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+
+        try {
+            Long puzzleId = transactionTemplate.execute(status -> {
+                CompletionTask task = taskRepository.findById(sessionId).orElseThrow();
+                // Tasks written before bestCompletedAt existed share the rank of any tied score.
+                long ahead = task.getBestCompletedAt() != null
+                        ? gameScoreRepository.countRankedAhead(task.getDifficulty(), task.getBestScore(), task.getBestCompletedAt())
+                        : gameScoreRepository.countByDifficultyAndScoreGreaterThan(task.getDifficulty(), task.getBestScore());
+
+                sessionRepository.findBySessionId(sessionId).ifPresent(sessionRepository::delete);
+                if (task.getPuzzleId() != null && puzzleRepository.existsById(task.getPuzzleId())) {
+                    puzzleRepository.deleteById(task.getPuzzleId());
+                }
+
+                task.setRank((int) Math.min(Integer.MAX_VALUE, ahead + 1));
+                task.setState(Enums.CompletionState.DONE);
+                task.setProcessedAt(LocalDateTime.now());
+                taskRepository.save(task);
+                return task.getPuzzleId();
+            });
+            if (puzzleId != null) {
+                puzzleCache.evict(puzzleId);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Completion task for session {} failed, will retry: {}", sessionId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> taskRepository.release(sessionId));
+            return false;
+        }
+    }
+
+    private void dispatch(String sessionId) {
+        if (workers == null) {
+            process(sessionId);
+            return;
+        }
+        try {
+            workers.execute(() -> process(sessionId));
+        } catch (RejectedExecutionException e) {
+            log.debug("Completion workers unavailable, session {} left for the sweep", sessionId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,1109 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.*;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.exception.GenerationUnavailableException;
+import com.ltp.sudomaster.exception.StaleStateException;
+import com.ltp.sudomaster.repository.*;
+import com.ltp.sudomaster.service.PlayedPuzzleService;
+import com.ltp.sudomaster.service.PuzzleCatalogueService;
+import com.ltp.sudomaster.service.PuzzleGenerationService;
+import com.ltp.sudomaster.service.PuzzlePoolService;
+import com.ltp.sudomaster.sudokugen.*;
+import com.ltp.sudomaster.util.CandidateMasks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Slf4j
+@Service
+public class GameEngine {
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    @Autowired
+    private ScoringEngine scoringEngine;
+
+    @Autowired
+    private PuzzleGenerationService puzzleGenerationService;
+
+    @Autowired
+    private PuzzleCatalogueService puzzleCatalogueService;
+
+    @Autowired
+    private PlayedPuzzleService playedPuzzleService;
+
+    @Autowired
+    private PuzzlePoolService puzzlePoolService;
+
+    @Autowired
+    private ActiveSessionStore activeSessionStore;
+
+    @Autowired
+    private MoveJournal moveJournal;
+
+    @Autowired
+    private PuzzleCache puzzleCache;
+
+    @Autowired
+    private CompletionPipeline completionPipeline;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HintEngine hintEngine;
+
+    private static final Set<SudokuGameSession.FieldGroup> BOARD_FIELDS = EnumSet.of(SudokuGameSession.FieldGroup.BOARD);
+    private static final Set<SudokuGameSession.FieldGroup> BOARD_AND_CANDIDATE_FIELDS =
+            EnumSet.of(SudokuGameSession.FieldGroup.BOARD, SudokuGameSession.FieldGroup.CANDIDATES);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public GameResponse createGame(CreateGameRequest request) {
+        String difficultyStr = request.getDifficulty();
+        Enums.Difficulty difficulty;
+        
+        try {
+            difficulty = Enums.Difficulty.valueOf(difficultyStr.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid difficulty: " + difficultyStr);
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new IllegalArgumentException("User not authenticated");
+        }
+
+        String userId = auth.getName();
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found: " + userId);
+        }
+
+        OptionalInt picked = playedPuzzleService.pickUnplayed(userId, difficulty);
+        if (picked.isPresent()) {
+            Optional<PuzzleCatalogueService.CatalogueEntry> entry = puzzleCatalogueService.get(picked.getAsInt());
+            if (entry.isPresent()) {
+                GameResponse response = transactionTemplate.execute(status -> persistNewGame(userId, difficulty,
+                        entry.get().cluesString(), entry.get().solutionString(), entry.get().catalogueId()));
+                // The game is already committed; if the mark is lost the puzzle may simply be picked again.
+                try {
+                    playedPuzzleService.markPlayed(userId, entry.get().catalogueId());
+                } catch (Exception e) {
+                    log.warn("Failed to mark catalogue puzzle {} played for user {}: {}",
+                            entry.get().catalogueId(), userId, e.getMessage());
+                }
+                return response;
+            }
+        }
+
+        Optional<PuzzlePoolService.PooledPuzzle> pooled = puzzlePoolService.take(difficulty);
+        if (pooled.isPresent()) {
+            return transactionTemplate.execute(status -> persistNewGame(userId, difficulty,
+                    pooled.get().cluesString(), pooled.get().solutionString(), null));
+        }
+
+        com.ltp.sudomaster.sudokugen.GeneratedPuzzle generatedPuzzle;
+        try {
+            com.ltp.sudomaster.sudokugen.Difficulty sudokugenDifficulty = 
+                com.ltp.sudomaster.sudokugen.Difficulty.valueOf(difficulty.toString());
+            generatedPuzzle = puzzleGenerationService.generate(sudokugenDifficulty);
+        } catch (GenerationUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to generate puzzle", e);
+            throw new RuntimeException("Failed to generate puzzle: " + e.getMessage(), e);
+        }
+
+        return transactionTemplate.execute(status -> persistNewGame(userId, difficulty,
+                boardToString(generatedPuzzle.puzzle()), boardToString(generatedPuzzle.solution()), null));
+    }
+
+    private GameResponse persistNewGame(String userId, Enums.Difficulty difficulty,
+                                        String cluesString, String solutionString, Integer catalogueId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + userId));
+
+        cleanupIncompleteSessionForDifficulty(userId, difficulty);
+
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        puzzle.setCluesString(cluesString);
+        puzzle.setSolutionString(solutionString);
+        puzzle.setDifficulty(difficulty);
+        puzzle.setCatalogueId(catalogueId);
+        puzzleRepository.save(puzzle);
+        puzzleCache.put(puzzle);
+
+        String sessionId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+
+        SudokuGameSession session = SudokuGameSession.builder()
+                .sessionId(sessionId)
+                .puzzle(puzzle)
+                .user(user)
+                .boardString(cluesString)
+                .candidateMasks(CandidateMasks.blank().toBytes())
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        sessionRepository.save(session);
+        activeSessionStore.touch(sessionId);
+        return buildGameResponse(session);
+    }
+
+    public GameResponse getGame(String sessionId) {
+        LiveSession live = activeSessionStore.find(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found"));
+        
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated()) {
+            String userId = auth.getName();
+            if (live.getOwnerId() != null && !live.getOwnerId().equals(userId)) {
+                throw new EntityNotFoundException("Session not found");
+            }
+        }
+        
+        live.lock();
+        try {
+            return buildGameResponse(live.getSession());
+        } finally {
+            live.unlock();
+        }
+    }
+
+    public MoveResponse makeMove(String sessionId, MoveRequest request) {
+        LiveSession live = findMovableSession(sessionId);
+        live.lock();
+        try {
+            return applyMove(live, request);
+        } finally {
+            live.unlock();
+        }
+    }
+
+    public MoveDeltaResponse makeMoveDelta(String sessionId, MoveRequest request) {
+        LiveSession live = findMovableSession(sessionId);
+        live.lock();
+        try {
+            return applyMoveDelta(live, request);
+        } finally {
+            live.unlock();
+        }
+    }
+
+    private LiveSession findMovableSession(String sessionId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+
+        LiveSession live = activeSessionStore.find(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found"));
+
+        if (userId != null && live.getOwnerId() != null && !live.getOwnerId().equals(userId)) {
+            throw new EntityNotFoundException("Session not found");
+        }
+        return live;
+    }
+
+    private MoveResponse applyMove(LiveSession live, MoveRequest request) {
+        MoveOutcome outcome = applyMoveToSession(live, request);
+        if (outcome.applied()) {
+            activeSessionStore.markDirty(live, fieldsChangedBy(outcome.candidateChanges()));
+        }
+
+        SudokuGameSession session = live.getSession();
+        int moveCount = session.getMoveCount() != null ? session.getMoveCount() : 0;
+        if (outcome.clueRejected()) {
+            moveCount = 0;
+        }
+        MoveResponse response = new MoveResponse(session.getSessionId(), session.getBoardString(), candidatesView(session),
+                outcome.valid(), outcome.message(), null, session.getStatus().toString(), moveCount);
+        response.setBoardVersion(boardVersionOf(session));
+        response.setConflicts(live.board().conflictingCells());
+        return response;
+    }
+
+    private MoveDeltaResponse applyMoveDelta(LiveSession live, MoveRequest request) {
+        long baseVersion = boardVersionOf(live.getSession());
+        MoveOutcome outcome = applyMoveToSession(live, request);
+        if (outcome.applied()) {
+            activeSessionStore.markDirty(live, fieldsChangedBy(outcome.candidateChanges()));
+        }
+
+        SudokuGameSession session = live.getSession();
+
+        MoveDeltaResponse.MoveDeltaResponseBuilder delta = MoveDeltaResponse.builder()
+                .boardVersion(boardVersionOf(session))
+                .valid(outcome.valid())
+                .message(outcome.message())
+                .completionStatus(session.getStatus().toString())
+                .moveCount(outcome.clueRejected() ? 0 : session.getMoveCount() != null ? session.getMoveCount() : 0)
+                .conflicts(live.board().conflictingCells());
+
+        if (request.getBaseVersion() == null || request.getBaseVersion() != baseVersion) {
+            return delta.resync(true)
+                    .boardString(session.getBoardString())
+                    .candidates(candidatesView(session))
+                    .build();
+        }
+
+        delta.resync(false);
+        if (outcome.applied()) {
+            int position = request.getPosition();
+            delta.position(position).value(request.getValue());
+            if (!outcome.candidateChanges().isEmpty()) {
+                CandidateEngine candidates = live.candidates();
+                Map<String, Integer> masks = new LinkedHashMap<>();
+                for (int cell : outcome.candidateChanges()) {
+                    masks.put(String.valueOf(cell), candidates.maskAt(cell));
+                }
+                delta.candidateMasks(masks);
+            }
+        }
+        return delta.build();
+    }
+
+    public BatchMoveResponse makeMoves(String sessionId, BatchMoveRequest request) {
+        LiveSession live = findMovableSession(sessionId);
+        live.lock();
+        try {
+            List<BatchMoveResponse.MoveResult> results = new ArrayList<>(request.getMoves().size());
+            boolean anyApplied = false;
+            boolean candidatesChanged = false;
+            for (MoveRequest move : request.getMoves()) {
+                MoveOutcome outcome = applyMoveToSession(live, move);
+                anyApplied |= outcome.applied();
+                candidatesChanged |= !outcome.candidateChanges().isEmpty();
+                results.add(new BatchMoveResponse.MoveResult(move.getPosition(), move.getValue(),
+                        outcome.valid(), outcome.applied(), outcome.message()));
+            }
+            if (anyApplied) {
+                activeSessionStore.markDirty(live, candidatesChanged ? BOARD_AND_CANDIDATE_FIELDS : BOARD_FIELDS);
+            }
+
+            SudokuGameSession session = live.getSession();
+            return BatchMoveResponse.builder()
+                    .sessionId(sessionId)
+                    .boardString(session.getBoardString())
+                    .candidates(candidatesView(session))
+                    .completionStatus(session.getStatus().toString())
+                    .moveCount(session.getMoveCount() != null ? session.getMoveCount() : 0)
+                    .boardVersion(boardVersionOf(session))
+                    .conflicts(live.board().conflictingCells())
+                    .results(results)
+                    .build();
+        } finally {
+            live.unlock();
+        }
+    }
+
+    public MoveResponse undoMove(String sessionId) {
+        LiveSession live = findMovableSession(sessionId);
+        live.lock();
+        try {
+            return applyUndo(live);
+        } finally {
+            live.unlock();
+        }
+    }
+
+    private MoveResponse applyUndo(LiveSession live) {
+        SudokuGameSession session = live.getSession();
+        int moveCount = session.getMoveCount() != null ? session.getMoveCount() : 0;
+        if (session.getStatus() == Enums.GameStatus.COMPLETED) {
+            return new MoveResponse(session.getSessionId(), session.getBoardString(), candidatesView(session),
+                    false, "Game already completed", null, session.getStatus().toString(), moveCount);
+        }
+
+        Deque<JournalEntry> undoable = new ArrayDeque<>();
+        for (MoveJournal.TimedEntry timed : moveJournal.replay(live).entries()) {
+            JournalEntry entry = timed.entry();
+            switch (entry.kind()) {
+                case MOVE -> undoable.push(entry);
+                case UNDO -> undoable.poll();
+                case SAVE -> undoable.clear();
+            }
+        }
+        if (undoable.isEmpty()) {
+            return new MoveResponse(session.getSessionId(), session.getBoardString(), candidatesView(session),
+                    false, "Nothing to undo", null, session.getStatus().toString(), moveCount);
+        }
+
+        JournalEntry last = undoable.peek();
+        int position = last.position();
+        BoardState board = live.board();
+        List<Integer> candidateChanges = live.placeCandidates(position, last.oldValue(), isAutoCandidateMode(session));
+        int current = board.set(position, last.oldValue());
+        live.boardChanged();
+        session.setBoardVersion(boardVersionOf(session) + 1);
+        session.setUpdatedAt(LocalDateTime.now());
+        live.appendJournal(position, current, last.oldValue(), JournalEntry.Kind.UNDO);
+        activeSessionStore.markDirty(live, fieldsChangedBy(candidateChanges));
+
+        boolean valid = !board.hasConflict(position);
+        session = live.getSession();
+        MoveResponse response = new MoveResponse(session.getSessionId(), session.getBoardString(), candidatesView(session),
+                valid, "Move undone", null, session.getStatus().toString(), moveCount);
+        response.setBoardVersion(boardVersionOf(session));
+        response.setConflicts(board.conflictingCells());
+        return response;
+    }
+
+    public MoveJournalResponse getJournal(String sessionId) {
+        LiveSession live = findMovableSession(sessionId);
+        MoveJournal.Replay replay;
+        live.lock();
+        try {
+            replay = moveJournal.replay(live);
+        } finally {
+            live.unlock();
+        }
+
+        List<MoveJournalResponse.Entry> entries = new ArrayList<>(replay.entries().size());
+        for (MoveJournal.TimedEntry timed : replay.entries()) {
+            JournalEntry entry = timed.entry();
+            entries.add(new MoveJournalResponse.Entry(timed.sequence(), entry.position(), entry.oldValue(),
+                    entry.newValue(), entry.kind().name(), timed.atMillis()));
+        }
+        return MoveJournalResponse.builder()
+                .sessionId(sessionId)
+                .baseBoard(replay.baseBoard())
+                .baseSequence(replay.baseSequence())
+                .entries(entries)
+                .build();
+    }
+
+    private record MoveOutcome(boolean valid, boolean applied, boolean clueRejected, String message,
+                               List<Integer> candidateChanges) {
+
+        MoveOutcome(boolean valid, boolean applied, boolean clueRejected, String message) {
+            this(valid, applied, clueRejected, message, List.of());
+        }
+    }
+
+    private static Set<SudokuGameSession.FieldGroup> fieldsChangedBy(List<Integer> candidateChanges) {
+        return candidateChanges.isEmpty() ? BOARD_FIELDS : BOARD_AND_CANDIDATE_FIELDS;
+    }
+
+    private static boolean isAutoCandidateMode(SudokuGameSession session) {
+        return Boolean.TRUE.equals(session.getIsAutoCandidateMode());
+    }
+
+    private MoveOutcome applyMoveToSession(LiveSession live, MoveRequest request) {
+        SudokuGameSession session = live.getSession();
+        if (session.getStatus() == Enums.GameStatus.COMPLETED) {
+            return new MoveOutcome(false, false, false, "Game already completed");
+        }
+
+        int position = request.getPosition();
+        int value = request.getValue();
+
+        if (puzzleCache.get(session).isClue(position)) {
+            return new MoveOutcome(false, false, true, "Cannot modify prefilled cell");
+        }
+
+        BoardState board = live.board();
+        List<Integer> candidateChanges = live.placeCandidates(position, value, isAutoCandidateMode(session));
+        int previous = board.set(position, value);
+        live.boardChanged();
+
+        boolean isValid = !board.hasConflict(position);
+        String message = isValid ? "Move successful" : "Invalid move: Duplicate found";
+
+        session.setBoardVersion(boardVersionOf(session) + 1);
+        session.setUpdatedAt(LocalDateTime.now());
+        live.appendJournal(position, previous, value, JournalEntry.Kind.MOVE);
+
+        boolean isComplete = puzzleCache.get(session).isSolvedBy(board);
+        if (isComplete) {
+            session.setStatus(Enums.GameStatus.COMPLETED);
+            message = "🎉 Congratulations! You completed the puzzle!";
+        }
+
+        session.setMoveCount((session.getMoveCount() != null ? session.getMoveCount() : 0) + 1);
+        return new MoveOutcome(isValid, true, false, message, candidateChanges);
+    }
+
+    public ValidationResponse validateGame(String sessionId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+        
+        LiveSession live = activeSessionStore.find(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found"));
+        
+        if (userId != null && live.getOwnerId() != null && !live.getOwnerId().equals(userId)) {
+            throw new EntityNotFoundException("Session not found");
+        }
+
+        live.lock();
+        try {
+            return validateLiveSession(live);
+        } finally {
+            live.unlock();
+        }
+    }
+
+    private ValidationResponse validateLiveSession(LiveSession live) {
+        SudokuGameSession session = live.getSession();
+        String boardString = session.getBoardString();
+        PuzzleData puzzle = puzzleCache.get(session);
+
+        List<String> errors = new ArrayList<>();
+        boolean isValid = true;
+        boolean isComplete = false;
+
+        if (boardString.contains("0")) {
+            errors.add("Puzzle is not complete");
+            isValid = false;
+        } else if (puzzle.isSolvedBy(boardString)) {
+            isComplete = true;
+            session.setStatus(Enums.GameStatus.COMPLETED);
+            activeSessionStore.markDirty(live, BOARD_FIELDS);
+        }
+
+        String status = isComplete ? "COMPLETED" : "IN_PROGRESS";
+        return new ValidationResponse(isValid, isComplete, errors, status);
+    }
+
+    public GameCompleteResponse completeGame(String sessionId, Integer elapsedTime, Integer mistakes, Boolean autoCandidateMode) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+        if (userId == null) {
+            throw new IllegalArgumentException("User not authenticated");
+        }
+        
+        if (sessionId == null || sessionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Session ID cannot be null or empty");
+        }
+        if (elapsedTime == null || elapsedTime <= 0) {
+            throw new IllegalArgumentException("Elapsed time must be positive");
+        }
+        if (mistakes == null || mistakes < 0) {
+            throw new IllegalArgumentException("Mistakes cannot be negative");
+        }
+        if (autoCandidateMode == null) {
+            throw new IllegalArgumentException("Auto-candidate mode flag is required");
+        }
+
+        LiveSession live = activeSessionStore.find(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found: " + sessionId));
+        
+        if (live.getOwnerId() != null && !live.getOwnerId().equals(userId)) {
+            throw new IllegalStateException("Unauthorized: You do not own this game session");
+        }
+
+        // Every rejection is decided on the live board, before anything is flushed or evicted, so a
+        // rejected completion leaves buffered moves and saves where they were.
+        live.lock();
+        try {
+            SudokuGameSession current = live.getSession();
+            String boardString = current.getBoardString();
+            if (boardString.contains("0")) {
+                throw new IllegalStateException("Cannot complete game: Board still has empty cells");
+            }
+            if (!puzzleCache.get(current).isSolvedBy(boardString)) {
+                throw new IllegalStateException("Cannot complete game: Board solution is incorrect");
+            }
+        } finally {
+            live.unlock();
+        }
+        if (completionPipeline.isRecorded(sessionId) || gameScoreRepository.existsBySessionId(sessionId)) {
+            throw new IllegalStateException("This game session has already been completed and scored");
+        }
+
+        // The flush commits on its own, outside the scoring transaction, so a failure while scoring
+        // cannot roll back the player's moves after the session has left the store.
+        activeSessionStore.flush(sessionId);
+        if (activeSessionStore.hasPendingChanges(sessionId)) {
+            throw new DataAccessResourceFailureException("Could not save progress of session " + sessionId);
+        }
+        activeSessionStore.evict(sessionId, true);
+        return transactionTemplate.execute(status -> recordCompletion(sessionId, userId, elapsedTime, mistakes, autoCandidateMode));
+    }
+
+    private GameCompleteResponse recordCompletion(String sessionId, String userId, Integer elapsedTime,
+                                                  Integer mistakes, Boolean autoCandidateMode) {
+        SudokuGameSession session = sessionRepository.findBySessionId(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found: " + sessionId));
+        PuzzleData puzzle = puzzleCache.get(session);
+        if (!puzzle.isSolvedBy(session.getBoardString())) {
+            throw new IllegalStateException("Cannot complete game: Board solution is incorrect");
+        }
+
+        session.setStatus(Enums.GameStatus.COMPLETED);
+        session.setUpdatedAt(LocalDateTime.now());
+        sessionRepository.save(session);
+
+        String difficulty = puzzle.getDifficulty().toString();
+        int calculatedScore = scoringEngine.calculateScore(
+                Enums.Difficulty.valueOf(difficulty),
+                elapsedTime,
+                mistakes,
+                autoCandidateMode
+        );
+
+        String message = "Game completed";
+        int bestScore = calculatedScore;
+        LocalDateTime bestCompletedAt = LocalDateTime.now();
+        
+        Optional<GameScore> existingBestScore = findBestScore(userId, difficulty);
+        
+        if (existingBestScore.isPresent()) {
+            GameScore existingScore = existingBestScore.get();
+            int previousScore = existingScore.getScore() != null ? existingScore.getScore() : 0;
+            
+            if (calculatedScore > previousScore) {
+                existingScore.setScore(calculatedScore);
+                existingScore.setElapsedTimeSeconds(elapsedTime);
+                existingScore.setMistakes(mistakes);
+                existingScore.setAutoCandidateMode(autoCandidateMode);
+                existingScore.setCompletedAt(bestCompletedAt);
+                
+                gameScoreRepository.save(existingScore);
+                message = "🏆 New personal best! Score: " + calculatedScore + " points";
+            } else {
+                bestScore = previousScore;
+                bestCompletedAt = existingScore.getCompletedAt();
+                message = "Good effort! Your best score is: " + previousScore + " points";
+            }
+        } else {
+            GameScore newScore = GameScore.builder()
+                    .sessionId(sessionId)
+                    .user(session.getUser())
+                    .difficulty(Enums.Difficulty.valueOf(difficulty))
+                    .elapsedTimeSeconds(elapsedTime)
+                    .mistakes(mistakes)
+                    .autoCandidateMode(autoCandidateMode)
+                    .score(calculatedScore)
+                    .completedAt(bestCompletedAt)
+                    .build();
+            
+            gameScoreRepository.save(newScore);
+            message = "🎉 Congratulations! Your score: " + calculatedScore + " points";
+        }
+
+        completionPipeline.enqueue(CompletionTask.builder()
+                .sessionId(sessionId)
+                .userId(userId)
+                .puzzleId(puzzle.getId())
+                .difficulty(puzzle.getDifficulty())
+                .bestScore(bestScore)
+                .bestCompletedAt(bestCompletedAt)
+                .build());
+
+        return GameCompleteResponse.builder()
+                .sessionId(sessionId)
+                .userId(userId)
+                .elapsedTime(elapsedTime)
+                .score(calculatedScore)
+                .difficulty(difficulty)
+                .completionStatus("COMPLETED")
+                .message(message)
+                .build();
+    }
+
+    public CompletionResponse getCompletion(String sessionId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+
+        CompletionTask task = completionPipeline.find(sessionId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new EntityNotFoundException("Completion not found: " + sessionId));
+        return CompletionResponse.builder()
+                .sessionId(sessionId)
+                .difficulty(task.getDifficulty().toString())
+                .bestScore(task.getBestScore())
+                .state(task.getState().toString())
+                .rank(task.getRank())
+                .build();
+    }
+
+    @Transactional
+    public void abandonGame(String sessionId) {
+        if (sessionId == null || sessionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Session ID cannot be null or empty");
+        }
+        
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+        
+        LiveSession live = activeSessionStore.find(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found: " + sessionId));
+        
+        if (userId != null && live.getOwnerId() != null && !live.getOwnerId().equals(userId)) {
+            throw new IllegalStateException("Unauthorized: You do not own this game session");
+        }
+        
+        if (live.getSession().getStatus() == Enums.GameStatus.COMPLETED) {
+            throw new IllegalStateException("Cannot abandon a completed game session");
+        }
+
+        activeSessionStore.evict(sessionId, false);
+        sessionRepository.findBySessionId(sessionId).ifPresent(this::deleteGameSessionAndAssociatedData);
+    }
+
+    // Version tag for conditional reads. A session held in memory is tagged from its own state, so
+    // buffered changes are covered without a flush; otherwise only the row version is read.
+    public String getGameVersionTag(String sessionId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<LiveSession> held = activeSessionStore.findHeld(sessionId);
+        if (held.isPresent()) {
+            LiveSession live = held.get();
+            if (auth != null && auth.isAuthenticated() && live.getOwnerId() != null && !live.getOwnerId().equals(auth.getName())) {
+                throw new EntityNotFoundException("Session not found");
+            }
+            return live.versionTag();
+        }
+
+        SudokuGameSessionRepository.VersionView view = sessionRepository.findVersionBySessionId(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found"));
+        if (auth != null && auth.isAuthenticated() && view.getUserId() != null && !view.getUserId().equals(auth.getName())) {
+            throw new EntityNotFoundException("Session not found");
+        }
+        return LiveSession.versionTag(view.getSessionId(), view.getVersion());
+    }
+
+    public boolean hasPendingChanges(String sessionId) {
+        return activeSessionStore.hasPendingChanges(sessionId);
+    }
+
+    public Optional<String> getSavedGameVersionTag(String userId, String difficulty) {
+        Enums.Difficulty diff;
+        try {
+            diff = Enums.Difficulty.valueOf(difficulty.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid difficulty: " + difficulty);
+        }
+
+        List<SudokuGameSessionRepository.VersionView> latest = sessionRepository.findVersionsByUserIdAndDifficultyAndStatus(
+                userId, diff, Enums.GameStatus.IN_PROGRESS, PageRequest.of(0, 1));
+        if (latest.isEmpty()) {
+            return Optional.empty();
+        }
+        SudokuGameSessionRepository.VersionView view = latest.get(0);
+        return Optional.of(activeSessionStore.findHeld(view.getSessionId())
+                .map(LiveSession::versionTag)
+                .orElseGet(() -> LiveSession.versionTag(view.getSessionId(), view.getVersion())));
+    }
+
+    public SavedGameResponse getSavedGame(String userId, String difficulty) {
+        Enums.Difficulty diff;
+        try {
+            diff = Enums.Difficulty.valueOf(difficulty.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid difficulty: " + difficulty);
+        }
+
+        List<SudokuGameSession> sessions = sessionRepository.findByUserIdAndDifficultyAndStatus(
+                userId, diff, Enums.GameStatus.IN_PROGRESS);
+        
+        if (sessions.isEmpty()) {
+            return null;
+        }
+        
+        SudokuGameSession session = activeSessionStore.peek(sessions.get(0).getSessionId())
+                .orElse(sessions.get(0));
+        PuzzleData puzzle = puzzleCache.get(session);
+        
+        return SavedGameResponse.builder()
+                .sessionId(session.getSessionId())
+                .cluesString(puzzle.cluesString())
+                .boardString(session.getBoardString())
+                .candidatesJson(session.getCandidatesJson())
+                .difficulty(puzzle.getDifficulty().toString())
+                .status(session.getStatus().toString())
+                .elapsedTimeSeconds(session.getElapsedTimeSeconds())
+                .errorCount(session.getErrorCount())
+                .autoCandidateModeUsed(session.getAutoCandidateModeUsed())
+                .isAutoCandidateMode(session.getIsAutoCandidateMode())
+                .colorProfile(session.getColorProfile())
+                .settingsJson(session.getSettingsJson())
+                .createdAt(session.getCreatedAt())
+                .updatedAt(session.getUpdatedAt())
+                .build();
+    }
+
+    // One projection query for the resume screen. Sessions held by the store are shown with their
+    // buffered values; the full state is only read when a game is resumed.
+    public Map<String, List<SavedGameSummary>> getSavedGameSummaries(String userId) {
+        Map<String, List<SavedGameSummary>> byDifficulty = new LinkedHashMap<>();
+        for (Enums.Difficulty difficulty : Enums.Difficulty.values()) {
+            byDifficulty.put(difficulty.name(), new ArrayList<>());
+        }
+
+        for (SudokuGameSessionRepository.SummaryView row
+                : sessionRepository.findSummariesByUserIdAndStatus(userId, Enums.GameStatus.IN_PROGRESS)) {
+            SavedGameSummary.SavedGameSummaryBuilder summary = SavedGameSummary.builder()
+                    .sessionId(row.getSessionId())
+                    .difficulty(row.getDifficulty().name())
+                    .createdAt(row.getCreatedAt());
+            Optional<SudokuGameSession> held = activeSessionStore.peek(row.getSessionId());
+            if (held.isPresent()) {
+                SudokuGameSession session = held.get();
+                if (session.getStatus() != Enums.GameStatus.IN_PROGRESS) {
+                    continue;
+                }
+                summary.elapsedTimeSeconds(session.getElapsedTimeSeconds())
+                        .errorCount(session.getErrorCount())
+                        .moveCount(session.getMoveCount())
+                        .boardVersion(boardVersionOf(session))
+                        .updatedAt(session.getUpdatedAt());
+            } else {
+                summary.elapsedTimeSeconds(row.getElapsedTimeSeconds())
+                        .errorCount(row.getErrorCount())
+                        .moveCount(row.getMoveCount())
+                        .boardVersion(row.getBoardVersion() != null ? row.getBoardVersion() : 0L)
+                        .updatedAt(row.getUpdatedAt());
+            }
+            byDifficulty.get(row.getDifficulty().name()).add(summary.build());
+        }
+        return byDifficulty;
+    }
+
+    public long saveGameState(String sessionId, SaveGameRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+        
+        if (userId == null) {
+            throw new IllegalArgumentException("User not authenticated");
+        }
+        
+        LiveSession live = activeSessionStore.find(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found: " + sessionId));
+        
+        if (live.getOwnerId() != null && !live.getOwnerId().equals(userId)) {
+            throw new IllegalStateException("Unauthorized: You do not own this game session");
+        }
+
+        live.lock();
+        try {
+            applySavedState(live, request);
+            return boardVersionOf(live.getSession());
+        } finally {
+            live.unlock();
+        }
+    }
+
+    public PauseResumeResponse pauseResumeGame(String sessionId, PauseResumeRequest request) {
+        String action = request.getAction().trim().toUpperCase();
+        if (!action.equals("PAUSE") && !action.equals("RESUME")) {
+            throw new IllegalArgumentException("Invalid action: " + request.getAction());
+        }
+
+        LiveSession live = findMovableSession(sessionId);
+        if (action.equals("PAUSE")) {
+            activeSessionStore.flush(sessionId);
+        }
+
+        String status;
+        live.lock();
+        try {
+            status = live.getSession().getStatus().toString();
+        } finally {
+            live.unlock();
+        }
+        Long pausedSeconds = request.getPausedDurationSeconds() != null
+                ? request.getPausedDurationSeconds().longValue() : null;
+        String message = action.equals("PAUSE") ? "Game paused" : "Game resumed";
+        return new PauseResumeResponse(sessionId, action, message, pausedSeconds, status, LocalDateTime.now());
+    }
+
+    private void applySavedState(LiveSession live, SaveGameRequest request) {
+        SudokuGameSession session = live.getSession();
+        String sessionId = session.getSessionId();
+
+        if (session.getStatus() == Enums.GameStatus.COMPLETED) {
+            log.debug("Skipping save for completed session: {}", sessionId);
+            return;
+        }
+
+        long currentVersion = boardVersionOf(session);
+        if (request.getBaseVersion() != null && request.getBaseVersion() < currentVersion) {
+            throw new StaleStateException("Save is based on board version " + request.getBaseVersion()
+                    + " but the board is at " + currentVersion, currentVersion);
+        }
+        if (request.getBoardString() != null) {
+            checkSavedBoard(session, request.getBoardString());
+        }
+        
+        Set<SudokuGameSession.FieldGroup> changed = EnumSet.noneOf(SudokuGameSession.FieldGroup.class);
+        if (request.getElapsedTimeSeconds() != null) {
+            session.setElapsedTimeSeconds(request.getElapsedTimeSeconds());
+            changed.add(SudokuGameSession.FieldGroup.TIMER);
+        }
+        if (request.getErrorCount() != null) {
+            session.setErrorCount(request.getErrorCount());
+            changed.add(SudokuGameSession.FieldGroup.TIMER);
+        }
+        if (request.getAutoCandidateModeUsed() != null) {
+            session.setAutoCandidateModeUsed(request.getAutoCandidateModeUsed());
+            changed.add(SudokuGameSession.FieldGroup.SETTINGS);
+        }
+        boolean autoModeSwitchedOn = request.getIsAutoCandidateMode() != null
+                && request.getIsAutoCandidateMode() && !isAutoCandidateMode(session);
+        if (request.getIsAutoCandidateMode() != null) {
+            session.setIsAutoCandidateMode(request.getIsAutoCandidateMode());
+            changed.add(SudokuGameSession.FieldGroup.SETTINGS);
+        }
+        if (request.getCandidatesJson() != null) {
+            session.setCandidatesJson(request.getCandidatesJson());
+            live.resetCandidates();
+            changed.add(SudokuGameSession.FieldGroup.CANDIDATES);
+        }
+        if (request.getBoardString() != null && !request.getBoardString().equals(session.getBoardString())) {
+            String previous = session.getBoardString();
+            String board = request.getBoardString();
+            if (previous != null && previous.length() == board.length()) {
+                for (int i = 0; i < board.length(); i++) {
+                    if (board.charAt(i) != previous.charAt(i) && isCellDigit(previous.charAt(i))) {
+                        live.appendJournal(i, previous.charAt(i) - '0', board.charAt(i) - '0', JournalEntry.Kind.SAVE);
+                    }
+                }
+            }
+            session.setBoardString(board);
+            live.resetBoard();
+            session.setBoardVersion(boardVersionOf(session) + 1);
+            changed.add(SudokuGameSession.FieldGroup.BOARD);
+        }
+        // In auto mode the server derives the candidates, so a save need not upload them.
+        if (request.getCandidatesJson() == null && isAutoCandidateMode(session)
+                && (autoModeSwitchedOn || changed.contains(SudokuGameSession.FieldGroup.BOARD))
+                && !live.fillCandidates().isEmpty()) {
+            changed.add(SudokuGameSession.FieldGroup.CANDIDATES);
+        }
+        if (request.getColorProfile() != null) {
+            session.setColorProfile(request.getColorProfile());
+            changed.add(SudokuGameSession.FieldGroup.SETTINGS);
+        }
+        if (request.getSettingsJson() != null) {
+            session.setSettingsJson(request.getSettingsJson());
+            changed.add(SudokuGameSession.FieldGroup.SETTINGS);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        
+        session.setUpdatedAt(LocalDateTime.now());
+        activeSessionStore.markSaved(live, changed);
+        log.debug("Game state saved for session: {}", sessionId);
+    }
+
+    public HintResponse getHint(String sessionId) {
+        LiveSession live = findMovableSession(sessionId);
+        live.lock();
+        try {
+            SudokuGameSession session = live.getSession();
+            return hintEngine.hintFor(sessionId, boardVersionOf(session), live.board(), live.candidates(),
+                    puzzleCache.get(session));
+        } finally {
+            live.unlock();
+        }
+    }
+
+    public BoardCheckResponse checkBoard(String sessionId) {
+        LiveSession live = findMovableSession(sessionId);
+        live.lock();
+        try {
+            SudokuGameSession session = live.getSession();
+            PuzzleData puzzle = puzzleCache.get(session);
+            BoardState board = live.board();
+
+            byte[] bitmap = new byte[(BoardState.CELLS + 7) / 8];
+            List<Integer> wrongCells = new ArrayList<>();
+            int filled = 0;
+            for (int i = 0; i < BoardState.CELLS; i++) {
+                int value = board.get(i);
+                if (value == 0) {
+                    continue;
+                }
+                filled++;
+                if (!puzzle.isClue(i) && puzzle.solutionAt(i) != value) {
+                    wrongCells.add(i);
+                    bitmap[i >> 3] |= (byte) (0x80 >>> (i & 7));
+                }
+            }
+
+            return BoardCheckResponse.builder()
+                    .sessionId(sessionId)
+                    .boardVersion(boardVersionOf(session))
+                    .filledCells(filled)
+                    .wrongCount(wrongCells.size())
+                    .wrongCells(wrongCells)
+                    .wrongBitmap(Base64.getEncoder().encodeToString(bitmap))
+                    .complete(puzzle.isSolvedBy(board))
+                    .build();
+        } finally {
+            live.unlock();
+        }
+    }
+
+    public CheckAnswerResponse checkAnswer(CheckAnswerRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = (auth != null && auth.isAuthenticated()) ? auth.getName() : null;
+        
+        if (userId == null) {
+            throw new IllegalStateException("Unauthorized: User not authenticated");
+        }
+
+        LiveSession live = activeSessionStore.find(request.getSessionId())
+                .orElseThrow(() -> new EntityNotFoundException("Session not found: " + request.getSessionId()));
+        SudokuGameSession session = live.getSession();
+        
+        if (!userId.equals(live.getOwnerId())) {
+            throw new IllegalStateException("Unauthorized: This game belongs to another user");
+        }
+
+        PuzzleData puzzle = puzzleCache.get(session);
+
+        int position = request.getRow() * 9 + request.getCol();
+
+        if (puzzle.isClue(position)) {
+            throw new IllegalArgumentException("This cell is a clue and cannot be modified");
+        }
+
+        int correctValue = puzzle.solutionAt(position);
+        
+        if (correctValue == 0) {
+            throw new IllegalStateException("Invalid puzzle state: solution has empty cell at (" 
+                + request.getRow() + "," + request.getCol() + ")");
+        }
+
+        boolean isCorrect = request.getValue() == correctValue;
+        String message = isCorrect ? "✅ Correct answer!" : "❌ Incorrect answer.";
+
+        return CheckAnswerResponse.builder()
+                .correct(isCorrect)
+                .message(message)
+                .build();
+    }
+
+    // A saved board replaces the live one wholesale, so it must be a full grid that keeps every clue.
+    private void checkSavedBoard(SudokuGameSession session, String board) {
+        if (board.length() != BoardState.CELLS) {
+            throw new IllegalArgumentException("Board must have exactly " + BoardState.CELLS + " cells");
+        }
+        PuzzleData puzzle = puzzleCache.get(session);
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            char c = board.charAt(i);
+            if (!isCellDigit(c)) {
+                throw new IllegalArgumentException("Board may only contain digits 0-9");
+            }
+            if (puzzle.isClue(i) && c - '0' != puzzle.clueAt(i)) {
+                throw new IllegalArgumentException("Cannot modify prefilled cell");
+            }
+        }
+    }
+
+    private static boolean isCellDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static long boardVersionOf(SudokuGameSession session) {
+        return session.getBoardVersion() != null ? session.getBoardVersion() : 0L;
+    }
+
+    private Object candidatesView(SudokuGameSession session) {
+        CandidateMasks candidates = session.getCandidates();
+        return candidates != null ? candidates : parseJsonToCandidates(session.getCandidatesJson());
+    }
+
+    private Object parseJsonToCandidates(String json) {
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (Exception e) {
+            log.warn("Error parsing JSON to candidates", e);
+            return new HashMap<>();
+        }
+    }
+
+    private GameResponse buildGameResponse(SudokuGameSession session) {
+        PuzzleData puzzle = puzzleCache.get(session);
+        GameResponse response = new GameResponse(
+                session.getSessionId(),
+                puzzle.getId(),
+                puzzle.cluesString(),
+                session.getBoardString(),
+                candidatesView(session),
+                puzzle.getDifficulty().toString(),
+                session.getStatus().toString(),
+                session.getCreatedAt(),
+                session.getUpdatedAt()
+        );
+        response.setBoardVersion(boardVersionOf(session));
+        return response;
+    }
+
+    private Optional<GameScore> findBestScore(String userId, String difficulty) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        return gameScoreRepository.findBestScoreByUserAndDifficulty(user, Enums.Difficulty.valueOf(difficulty));
+    }
+
+    private void cleanupIncompleteSessionForDifficulty(String userId, Enums.Difficulty difficulty) {
+        try {
+            List<SudokuGameSession> sessions = sessionRepository.findByUserIdAndDifficultyAndStatus(
+                    userId, difficulty, Enums.GameStatus.IN_PROGRESS);
+            
+            for (SudokuGameSession session : sessions) {
+                try {
+                    activeSessionStore.evict(session.getSessionId(), false);
+                    deleteGameSessionAndAssociatedData(session);
+                } catch (Exception e) {
+                    log.error("Cleanup failed for session {}: {}", session.getSessionId(), e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error during session cleanup for user {} difficulty {}: {}", userId, difficulty, e.getMessage());
+        }
+    }
+
+    private boolean deleteGameSessionAndAssociatedData(SudokuGameSession session) {
+        Long puzzleId = session.getPuzzle() != null ? session.getPuzzle().getId() : null;
+        
+        try {
+            sessionRepository.delete(session);
+            
+            if (puzzleId != null) {
+                puzzleRepository.deleteById(puzzleId);
+                puzzleCache.evict(puzzleId);
+            }
+            
+            return true;
+        } catch (Exception e) {
+            log.error("Error during session cleanup: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private String boardToString(int[][] board) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] row : board) {
+            for (int cell : row) {
+                sb.append(cell);
+            }
+        }
+        return sb.toString();
+    }
+}
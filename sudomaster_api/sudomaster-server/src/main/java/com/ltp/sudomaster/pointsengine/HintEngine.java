@@ -0,0 +1,178 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.HintResponse;
+import com.ltp.sudomaster.sudokugen.DifficultyEvaluator;
+import com.ltp.sudomaster.sudokugen.SolveStep;
+import com.ltp.sudomaster.sudokugen.Technique;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Next-step hints from the technique solver. A session's hint only depends on its board and its
+// candidate notes, so it is kept until the board version or the notes change.
+@Component
+public class HintEngine {
+
+    private static final int ALL_DIGITS = 0x1FF;
+
+    private record Entry(long boardVersion, byte[] candidates, HintResponse hint) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Entry> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public HintEngine(
+            MeterRegistry meterRegistry,
+            @Value("${sudomaster.hints.cache-size:10000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        int capacity = Math.max(1, maxEntries);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("sudomaster.hint.cache.size", this, HintEngine::size)
+                .description("Sessions with a cached next-step hint")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudomaster.hint.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudomaster.hint.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public HintResponse hintFor(String sessionId, long boardVersion, BoardState board,
+                                CandidateEngine candidates, PuzzleData puzzle) {
+        byte[] notes = candidates.toMasks().toBytes();
+        synchronized (cache) {
+            Entry cached = cache.get(sessionId);
+            if (cached != null && cached.boardVersion() == boardVersion && Arrays.equals(cached.candidates(), notes)) {
+                hits.incrementAndGet();
+                return cached.hint();
+            }
+        }
+
+        misses.incrementAndGet();
+        HintResponse hint = compute(board, candidates, puzzle);
+        hint.setSessionId(sessionId);
+        hint.setBoardVersion(boardVersion);
+        synchronized (cache) {
+            cache.put(sessionId, new Entry(boardVersion, notes, hint));
+        }
+        return hint;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private HintResponse compute(BoardState board, CandidateEngine candidates, PuzzleData puzzle) {
+        List<Integer> wrongCells = new ArrayList<>();
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            if (board.get(i) != 0 && board.get(i) != puzzle.solutionAt(i)) {
+                wrongCells.add(i);
+            }
+        }
+        if (!wrongCells.isEmpty()) {
+            return HintResponse.builder()
+                    .cells(wrongCells)
+                    .wrongCells(wrongCells)
+                    .message("Some cells are wrong, fix them first")
+                    .build();
+        }
+        if (board.isFilled()) {
+            return HintResponse.builder().cells(List.of()).message("The puzzle is already solved").build();
+        }
+
+        // Notes are used only where they still contain the right digit; an empty or wrong note
+        // set would lead the solver astray, so those cells fall back to what the board allows.
+        int[][] grid = new int[9][9];
+        int[][] notes = new int[9][9];
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            grid[i / 9][i % 9] = board.get(i);
+            int mask = candidates.maskAt(i);
+            notes[i / 9][i % 9] = (mask & (1 << (puzzle.solutionAt(i) - 1))) != 0 ? mask : ALL_DIGITS;
+        }
+
+        SolveStep step = DifficultyEvaluator.nextStep(grid, notes);
+        if (step == null || !agreesWithSolution(step, puzzle)) {
+            return reveal(board, candidates, puzzle);
+        }
+        if (step.isPlacement()) {
+            int position = step.placement().r * 9 + step.placement().c;
+            return HintResponse.builder()
+                    .technique(step.technique().name())
+                    .position(position)
+                    .value(step.digit())
+                    .cells(List.of(position))
+                    .build();
+        }
+
+        List<Integer> cells = new ArrayList<>();
+        Map<String, Integer> eliminations = new LinkedHashMap<>();
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            int removed = step.eliminations()[i / 9][i % 9];
+            if (removed != 0) {
+                cells.add(i);
+                eliminations.put(String.valueOf(i), removed);
+            }
+        }
+        return HintResponse.builder()
+                .technique(step.technique().name())
+                .cells(cells)
+                .eliminations(eliminations)
+                .build();
+    }
+
+    private static boolean agreesWithSolution(SolveStep step, PuzzleData puzzle) {
+        if (step.isPlacement()) {
+            return step.digit() == puzzle.solutionAt(step.placement().r * 9 + step.placement().c);
+        }
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            if ((step.eliminations()[i / 9][i % 9] & (1 << (puzzle.solutionAt(i) - 1))) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // No technique applies: give away the empty cell with the fewest candidates.
+    private static HintResponse reveal(BoardState board, CandidateEngine candidates, PuzzleData puzzle) {
+        int best = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            if (board.get(i) == 0) {
+                int count = Integer.bitCount(candidates.allowed(i));
+                if (count < fewest) {
+                    fewest = count;
+                    best = i;
+                }
+            }
+        }
+        return HintResponse.builder()
+                .technique(Technique.GUESSING.name())
+                .position(best)
+                .value(puzzle.solutionAt(best))
+                .cells(List.of(best))
+                .build();
+    }
+}
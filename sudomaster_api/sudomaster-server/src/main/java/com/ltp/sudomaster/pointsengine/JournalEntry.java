@@ -0,0 +1,33 @@
+package com.ltp.sudomaster.pointsengine;
+
+public record JournalEntry(int position, int oldValue, int newValue, Kind kind, int deltaMillis) {
+
+    public static final int RECORD_BYTES = 6;
+    public static final int MAX_DELTA_MILLIS = (1 << 30) - 1;
+
+    public enum Kind { MOVE, UNDO, SAVE }
+
+    public void writeTo(byte[] target, int offset) {
+        int packedTime = (kind.ordinal() << 30) | Math.min(Math.max(deltaMillis, 0), MAX_DELTA_MILLIS);
+        target[offset] = (byte) position;
+        target[offset + 1] = (byte) ((oldValue << 4) | newValue);
+        target[offset + 2] = (byte) (packedTime >>> 24);
+        target[offset + 3] = (byte) (packedTime >>> 16);
+        target[offset + 4] = (byte) (packedTime >>> 8);
+        target[offset + 5] = (byte) packedTime;
+    }
+
+    public static JournalEntry readFrom(byte[] source, int offset) {
+        int position = source[offset] & 0xFF;
+        int values = source[offset + 1] & 0xFF;
+        int packedTime = ((source[offset + 2] & 0xFF) << 24)
+                | ((source[offset + 3] & 0xFF) << 16)
+                | ((source[offset + 4] & 0xFF) << 8)
+                | (source[offset + 5] & 0xFF);
+        int kind = packedTime >>> 30;
+        if (position > 80 || (values >>> 4) > 9 || (values & 0x0F) > 9 || kind >= Kind.values().length) {
+            throw new IllegalArgumentException("Corrupt journal record at offset " + offset);
+        }
+        return new JournalEntry(position, values >>> 4, values & 0x0F, Kind.values()[kind], packedTime & MAX_DELTA_MILLIS);
+    }
+}
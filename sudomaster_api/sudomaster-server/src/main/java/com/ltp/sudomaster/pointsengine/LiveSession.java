@@ -0,0 +1,398 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.entity.SudokuGameSession;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LiveSession {
+
+    private final SudokuGameSession session;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private int pendingChanges;
+    // The boardVersion the row holds as far as this session knows; board writes compare-and-set on it.
+    // Only touched with the flush lock held.
+    private long persistedBoardVersion;
+    private long deferredSinceMillis;
+    private final EnumSet<SudokuGameSession.FieldGroup> dirtyGroups = EnumSet.noneOf(SudokuGameSession.FieldGroup.class);
+    private long lastAccessMillis;
+    // Counts every recorded change, so the in-memory state can be named without asking the database.
+    private long revision;
+    private volatile boolean removed;
+    // A snapshot whose write failed. Only touched with the flush lock held; volatile for isDirty.
+    private volatile Snapshot unwritten;
+
+    private BoardState board;
+    private boolean boardStringStale;
+    private CandidateEngine candidates;
+    private boolean candidatesStale;
+
+    private byte[] journal = new byte[JournalEntry.RECORD_BYTES * 16];
+    private int journalRecords;
+    private long journalStartMillis;
+    private long journalClockMillis;
+
+    record JournalBatch(byte[] records, int count, long startedAtMillis, int firstSequence) {}
+
+    record Snapshot(SudokuGameSession session, Set<SudokuGameSession.FieldGroup> groups, JournalBatch journal,
+                    long expectedBoardVersion) {}
+
+    // Works on a copy: a row loaded inside a caller's transaction stays managed, and flushing it would
+    // write the whole entity ahead of the compare-and-set board patch.
+    LiveSession(SudokuGameSession session) {
+        this.session = session.toBuilder().build();
+        this.lastAccessMillis = System.currentTimeMillis();
+        this.persistedBoardVersion = session.getBoardVersion() != null ? session.getBoardVersion() : 0L;
+        this.journalClockMillis = session.getUpdatedAt() != null
+                ? session.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : lastAccessMillis;
+    }
+
+    public SudokuGameSession getSession() {
+        lock.lock();
+        try {
+            syncBoardString();
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BoardState board() {
+        lock.lock();
+        try {
+            if (board == null) {
+                board = BoardState.parse(session.getBoardString());
+            }
+            return board;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void boardChanged() {
+        lock.lock();
+        try {
+            boardStringStale = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resetBoard() {
+        lock.lock();
+        try {
+            board = null;
+            boardStringStale = false;
+            resetCandidates();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CandidateEngine candidates() {
+        lock.lock();
+        try {
+            if (candidates == null) {
+                candidates = CandidateEngine.of(board(), session.getCandidates());
+            }
+            return candidates;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Call before the board itself changes, so the engine still holds the previous value.
+    public List<Integer> placeCandidates(int position, int value, boolean auto) {
+        lock.lock();
+        try {
+            List<Integer> changed = candidates().place(position, value, auto);
+            candidatesStale |= !changed.isEmpty();
+            return changed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Integer> fillCandidates() {
+        lock.lock();
+        try {
+            List<Integer> changed = candidates().fill();
+            candidatesStale |= !changed.isEmpty();
+            return changed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resetCandidates() {
+        lock.lock();
+        try {
+            candidates = null;
+            candidatesStale = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncBoardString() {
+        if (boardStringStale) {
+            session.setBoardString(board.toBoardString());
+            boardStringStale = false;
+        }
+        if (candidatesStale) {
+            session.setCandidates(candidates.toMasks());
+            candidatesStale = false;
+        }
+    }
+
+    public String getSessionId() {
+        return session.getSessionId();
+    }
+
+    // Tag for conditional reads. Until the first change it is the loaded row's own tag; after that the
+    // change count tells the in-memory states apart, and the extra parts keep it from matching a row tag.
+    public String versionTag() {
+        lock.lock();
+        try {
+            String loaded = versionTag(session.getSessionId(), session.getVersion());
+            if (revision == 0) {
+                return loaded;
+            }
+            long boardVersion = session.getBoardVersion() != null ? session.getBoardVersion() : 0L;
+            return loaded + "." + boardVersion + "." + revision;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static String versionTag(String sessionId, Long version) {
+        return sessionId + "." + (version != null ? version : 0L);
+    }
+
+    public String getOwnerId() {
+        return session.getUser() != null ? session.getUser().getId() : null;
+    }
+
+    public boolean isDirty() {
+        lock.lock();
+        try {
+            return pendingChanges > 0 || deferredSinceMillis > 0 || unwritten != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Guards the session and the pending state. A ReentrantLock rather than the monitor, because
+    // request threads hold it across JDBC calls and a monitor would pin a virtual thread's carrier.
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    // Orders the writes of one session. Taken after the session lock, never before it: whoever holds
+    // the flush lock only talks to the database, so a request holding the session lock can wait for it.
+    ReentrantLock getFlushLock() {
+        return flushLock;
+    }
+
+    // Copies the pending state under the session lock and returns with only the flush lock held, so
+    // moves carry on while the snapshot is written. Returns null, holding nothing, if nothing is pending.
+    // A write already in flight is waited for without the session lock, unless the caller holds it.
+    Snapshot beginFlush() {
+        while (true) {
+            lock.lock();
+            try {
+                if (flushLock.tryLock()) {
+                    Snapshot snapshot = takeSnapshot();
+                    if (snapshot == null) {
+                        flushLock.unlock();
+                    }
+                    return snapshot;
+                }
+            } finally {
+                lock.unlock();
+            }
+            flushLock.lock();
+            flushLock.unlock();
+        }
+    }
+
+    void flushed(Snapshot snapshot) {
+        if (snapshot.groups().contains(SudokuGameSession.FieldGroup.BOARD)) {
+            persistedBoardVersion = snapshot.session().getBoardVersion() != null ? snapshot.session().getBoardVersion() : 0L;
+        }
+    }
+
+    // Keeps a snapshot that could not be written; the next one folds it in. Call before endFlush.
+    void flushFailed(Snapshot snapshot) {
+        unwritten = snapshot;
+    }
+
+    void endFlush() {
+        flushLock.unlock();
+    }
+
+    int getPendingChanges() {
+        lock.lock();
+        try {
+            return pendingChanges;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int recordChange(Set<SudokuGameSession.FieldGroup> groups) {
+        lock.lock();
+        try {
+            lastAccessMillis = System.currentTimeMillis();
+            dirtyGroups.addAll(groups);
+            revision++;
+            return ++pendingChanges;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean deferSave(Set<SudokuGameSession.FieldGroup> groups) {
+        lock.lock();
+        try {
+            lastAccessMillis = System.currentTimeMillis();
+            dirtyGroups.addAll(groups);
+            revision++;
+            if (deferredSinceMillis > 0) {
+                return false;
+            }
+            deferredSinceMillis = lastAccessMillis;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isFlushDue(long nowMillis, long saveWindowMillis) {
+        lock.lock();
+        try {
+            return pendingChanges > 0 || unwritten != null
+                    || (deferredSinceMillis > 0 && nowMillis - deferredSinceMillis >= saveWindowMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void touch() {
+        lock.lock();
+        try {
+            lastAccessMillis = System.currentTimeMillis();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getLastAccessMillis() {
+        lock.lock();
+        try {
+            return lastAccessMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot takeSnapshot() {
+        if (!isDirty() || removed) {
+            return null;
+        }
+        syncBoardString();
+        EnumSet<SudokuGameSession.FieldGroup> groups = EnumSet.copyOf(dirtyGroups);
+        JournalBatch journal = drainJournal();
+        Snapshot failed = unwritten;
+        if (failed != null) {
+            groups.addAll(failed.groups());
+            journal = concat(failed.journal(), journal);
+            unwritten = null;
+        }
+        if (journal != null) {
+            groups.add(SudokuGameSession.FieldGroup.BOARD);
+        }
+        pendingChanges = 0;
+        deferredSinceMillis = 0;
+        dirtyGroups.clear();
+        return new Snapshot(session.toBuilder().build(), groups, journal, persistedBoardVersion);
+    }
+
+    public void appendJournal(int position, int oldValue, int newValue, JournalEntry.Kind kind) {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            int delta = (int) Math.min(Math.max(now - journalClockMillis, 0), JournalEntry.MAX_DELTA_MILLIS);
+            journalClockMillis = now;
+            if (journalRecords == 0) {
+                journalStartMillis = now;
+            }
+            int offset = journalRecords * JournalEntry.RECORD_BYTES;
+            if (offset + JournalEntry.RECORD_BYTES > journal.length) {
+                journal = Arrays.copyOf(journal, journal.length * 2);
+            }
+            new JournalEntry(position, oldValue, newValue, kind, delta).writeTo(journal, offset);
+            journalRecords++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Records not yet in the database, oldest first: those of a failed write, then the buffered ones.
+    // The caller holds the session lock and the flush lock, so no write is in flight.
+    JournalBatch pendingJournal() {
+        lock.lock();
+        try {
+            Snapshot failed = unwritten;
+            return concat(failed != null ? failed.journal() : null, bufferedJournal());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JournalBatch bufferedJournal() {
+        if (journalRecords == 0) {
+            return null;
+        }
+        return new JournalBatch(Arrays.copyOf(journal, journalRecords * JournalEntry.RECORD_BYTES), journalRecords,
+                journalStartMillis, session.getJournalSequence() != null ? session.getJournalSequence() : 0);
+    }
+
+    // Numbers the buffered records from the session's journalSequence and advances it past them, so the
+    // snapshot carrying them writes the new sequence under the board's compare-and-set.
+    private JournalBatch drainJournal() {
+        JournalBatch batch = bufferedJournal();
+        if (batch != null) {
+            session.setJournalSequence(batch.firstSequence() + batch.count());
+            journalRecords = 0;
+        }
+        return batch;
+    }
+
+    private static JournalBatch concat(JournalBatch first, JournalBatch second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        byte[] records = Arrays.copyOf(first.records(), first.records().length + second.records().length);
+        System.arraycopy(second.records(), 0, records, first.records().length, second.records().length);
+        return new JournalBatch(records, first.count() + second.count(), first.startedAtMillis(), first.firstSequence());
+    }
+
+    boolean isRemoved() {
+        return removed;
+    }
+
+    void markRemoved() {
+        removed = true;
+    }
+}
@@ -0,0 +1,189 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.entity.MoveJournalChunk;
+import com.ltp.sudomaster.repository.MoveJournalChunkRepository;
+import com.ltp.sudomaster.repository.SudokuGameSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+@Component
+public class MoveJournal {
+
+    private final MoveJournalChunkRepository chunkRepository;
+    private final SudokuGameSessionRepository sessionRepository;
+    private final PuzzleCache puzzleCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int compactAfterChunks;
+    private final int retainChunks;
+
+    public record TimedEntry(int sequence, JournalEntry entry, long atMillis) {}
+
+    public record Replay(String baseBoard, int baseSequence, List<TimedEntry> entries) {}
+
+    public MoveJournal(
+            MoveJournalChunkRepository chunkRepository,
+            SudokuGameSessionRepository sessionRepository,
+            PuzzleCache puzzleCache,
+            TransactionTemplate transactionTemplate,
+            @Value("${sudomaster.journal.compact-after-chunks:16}") int compactAfterChunks,
+            @Value("${sudomaster.journal.retain-chunks:4}") int retainChunks) {
+        this.chunkRepository = chunkRepository;
+        this.sessionRepository = sessionRepository;
+        this.puzzleCache = puzzleCache;
+        this.transactionTemplate = transactionTemplate;
+        this.retainChunks = Math.max(1, retainChunks);
+        this.compactAfterChunks = Math.max(this.retainChunks + 1, compactAfterChunks);
+    }
+
+    // Called inside the transaction that patches the session row. The batch is numbered from the row's
+    // journalSequence, which that patch advances under the board's compare-and-set.
+    void append(String sessionId, LiveSession.JournalBatch batch) {
+        long startedAt = batch.startedAtMillis();
+        for (int from = 0; from < batch.count(); from += MoveJournalChunk.MAX_RECORDS) {
+            int count = Math.min(MoveJournalChunk.MAX_RECORDS, batch.count() - from);
+            byte[] records = Arrays.copyOfRange(batch.records(),
+                    from * JournalEntry.RECORD_BYTES, (from + count) * JournalEntry.RECORD_BYTES);
+            chunkRepository.save(MoveJournalChunk.builder()
+                    .sessionId(sessionId)
+                    .firstSequence(batch.firstSequence() + from)
+                    .recordCount(count)
+                    .records(records)
+                    .startedAtMillis(startedAt)
+                    .build());
+            startedAt = timestampAfter(records, count, startedAt);
+        }
+    }
+
+    // For rows written before sessions kept journalSequence.
+    int nextSequence(String sessionId) {
+        return chunkRepository.findNextSequence(sessionId);
+    }
+
+    // Call with the session lock held. The flush lock is taken as well, so a chunk being written is
+    // either committed or still pending when it is read, never missing from both.
+    public Replay replay(LiveSession live) {
+        live.getFlushLock().lock();
+        try {
+            return replayHeld(live);
+        } finally {
+            live.getFlushLock().unlock();
+        }
+    }
+
+    private Replay replayHeld(LiveSession live) {
+        List<MoveJournalChunk> chunks = chunkRepository.findBySessionIdOrderByFirstSequenceAscRecordCountAsc(live.getSessionId());
+        String baseBoard = puzzleCache.get(live.getSession()).cluesString();
+        int baseSequence = 0;
+        List<TimedEntry> entries = new ArrayList<>();
+
+        for (MoveJournalChunk chunk : chunks) {
+            if (chunk.getSnapshotBoard() != null) {
+                baseBoard = chunk.getSnapshotBoard();
+                baseSequence = chunk.getFirstSequence() + chunk.getRecordCount();
+                continue;
+            }
+            long atMillis = chunk.getStartedAtMillis();
+            for (int i = 0; i < chunk.getRecordCount(); i++) {
+                JournalEntry entry = JournalEntry.readFrom(chunk.getRecords(), i * JournalEntry.RECORD_BYTES);
+                if (i > 0) {
+                    atMillis += entry.deltaMillis();
+                }
+                entries.add(new TimedEntry(chunk.getFirstSequence() + i, entry, atMillis));
+            }
+        }
+
+        LiveSession.JournalBatch pending = live.pendingJournal();
+        if (pending != null) {
+            long atMillis = pending.startedAtMillis();
+            for (int i = 0; i < pending.count(); i++) {
+                JournalEntry entry = JournalEntry.readFrom(pending.records(), i * JournalEntry.RECORD_BYTES);
+                if (i > 0) {
+                    atMillis += entry.deltaMillis();
+                }
+                entries.add(new TimedEntry(pending.firstSequence() + i, entry, atMillis));
+            }
+        }
+        return new Replay(baseBoard, baseSequence, entries);
+    }
+
+    @Scheduled(fixedDelayString = "${sudomaster.journal.compact-interval-ms:600000}",
+               initialDelayString = "${sudomaster.journal.compact-interval-ms:600000}")
+    public void compactSweep() {
+        Integer orphaned = transactionTemplate.execute(status -> chunkRepository.deleteOrphaned());
+        if (orphaned != null && orphaned > 0) {
+            log.debug("Deleted {} journal chunk(s) of removed sessions", orphaned);
+        }
+        for (String sessionId : chunkRepository.findSessionsWithMoreChunksThan(compactAfterChunks)) {
+            try {
+                compact(sessionId);
+            } catch (Exception e) {
+                log.warn("Failed to compact journal of session {}: {}", sessionId, e.getMessage());
+            }
+        }
+    }
+
+    public int compact(String sessionId) {
+        Integer folded = transactionTemplate.execute(status -> {
+            List<MoveJournalChunk> chunks = chunkRepository.findBySessionIdOrderByFirstSequenceAscRecordCountAsc(sessionId);
+            int fold = chunks.size() - retainChunks;
+            if (fold <= 0 || (fold == 1 && chunks.get(0).getSnapshotBoard() != null)) {
+                return 0;
+            }
+
+            MoveJournalChunk first = chunks.get(0);
+            String base = first.getSnapshotBoard();
+            if (base == null) {
+                base = sessionRepository.findBySessionId(sessionId)
+                        .map(session -> puzzleCache.get(session).cluesString())
+                        .orElse(null);
+                if (base == null) {
+                    return 0;
+                }
+            }
+
+            char[] board = base.toCharArray();
+            int endSequence = first.getFirstSequence();
+            long lastMillis = first.getStartedAtMillis();
+            for (MoveJournalChunk chunk : chunks.subList(0, fold)) {
+                endSequence = chunk.getFirstSequence() + chunk.getRecordCount();
+                if (chunk.getSnapshotBoard() != null) {
+                    continue;
+                }
+                for (int i = 0; i < chunk.getRecordCount(); i++) {
+                    JournalEntry entry = JournalEntry.readFrom(chunk.getRecords(), i * JournalEntry.RECORD_BYTES);
+                    board[entry.position()] = (char) ('0' + entry.newValue());
+                }
+                lastMillis = timestampAfter(chunk.getRecords(), chunk.getRecordCount(), chunk.getStartedAtMillis());
+            }
+
+            // The snapshot takes over the first folded sequence, so the folded rows must be gone first.
+            chunkRepository.deleteAll(chunks.subList(0, fold));
+            chunkRepository.flush();
+            chunkRepository.save(MoveJournalChunk.builder()
+                    .sessionId(sessionId)
+                    .firstSequence(first.getFirstSequence())
+                    .recordCount(endSequence - first.getFirstSequence())
+                    .snapshotBoard(new String(board))
+                    .startedAtMillis(lastMillis)
+                    .build());
+            return fold;
+        });
+        return folded != null ? folded : 0;
+    }
+
+    private static long timestampAfter(byte[] records, int count, long startedAt) {
+        long atMillis = startedAt;
+        for (int i = 1; i < count; i++) {
+            atMillis += JournalEntry.readFrom(records, i * JournalEntry.RECORD_BYTES).deltaMillis();
+        }
+        return atMillis;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.entity.SudokuGameSession;
+import com.ltp.sudomaster.entity.SudokuPuzzle;
+import com.ltp.sudomaster.repository.SudokuPuzzleRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Clues and solutions never change once a puzzle row exists, so sessions resolve them here
+// by puzzle id and leave their lazy puzzle reference unloaded.
+@Component
+public class PuzzleCache {
+
+    private final SudokuPuzzleRepository puzzleRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, PuzzleData> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PuzzleCache(
+            SudokuPuzzleRepository puzzleRepository,
+            MeterRegistry meterRegistry,
+            @Value("${sudomaster.puzzle-cache.max-entries:20000}") int maxEntries) {
+        this.puzzleRepository = puzzleRepository;
+        this.meterRegistry = meterRegistry;
+        int capacity = Math.max(1, maxEntries);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PuzzleData> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("sudomaster.puzzle.cache.size", this, PuzzleCache::size)
+                .description("Puzzles held in the clue and solution cache")
+                .register(meterRegistry);
+        Gauge.builder("sudomaster.puzzle.cache.hit.ratio", this, PuzzleCache::getHitRatio)
+                .description("Share of puzzle lookups served without a database read")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudomaster.puzzle.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudomaster.puzzle.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public PuzzleData get(SudokuGameSession session) {
+        SudokuPuzzle puzzle = session.getPuzzle();
+        if (puzzle == null) {
+            throw new EntityNotFoundException("Puzzle not found for session: " + session.getSessionId());
+        }
+
+        Long puzzleId = puzzle.getId();
+        if (puzzleId == null) {
+            return PuzzleData.of(puzzle);
+        }
+        synchronized (cache) {
+            PuzzleData cached = cache.get(puzzleId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        PuzzleData loaded = Hibernate.isInitialized(puzzle)
+                ? PuzzleData.of(puzzle)
+                : puzzleRepository.findById(puzzleId)
+                        .map(PuzzleData::of)
+                        .orElseThrow(() -> new EntityNotFoundException("Puzzle not found for session: " + session.getSessionId()));
+        synchronized (cache) {
+            return cache.computeIfAbsent(puzzleId, id -> loaded);
+        }
+    }
+
+    public void put(SudokuPuzzle puzzle) {
+        if (puzzle.getId() == null) {
+            return;
+        }
+        PuzzleData data = PuzzleData.of(puzzle);
+        synchronized (cache) {
+            cache.put(puzzle.getId(), data);
+        }
+    }
+
+    public void evict(Long puzzleId) {
+        if (puzzleId == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.remove(puzzleId);
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public double getHitRatio() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.entity.Enums;
+import com.ltp.sudomaster.entity.SudokuPuzzle;
+import com.ltp.sudomaster.util.BoardCodec;
+
+public final class PuzzleData {
+
+    private final Long id;
+    private final Enums.Difficulty difficulty;
+    private final byte[] clues;
+    private final byte[] solution;
+
+    private PuzzleData(Long id, Enums.Difficulty difficulty, byte[] clues, byte[] solution) {
+        this.id = id;
+        this.difficulty = difficulty;
+        this.clues = clues;
+        this.solution = solution;
+    }
+
+    public static PuzzleData of(SudokuPuzzle puzzle) {
+        return new PuzzleData(puzzle.getId(), puzzle.getDifficulty(),
+                BoardCodec.pack(puzzle.getCluesString()), BoardCodec.pack(puzzle.getSolutionString()));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Enums.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public boolean isClue(int position) {
+        return clueAt(position) != 0;
+    }
+
+    public int clueAt(int position) {
+        return BoardCodec.digitAt(clues, 0, position);
+    }
+
+    public int solutionAt(int position) {
+        return BoardCodec.digitAt(solution, 0, position);
+    }
+
+    public String cluesString() {
+        return BoardCodec.unpack(clues, 0);
+    }
+
+    public String solutionString() {
+        return BoardCodec.unpack(solution, 0);
+    }
+
+    public boolean isSolvedBy(BoardState board) {
+        if (!board.isFilled()) {
+            return false;
+        }
+        for (int i = 0; i < BoardState.CELLS; i++) {
+            if (board.get(i) != solutionAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSolvedBy(String board) {
+        if (board == null || board.length() != BoardCodec.CELLS) {
+            return false;
+        }
+        for (int i = 0; i < BoardCodec.CELLS; i++) {
+            if (board.charAt(i) - '0' != solutionAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
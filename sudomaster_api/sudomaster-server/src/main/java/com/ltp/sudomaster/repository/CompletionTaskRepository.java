@@ -0,0 +1,41 @@
+package com.ltp.sudomaster.repository;
+
+import com.ltp.sudomaster.entity.CompletionTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CompletionTaskRepository extends JpaRepository<CompletionTask, String> {
+
+    @Query("SELECT t.sessionId FROM CompletionTask t WHERE t.state = com.ltp.sudomaster.entity.Enums.CompletionState.PENDING " +
+           "AND (t.claimedAt IS NULL OR t.claimedAt < :staleBefore) ORDER BY t.createdAt")
+    List<String> findClaimable(@Param("staleBefore") LocalDateTime staleBefore, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CompletionTask t SET t.claimedAt = :now, t.attempts = t.attempts + 1 " +
+           "WHERE t.sessionId = :sessionId AND t.state = com.ltp.sudomaster.entity.Enums.CompletionState.PENDING " +
+           "AND (t.claimedAt IS NULL OR t.claimedAt < :staleBefore)")
+    int claim(@Param("sessionId") String sessionId, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE CompletionTask t SET t.claimedAt = NULL WHERE t.sessionId = :sessionId " +
+           "AND t.state = com.ltp.sudomaster.entity.Enums.CompletionState.PENDING")
+    int release(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("DELETE FROM CompletionTask t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM CompletionTask t WHERE t.state = com.ltp.sudomaster.entity.Enums.CompletionState.DONE " +
+           "AND t.processedAt < :before")
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+}
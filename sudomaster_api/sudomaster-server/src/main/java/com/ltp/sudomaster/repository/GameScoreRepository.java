@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,17 +25,25 @@ public interface GameScoreRepository extends JpaRepository<GameScore, String> {
 
     boolean existsBySessionId(String sessionId);
 
-    @Query("SELECT g FROM GameScore g LEFT JOIN FETCH g.user WHERE g.difficulty = :difficulty ORDER BY g.score DESC")
+    @Query("SELECT g FROM GameScore g LEFT JOIN FETCH g.user WHERE g.difficulty = :difficulty ORDER BY g.score DESC, g.completedAt ASC")
     List<GameScore> findTopScoresByDifficulty(@Param("difficulty") Enums.Difficulty difficulty, Pageable pageable);
 
     @Query("SELECT g FROM GameScore g LEFT JOIN FETCH g.user WHERE g.user = :user AND g.difficulty = :difficulty ORDER BY g.score DESC")
     Optional<GameScore> findBestScoreByUserAndDifficulty(@Param("user") User user, @Param("difficulty") Enums.Difficulty difficulty);
 
-    @Query("SELECT g FROM GameScore g LEFT JOIN FETCH g.user ORDER BY g.score DESC")
+    @Query("SELECT g FROM GameScore g LEFT JOIN FETCH g.user ORDER BY g.score DESC, g.completedAt ASC")
     List<GameScore> findAllTimeTopScores(Pageable pageable);
 
     Long countByUser(User user);
 
+    long countByDifficultyAndScoreGreaterThan(Enums.Difficulty difficulty, Integer score);
+
+    // Scores placed above the given one on the leaderboard: higher, or equal and completed earlier.
+    @Query("SELECT COUNT(g) FROM GameScore g WHERE g.difficulty = :difficulty " +
+           "AND (g.score > :score OR (g.score = :score AND g.completedAt < :completedAt))")
+    long countRankedAhead(@Param("difficulty") Enums.Difficulty difficulty, @Param("score") Integer score,
+                          @Param("completedAt") LocalDateTime completedAt);
+
     void deleteByUser(User user);
 
     @Modifying
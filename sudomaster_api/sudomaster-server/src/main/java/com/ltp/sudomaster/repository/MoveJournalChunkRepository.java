@@ -0,0 +1,26 @@
+package com.ltp.sudomaster.repository;
+
+import com.ltp.sudomaster.entity.MoveJournalChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MoveJournalChunkRepository extends JpaRepository<MoveJournalChunk, Long> {
+
+    List<MoveJournalChunk> findBySessionIdOrderByFirstSequenceAscRecordCountAsc(String sessionId);
+
+    @Query("SELECT COALESCE(MAX(c.firstSequence + c.recordCount), 0) FROM MoveJournalChunk c WHERE c.sessionId = :sessionId")
+    int findNextSequence(@Param("sessionId") String sessionId);
+
+    @Query("SELECT c.sessionId FROM MoveJournalChunk c GROUP BY c.sessionId HAVING COUNT(c) > :chunks")
+    List<String> findSessionsWithMoreChunksThan(@Param("chunks") long chunks);
+
+    @Modifying
+    @Query("DELETE FROM MoveJournalChunk c WHERE NOT EXISTS (SELECT s FROM SudokuGameSession s WHERE s.sessionId = c.sessionId)")
+    int deleteOrphaned();
+}
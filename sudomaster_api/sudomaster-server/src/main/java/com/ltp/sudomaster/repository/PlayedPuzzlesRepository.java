@@ -0,0 +1,9 @@
+package com.ltp.sudomaster.repository;
+
+import com.ltp.sudomaster.entity.PlayedPuzzles;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PlayedPuzzlesRepository extends JpaRepository<PlayedPuzzles, String> {
+}
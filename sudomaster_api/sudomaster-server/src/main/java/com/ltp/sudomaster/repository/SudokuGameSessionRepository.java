@@ -0,0 +1,167 @@
+package com.ltp.sudomaster.repository;
+
+import com.ltp.sudomaster.entity.SudokuGameSession;
+import com.ltp.sudomaster.entity.Enums;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface SudokuGameSessionRepository extends JpaRepository<SudokuGameSession, String> {
+
+    interface VersionView {
+        String getSessionId();
+        String getUserId();
+        Long getVersion();
+    }
+
+    interface SummaryView {
+        String getSessionId();
+        Enums.Difficulty getDifficulty();
+        Integer getElapsedTimeSeconds();
+        Integer getErrorCount();
+        Integer getMoveCount();
+        Long getBoardVersion();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface ExpiryView {
+        String getSessionId();
+        Long getPuzzleId();
+        LocalDateTime getUpdatedAt();
+    }
+
+    Optional<SudokuGameSession> findBySessionId(String sessionId);
+
+    @Query("SELECT s.sessionId AS sessionId, s.user.id AS userId, s.version AS version " +
+           "FROM SudokuGameSession s WHERE s.sessionId = :sessionId")
+    Optional<VersionView> findVersionBySessionId(@Param("sessionId") String sessionId);
+
+    @Query("SELECT s.sessionId AS sessionId, s.user.id AS userId, s.version AS version " +
+           "FROM SudokuGameSession s WHERE s.user.id = :userId AND s.puzzle.difficulty = :difficulty AND s.status = :status " +
+           "ORDER BY s.updatedAt DESC")
+    List<VersionView> findVersionsByUserIdAndDifficultyAndStatus(@Param("userId") String userId,
+            @Param("difficulty") Enums.Difficulty difficulty, @Param("status") Enums.GameStatus status, Pageable pageable);
+
+    @Query("SELECT s FROM SudokuGameSession s WHERE s.user.id = :userId AND s.status = :status ORDER BY s.updatedAt DESC")
+    List<SudokuGameSession> findIncompleteSessionsByUserId(@Param("userId") String userId, @Param("status") Enums.GameStatus status);
+
+    @Query("SELECT s FROM SudokuGameSession s WHERE s.user.id = :userId AND s.puzzle.difficulty = :difficulty AND s.status = :status ORDER BY s.updatedAt DESC")
+    List<SudokuGameSession> findByUserIdAndDifficultyAndStatus(@Param("userId") String userId, @Param("difficulty") Enums.Difficulty difficulty, @Param("status") Enums.GameStatus status);
+
+    @Query("SELECT s.sessionId AS sessionId, p.difficulty AS difficulty, s.elapsedTimeSeconds AS elapsedTimeSeconds, " +
+           "s.errorCount AS errorCount, s.moveCount AS moveCount, s.boardVersion AS boardVersion, " +
+           "s.createdAt AS createdAt, s.updatedAt AS updatedAt " +
+           "FROM SudokuGameSession s JOIN s.puzzle p WHERE s.user.id = :userId AND s.status = :status ORDER BY s.updatedAt DESC")
+    List<SummaryView> findSummariesByUserIdAndStatus(@Param("userId") String userId, @Param("status") Enums.GameStatus status);
+
+    @Query("SELECT s FROM SudokuGameSession s WHERE s.user.id = :userId")
+    List<SudokuGameSession> findByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM SudokuGameSession s WHERE s.user.id = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    List<SudokuGameSession> findByStatusAndUpdatedAtBefore(Enums.GameStatus status, LocalDateTime cutoff);
+
+    @Query("SELECT s.sessionId FROM SudokuGameSession s WHERE s.status IN :statuses AND s.updatedAt < :cutoff")
+    List<String> findIdsByStatusInAndUpdatedAtBefore(@Param("statuses") Collection<Enums.GameStatus> statuses,
+            @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT s.sessionId AS sessionId, s.puzzle.id AS puzzleId, s.updatedAt AS updatedAt " +
+           "FROM SudokuGameSession s WHERE s.status IN :statuses ORDER BY s.updatedAt ASC")
+    List<ExpiryView> findExpiryViewsByStatusIn(@Param("statuses") Collection<Enums.GameStatus> statuses, Pageable pageable);
+
+    @Query("SELECT s.sessionId AS sessionId, s.puzzle.id AS puzzleId, s.updatedAt AS updatedAt " +
+           "FROM SudokuGameSession s WHERE s.sessionId IN :sessionIds AND s.status IN :statuses")
+    List<ExpiryView> findExpiryViews(@Param("sessionIds") Collection<String> sessionIds,
+            @Param("statuses") Collection<Enums.GameStatus> statuses);
+
+    // Re-checks updatedAt so a session touched since it was selected (on any node) is kept.
+    @Modifying
+    @Query("DELETE FROM SudokuGameSession s WHERE s.sessionId IN :sessionIds AND s.updatedAt < :cutoff")
+    int deleteExpired(@Param("sessionIds") Collection<String> sessionIds, @Param("cutoff") LocalDateTime cutoff);
+
+    // Writes only the given column groups, without an optimistic-lock check on version. The board is a
+    // compare-and-set: it is written only if the row still holds expectedBoardVersion, the version the
+    // change was based on. The other groups merge deterministically with whatever is in the row: elapsed
+    // time keeps the higher value, autoCandidateModeUsed stays true once set, and the error count,
+    // candidates and settings are last-writer-wins. A null timer value leaves its column as it is. Returns false, writing nothing if the board was skipped, when the row
+    // is gone or its board moved on since expectedBoardVersion.
+    @Transactional
+    default boolean patch(SudokuGameSession session, long expectedBoardVersion, Set<SudokuGameSession.FieldGroup> groups) {
+        String sessionId = session.getSessionId();
+        LocalDateTime updatedAt = session.getUpdatedAt() != null ? session.getUpdatedAt() : LocalDateTime.now();
+        if (groups.contains(SudokuGameSession.FieldGroup.BOARD)
+                && patchBoard(sessionId, session.getBoardString(), expectedBoardVersion,
+                        session.getBoardVersion() != null ? session.getBoardVersion() : 0L,
+                        session.getMoveCount(), session.getStatus(), session.getJournalSequence(), updatedAt) == 0) {
+            return false;
+        }
+        boolean applied = true;
+        for (SudokuGameSession.FieldGroup group : groups) {
+            int rows = switch (group) {
+                case BOARD -> 1;
+                case CANDIDATES -> patchCandidates(sessionId, session.getCandidateMasks(),
+                        session.getCandidateMasks() != null ? null : session.getCandidatesJson(), updatedAt);
+                case TIMER -> patchTimer(sessionId, session.getElapsedTimeSeconds(), session.getErrorCount(), updatedAt);
+                case SETTINGS -> patchSettings(sessionId, session.getAutoCandidateModeUsed(), session.getIsAutoCandidateMode(),
+                        session.getColorProfile(), session.getSettingsJson(), updatedAt);
+            };
+            applied &= rows > 0;
+        }
+        return applied;
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SudokuGameSession s SET s.boardString = :boardString, s.boardVersion = :boardVersion, " +
+           "s.moveCount = :moveCount, s.status = :status, s.journalSequence = :journalSequence, " +
+           "s.updatedAt = CASE WHEN s.updatedAt > :updatedAt THEN s.updatedAt ELSE :updatedAt END, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.sessionId = :sessionId AND COALESCE(s.boardVersion, 0) = :expected")
+    int patchBoard(@Param("sessionId") String sessionId, @Param("boardString") String boardString,
+                   @Param("expected") Long expectedBoardVersion, @Param("boardVersion") Long boardVersion,
+                   @Param("moveCount") Integer moveCount, @Param("status") Enums.GameStatus status,
+                   @Param("journalSequence") Integer journalSequence, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SudokuGameSession s SET s.candidateMasks = :candidateMasks, s.candidatesJson = :candidatesJson, " +
+           "s.updatedAt = CASE WHEN s.updatedAt > :updatedAt THEN s.updatedAt ELSE :updatedAt END, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.sessionId = :sessionId")
+    int patchCandidates(@Param("sessionId") String sessionId, @Param("candidateMasks") byte[] candidateMasks,
+                        @Param("candidatesJson") String candidatesJson, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SudokuGameSession s SET " +
+           "s.elapsedTimeSeconds = CASE WHEN :elapsed IS NULL OR s.elapsedTimeSeconds > :elapsed " +
+           "THEN s.elapsedTimeSeconds ELSE :elapsed END, " +
+           "s.errorCount = COALESCE(:errors, s.errorCount), " +
+           "s.updatedAt = CASE WHEN s.updatedAt > :updatedAt THEN s.updatedAt ELSE :updatedAt END, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.sessionId = :sessionId")
+    int patchTimer(@Param("sessionId") String sessionId, @Param("elapsed") Integer elapsedTimeSeconds,
+                   @Param("errors") Integer errorCount, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SudokuGameSession s SET " +
+           "s.autoCandidateModeUsed = CASE WHEN s.autoCandidateModeUsed = TRUE THEN TRUE ELSE :used END, " +
+           "s.isAutoCandidateMode = :active, s.colorProfile = :colorProfile, s.settingsJson = :settingsJson, " +
+           "s.updatedAt = CASE WHEN s.updatedAt > :updatedAt THEN s.updatedAt ELSE :updatedAt END, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.sessionId = :sessionId")
+    int patchSettings(@Param("sessionId") String sessionId, @Param("used") Boolean autoCandidateModeUsed,
+                      @Param("active") Boolean isAutoCandidateMode, @Param("colorProfile") String colorProfile,
+                      @Param("settingsJson") String settingsJson, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -3,9 +3,12 @@ package com.ltp.sudomaster.repository;
 import com.ltp.sudomaster.entity.SudokuPuzzle;
 import com.ltp.sudomaster.entity.Enums;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +19,9 @@ public interface SudokuPuzzleRepository extends JpaRepository<SudokuPuzzle, Long
 
     @Query(value = "SELECT p FROM SudokuPuzzle p WHERE CAST(p.difficulty AS string) = ?1 ORDER BY FUNCTION('RAND') LIMIT 1")
     Optional<SudokuPuzzle> findRandomByDifficulty(String difficulty);
+
+    @Modifying
+    @Query("DELETE FROM SudokuPuzzle p WHERE p.id IN :ids " +
+           "AND NOT EXISTS (SELECT s FROM SudokuGameSession s WHERE s.puzzle = p)")
+    int deleteUnreferenced(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,76 @@
+package com.ltp.sudomaster.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.Base64;
+import java.util.List;
+
+public record BearerToken(String token, String userId, long issuedAtMillis) {
+
+    private static final Logger log = LoggerFactory.getLogger(BearerToken.class);
+    public static final long TOKEN_EXPIRY_MS = 72 * 60 * 60 * 1000L;
+
+    public static BearerToken parse(String token) {
+        try {
+            String cleanToken = token.replaceAll("\\s", "");
+            
+            String decodedToken = new String(Base64.getDecoder().decode(cleanToken));
+            
+            if (!decodedToken.contains(":")) {
+                log.warn("Token format invalid - missing separator");
+                return null;
+            }
+            
+            String[] parts = decodedToken.split(":", 2);
+            if (parts.length != 2) {
+                log.warn("Token format invalid - incorrect parts");
+                return null;
+            }
+            
+            String userId = parts[0];
+            long tokenTimestamp;
+            
+            try {
+                tokenTimestamp = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                log.warn("Token timestamp invalid");
+                return null;
+            }
+            
+            long currentTime = System.currentTimeMillis();
+            long tokenAge = currentTime - tokenTimestamp;
+            
+            if (tokenAge < 0) {
+                log.warn("Token has future timestamp - rejected");
+                return null;
+            }
+            
+            if (tokenAge > TOKEN_EXPIRY_MS) {
+                log.warn("Token expired - age: {} ms", tokenAge);
+                return null;
+            }
+            
+            return new BearerToken(token, userId, tokenTimestamp);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Token decoding failed - invalid Base64");
+            return null;
+        } catch (Exception e) {
+            log.error("Token validation error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public long expiresAtMillis() {
+        return issuedAtMillis + TOKEN_EXPIRY_MS;
+    }
+
+    public UsernamePasswordAuthenticationToken toAuthentication() {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(userId, token, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(userId);
+        return authentication;
+    }
+}
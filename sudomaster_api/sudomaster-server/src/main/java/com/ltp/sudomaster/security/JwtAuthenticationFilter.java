@@ -0,0 +1,49 @@
+package com.ltp.sudomaster.security;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.lang.NonNull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        
+        String authHeader = request.getHeader("Authorization");
+        
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7).trim();
+            
+            if (validateAndSetAuthentication(token)) {
+                log.debug("Bearer token authenticated");
+            } else {
+                log.warn("Invalid or expired Bearer token");
+            }
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean validateAndSetAuthentication(String token) {
+        BearerToken parsed = BearerToken.parse(token);
+        if (parsed == null) {
+            return false;
+        }
+        
+        SecurityContextHolder.getContext().setAuthentication(parsed.toAuthentication());
+        log.debug("Authenticated userId: {}", parsed.userId());
+        
+        return true;
+    }
+}
+
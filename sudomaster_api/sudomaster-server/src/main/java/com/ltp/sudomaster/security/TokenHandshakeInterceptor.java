@@ -0,0 +1,48 @@
+package com.ltp.sudomaster.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Browsers cannot set headers on a WebSocket upgrade, so the token may also come as ?token=.
+public class TokenHandshakeInterceptor implements HandshakeInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenHandshakeInterceptor.class);
+    public static final String TOKEN_ATTRIBUTE = "bearerToken";
+
+    @Override
+    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+        String token;
+        String authHeader = request.getHeaders().getFirst("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            token = authHeader.substring(7).trim();
+        } else {
+            String query = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+            token = query != null ? UriUtils.decode(query, StandardCharsets.UTF_8) : null;
+        }
+
+        BearerToken parsed = token != null ? BearerToken.parse(token) : null;
+        if (parsed == null) {
+            log.warn("Rejected game socket handshake without a valid token");
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(TOKEN_ATTRIBUTE, parsed);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                               @NonNull WebSocketHandler wsHandler, Exception exception) {
+    }
+}
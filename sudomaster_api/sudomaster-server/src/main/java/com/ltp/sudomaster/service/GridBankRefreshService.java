@@ -0,0 +1,51 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.sudokugen.SolvedGridBank;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+
+@Slf4j
+@Service
+public class GridBankRefreshService {
+
+    @Autowired
+    private SolvedGridBank gridBank;
+
+    @Autowired
+    private PuzzleGenerationService generationService;
+
+    @Value("${sudomaster.generator.grid-bank.refresh-batch:4}")
+    private int refreshBatch;
+
+    @Value("${sudomaster.generator.grid-bank.file:}")
+    private String file;
+
+    @Scheduled(initialDelayString = "${sudomaster.generator.grid-bank.refresh-interval-ms:600000}",
+            fixedDelayString = "${sudomaster.generator.grid-bank.refresh-interval-ms:600000}")
+    public void refreshGridBank() {
+        if (refreshBatch <= 0) {
+            return;
+        }
+        if (!generationService.runWhenIdle(this::refreshNow)) {
+            log.debug("Generator busy, deferring solved grid refresh");
+        }
+    }
+
+    private void refreshNow() {
+        int replaced = gridBank.refresh(refreshBatch);
+        log.debug("Refreshed {} of {} solved grids ({} draws so far)", replaced, gridBank.size(), gridBank.getDrawCount());
+
+        if (file != null && !file.isBlank()) {
+            try {
+                gridBank.saveTo(Path.of(file));
+            } catch (Exception e) {
+                log.warn("Failed to persist solved grid bank to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.entity.Enums;
+import com.ltp.sudomaster.entity.PlayedPuzzles;
+import com.ltp.sudomaster.repository.PlayedPuzzlesRepository;
+import com.ltp.sudomaster.util.CompressedBitmap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class PlayedPuzzleService {
+
+    private static final int RANDOM_PROBES = 8;
+
+    @Autowired
+    private PlayedPuzzlesRepository playedPuzzlesRepository;
+
+    @Autowired
+    private PuzzleCatalogueService catalogueService;
+
+    private final Map<String, PlayedSet> cache;
+
+    public PlayedPuzzleService(@Value("${sudomaster.played-puzzles.cache-size:10000}") int cacheSize) {
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlayedSet> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public OptionalInt pickUnplayed(String userId, Enums.Difficulty difficulty) {
+        int available = catalogueService.size(difficulty);
+        if (available == 0) {
+            return OptionalInt.empty();
+        }
+
+        PlayedSet entry = playedSetFor(userId);
+        CompressedBitmap played = entry.bitmap;
+        int from = PuzzleCatalogueService.firstId(difficulty);
+        int to = from + available;
+
+        entry.lock.lock();
+        try {
+            long unplayed = available - played.countInRange(from, to);
+            if (unplayed <= 0) {
+                return OptionalInt.empty();
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int probe = 0; probe < RANDOM_PROBES; probe++) {
+                int candidate = from + random.nextInt(available);
+                if (!played.contains(candidate)) {
+                    return OptionalInt.of(candidate);
+                }
+            }
+            return OptionalInt.of(played.selectAbsent(from, to, random.nextLong(unplayed)));
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    // Called once the game using the puzzle has committed. The row is written while the
+    // user's lock is held, so concurrent saves cannot overwrite a newer bitmap with an older one.
+    public void markPlayed(String userId, int catalogueId) {
+        PlayedSet entry = playedSetFor(userId);
+        entry.lock.lock();
+        try {
+            if (!entry.bitmap.add(catalogueId)) {
+                return;
+            }
+            playedPuzzlesRepository.save(PlayedPuzzles.builder()
+                    .userId(userId)
+                    .bitmap(entry.bitmap.toBytes())
+                    .playedCount(entry.bitmap.cardinality())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    public boolean hasPlayed(String userId, int catalogueId) {
+        PlayedSet entry = playedSetFor(userId);
+        entry.lock.lock();
+        try {
+            return entry.bitmap.contains(catalogueId);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    public void deleteForUser(String userId) {
+        synchronized (cache) {
+            cache.remove(userId);
+        }
+        if (playedPuzzlesRepository.existsById(userId)) {
+            playedPuzzlesRepository.deleteById(userId);
+        }
+    }
+
+    private PlayedSet playedSetFor(String userId) {
+        synchronized (cache) {
+            PlayedSet cached = cache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        PlayedSet loaded = new PlayedSet(playedPuzzlesRepository.findById(userId)
+                .map(row -> CompressedBitmap.fromBytes(row.getBitmap()))
+                .orElseGet(CompressedBitmap::new));
+
+        synchronized (cache) {
+            return cache.computeIfAbsent(userId, id -> loaded);
+        }
+    }
+
+    // A ReentrantLock rather than the bitmap's monitor: markPlayed holds it across a JDBC write,
+    // which would pin a virtual thread's carrier inside synchronized.
+    private static final class PlayedSet {
+        private final CompressedBitmap bitmap;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private PlayedSet(CompressedBitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+    }
+}
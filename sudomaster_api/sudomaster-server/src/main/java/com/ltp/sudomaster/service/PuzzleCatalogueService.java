@@ -0,0 +1,128 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.entity.Enums;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class PuzzleCatalogueService {
+
+    public static final int ID_BITS = 24;
+    public static final int MAX_PER_DIFFICULTY = 1 << ID_BITS;
+
+    private static final int CELLS = 81;
+    private static final int ENTRY_BYTES = 2 * CELLS;
+
+    public record CatalogueEntry(int catalogueId, String cluesString, String solutionString) {}
+
+    private record Section(byte[] entries, int size) {}
+
+    @Value("${sudomaster.catalogue.dir:}")
+    private String catalogueDir;
+
+    private final Map<Enums.Difficulty, Section> sections = new EnumMap<>(Enums.Difficulty.class);
+
+    @PostConstruct
+    public void load() {
+        if (catalogueDir == null || catalogueDir.isBlank()) {
+            log.info("No puzzle catalogue configured, all puzzles will be generated on demand");
+            return;
+        }
+
+        Path dir = Path.of(catalogueDir);
+        for (Enums.Difficulty difficulty : Enums.Difficulty.values()) {
+            Path file = dir.resolve(difficulty.name() + ".txt");
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            try {
+                Section section = readSection(file);
+                sections.put(difficulty, section);
+                log.info("Loaded {} {} puzzles from catalogue {}", section.size(), difficulty, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load puzzle catalogue " + file, e);
+            }
+        }
+    }
+
+    public int size(Enums.Difficulty difficulty) {
+        Section section = sections.get(difficulty);
+        return section == null ? 0 : section.size();
+    }
+
+    public static int firstId(Enums.Difficulty difficulty) {
+        return difficulty.ordinal() << ID_BITS;
+    }
+
+    public Optional<CatalogueEntry> get(int catalogueId) {
+        int ordinal = catalogueId >>> ID_BITS;
+        if (ordinal >= Enums.Difficulty.values().length) {
+            return Optional.empty();
+        }
+        Section section = sections.get(Enums.Difficulty.values()[ordinal]);
+        int index = catalogueId & (MAX_PER_DIFFICULTY - 1);
+        if (section == null || index >= section.size()) {
+            return Optional.empty();
+        }
+
+        int offset = index * ENTRY_BYTES;
+        return Optional.of(new CatalogueEntry(catalogueId,
+                new String(section.entries(), offset, CELLS, StandardCharsets.US_ASCII),
+                new String(section.entries(), offset + CELLS, CELLS, StandardCharsets.US_ASCII)));
+    }
+
+    private Section readSection(Path file) throws IOException {
+        byte[] entries = new byte[ENTRY_BYTES * 1024];
+        int size = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length < 2 || !isBoard(parts[0], '0') || !isBoard(parts[1], '1')) {
+                    throw new IOException("Invalid catalogue line " + lineNumber + " in " + file);
+                }
+                if (size == MAX_PER_DIFFICULTY) {
+                    log.warn("Catalogue {} exceeds {} puzzles, ignoring the rest", file, MAX_PER_DIFFICULTY);
+                    break;
+                }
+                if ((size + 1) * ENTRY_BYTES > entries.length) {
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                }
+                int offset = size * ENTRY_BYTES;
+                System.arraycopy(parts[0].getBytes(StandardCharsets.US_ASCII), 0, entries, offset, CELLS);
+                System.arraycopy(parts[1].getBytes(StandardCharsets.US_ASCII), 0, entries, offset + CELLS, CELLS);
+                size++;
+            }
+        }
+        return new Section(Arrays.copyOf(entries, size * ENTRY_BYTES), size);
+    }
+
+    private static boolean isBoard(String value, char minDigit) {
+        if (value.length() != CELLS) {
+            return false;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            char ch = value.charAt(i);
+            if (ch < minDigit || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.exception.GenerationUnavailableException;
+import com.ltp.sudomaster.sudokugen.BoardGenerator;
+import com.ltp.sudomaster.sudokugen.Difficulty;
+import com.ltp.sudomaster.sudokugen.GeneratedPuzzle;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class PuzzleGenerationService {
+
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final long INITIAL_ESTIMATE_MS = 500;
+
+    private final BoardGenerator boardGenerator;
+    private final ThreadPoolExecutor executor;
+    private final int maxConcurrency;
+    private final long queueTimeoutMs;
+    private final Map<Difficulty, AtomicLong> averageMillis = new EnumMap<>(Difficulty.class);
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicBoolean backgroundRunning = new AtomicBoolean();
+
+    public PuzzleGenerationService(
+            BoardGenerator boardGenerator,
+            @Value("${sudomaster.generator.max-concurrency:2}") int maxConcurrency,
+            @Value("${sudomaster.generator.queue-capacity:16}") int queueCapacity,
+            @Value("${sudomaster.generator.queue-timeout-ms:10000}") long queueTimeoutMs) {
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("Generator concurrency must not be negative");
+        }
+        if (maxConcurrency == 0) {
+            maxConcurrency = Runtime.getRuntime().availableProcessors();
+        }
+        this.boardGenerator = boardGenerator;
+        this.maxConcurrency = maxConcurrency;
+        this.queueTimeoutMs = queueTimeoutMs;
+        for (Difficulty difficulty : Difficulty.values()) {
+            averageMillis.put(difficulty, new AtomicLong(INITIAL_ESTIMATE_MS));
+        }
+
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-gen-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public GeneratedPuzzle generate(Difficulty difficulty) throws Exception {
+        Future<GeneratedPuzzle> future;
+        try {
+            future = executor.submit(() -> timedGenerate(difficulty));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            log.warn("Puzzle generation saturated, rejecting {} request", difficulty);
+            throw new GenerationUnavailableException("Puzzle generation is busy", estimateRetryAfterSeconds(difficulty));
+        }
+
+        try {
+            return future.get(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.incrementAndGet();
+            log.warn("Puzzle generation for {} exceeded {} ms deadline", difficulty, queueTimeoutMs);
+            throw new GenerationUnavailableException("Puzzle generation timed out", estimateRetryAfterSeconds(difficulty));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    public boolean generateWhenIdle(Difficulty difficulty, Consumer<GeneratedPuzzle> consumer) {
+        return runWhenIdle(() -> {
+            try {
+                consumer.accept(timedGenerate(difficulty));
+            } catch (Exception e) {
+                log.debug("Background generation for {} failed: {}", difficulty, e.getMessage());
+            }
+        });
+    }
+
+    // Background CPU work shares the platform pool with request-driven generation, but only
+    // starts when that pool is idle and never more than one task at a time.
+    public boolean runWhenIdle(Runnable task) {
+        if (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()
+                || !backgroundRunning.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    backgroundRunning.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            backgroundRunning.set(false);
+            return false;
+        }
+    }
+
+    public long estimateRetryAfterSeconds(Difficulty difficulty) {
+        long pending = executor.getQueue().size() + executor.getActiveCount();
+        long waves = pending / maxConcurrency + 1;
+        long estimateMs = waves * averageMillis.get(difficulty).get();
+        return Math.max(1, (estimateMs + 999) / 1000);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private GeneratedPuzzle timedGenerate(Difficulty difficulty) throws Exception {
+        long start = System.nanoTime();
+        GeneratedPuzzle puzzle = boardGenerator.generate(difficulty);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        averageMillis.get(difficulty).updateAndGet(current ->
+                Math.round(current * (1 - EWMA_WEIGHT) + elapsedMs * EWMA_WEIGHT));
+        return puzzle;
+    }
+}
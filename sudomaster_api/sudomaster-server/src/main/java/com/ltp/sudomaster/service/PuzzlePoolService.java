@@ -0,0 +1,234 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.entity.Enums;
+import com.ltp.sudomaster.util.BoardCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+@Slf4j
+@Service
+public class PuzzlePoolService {
+
+    static final int SNAPSHOT_MAGIC = 0x534D5050;
+    static final short SNAPSHOT_VERSION = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int ENTRY_BYTES = 1 + Long.BYTES + 2 * BoardCodec.PACKED_BYTES;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+
+    public record PooledPuzzle(Enums.Difficulty difficulty, String cluesString, String solutionString, long createdAtMillis) {}
+
+    private final PuzzleGenerationService generationService;
+    private final int targetSize;
+    private final Path snapshotFile;
+    private final long maxAgeMillis;
+    private final Map<Enums.Difficulty, Deque<PooledPuzzle>> pools = new EnumMap<>(Enums.Difficulty.class);
+    private final Map<Enums.Difficulty, AtomicInteger> sizes = new EnumMap<>(Enums.Difficulty.class);
+
+    public PuzzlePoolService(
+            PuzzleGenerationService generationService,
+            @Value("${sudomaster.puzzle-pool.size:4}") int targetSize,
+            @Value("${sudomaster.puzzle-pool.snapshot-file:}") String snapshotFile,
+            @Value("${sudomaster.puzzle-pool.max-age-hours:72}") long maxAgeHours) {
+        this.generationService = generationService;
+        this.targetSize = Math.max(0, targetSize);
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.maxAgeMillis = Duration.ofHours(maxAgeHours).toMillis();
+        for (Enums.Difficulty difficulty : Enums.Difficulty.values()) {
+            pools.put(difficulty, new ConcurrentLinkedDeque<>());
+            sizes.put(difficulty, new AtomicInteger());
+        }
+    }
+
+    public Optional<PooledPuzzle> take(Enums.Difficulty difficulty) {
+        PooledPuzzle puzzle = pools.get(difficulty).pollFirst();
+        if (puzzle == null) {
+            return Optional.empty();
+        }
+        sizes.get(difficulty).decrementAndGet();
+        return Optional.of(puzzle);
+    }
+
+    public int size(Enums.Difficulty difficulty) {
+        return sizes.get(difficulty).get();
+    }
+
+    boolean offer(PooledPuzzle puzzle) {
+        AtomicInteger size = sizes.get(puzzle.difficulty());
+        if (size.incrementAndGet() > targetSize) {
+            size.decrementAndGet();
+            return false;
+        }
+        pools.get(puzzle.difficulty()).addLast(puzzle);
+        return true;
+    }
+
+    @Scheduled(initialDelayString = "${sudomaster.puzzle-pool.refill-interval-ms:2000}",
+            fixedDelayString = "${sudomaster.puzzle-pool.refill-interval-ms:2000}")
+    public void refillWhenIdle() {
+        if (targetSize == 0) {
+            return;
+        }
+
+        Enums.Difficulty neediest = null;
+        int largestDeficit = 0;
+        for (int i = Enums.Difficulty.values().length - 1; i >= 0; i--) {
+            Enums.Difficulty difficulty = Enums.Difficulty.values()[i];
+            int deficit = targetSize - size(difficulty);
+            if (deficit > largestDeficit) {
+                largestDeficit = deficit;
+                neediest = difficulty;
+            }
+        }
+        if (neediest == null) {
+            return;
+        }
+
+        Enums.Difficulty difficulty = neediest;
+        generationService.generateWhenIdle(
+                com.ltp.sudomaster.sudokugen.Difficulty.valueOf(difficulty.name()),
+                generated -> offer(new PooledPuzzle(difficulty,
+                        toDigits(generated.puzzle()), toDigits(generated.solution()), System.currentTimeMillis())));
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return;
+        }
+
+        try {
+            List<PooledPuzzle> restored = decode(Files.readAllBytes(snapshotFile));
+            long cutoff = System.currentTimeMillis() - maxAgeMillis;
+            int loaded = 0;
+            for (PooledPuzzle puzzle : restored) {
+                if (puzzle.createdAtMillis() >= cutoff && offer(puzzle)) {
+                    loaded++;
+                }
+            }
+            log.info("Restored {} of {} pooled puzzles from {}", loaded, restored.size(), snapshotFile);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable puzzle pool snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+
+        try {
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            log.warn("Failed to remove puzzle pool snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+
+        List<PooledPuzzle> entries = new ArrayList<>();
+        for (Deque<PooledPuzzle> pool : pools.values()) {
+            entries.addAll(pool);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            Files.write(temp, encode(entries));
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved {} pooled puzzles to {}", entries.size(), snapshotFile);
+        } catch (IOException e) {
+            log.warn("Failed to save puzzle pool snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    static byte[] encode(List<PooledPuzzle> entries) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entries.size() * ENTRY_BYTES + CHECKSUM_BYTES);
+        buffer.putInt(SNAPSHOT_MAGIC);
+        buffer.putShort(SNAPSHOT_VERSION);
+        buffer.putInt(entries.size());
+        byte[] packed = new byte[BoardCodec.PACKED_BYTES];
+        for (PooledPuzzle entry : entries) {
+            buffer.put((byte) entry.difficulty().ordinal());
+            buffer.putLong(entry.createdAtMillis());
+            BoardCodec.pack(entry.cluesString(), packed, 0);
+            buffer.put(packed);
+            BoardCodec.pack(entry.solutionString(), packed, 0);
+            buffer.put(packed);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        return buffer.array();
+    }
+
+    static List<PooledPuzzle> decode(byte[] bytes) {
+        if (bytes.length < HEADER_BYTES + CHECKSUM_BYTES) {
+            throw new IllegalArgumentException("Snapshot too short");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - CHECKSUM_BYTES);
+        if (crc.getValue() != buffer.getLong(bytes.length - CHECKSUM_BYTES)) {
+            throw new IllegalArgumentException("Snapshot checksum mismatch");
+        }
+        if (buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalArgumentException("Not a puzzle pool snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+        int count = buffer.getInt();
+        if (count < 0 || bytes.length != HEADER_BYTES + (long) count * ENTRY_BYTES + CHECKSUM_BYTES) {
+            throw new IllegalArgumentException("Snapshot length does not match entry count");
+        }
+
+        Enums.Difficulty[] difficulties = Enums.Difficulty.values();
+        List<PooledPuzzle> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ordinal = buffer.get();
+            long createdAt = buffer.getLong();
+            int offset = buffer.position();
+            String clues = BoardCodec.unpack(bytes, offset);
+            String solution = BoardCodec.unpack(bytes, offset + BoardCodec.PACKED_BYTES);
+            buffer.position(offset + 2 * BoardCodec.PACKED_BYTES);
+            if (ordinal < 0 || ordinal >= difficulties.length) {
+                throw new IllegalArgumentException("Unknown difficulty in snapshot: " + ordinal);
+            }
+            entries.add(new PooledPuzzle(difficulties[ordinal], clues, solution, createdAt));
+        }
+        return entries;
+    }
+
+    private static String toDigits(int[][] board) {
+        StringBuilder sb = new StringBuilder(BoardCodec.CELLS);
+        for (int[] row : board) {
+            for (int value : row) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+}
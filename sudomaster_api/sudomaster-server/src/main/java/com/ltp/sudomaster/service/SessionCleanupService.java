@@ -0,0 +1,183 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.entity.Enums;
+import com.ltp.sudomaster.pointsengine.ActiveSessionStore;
+import com.ltp.sudomaster.pointsengine.PuzzleCache;
+import com.ltp.sudomaster.repository.SudokuGameSessionRepository;
+import com.ltp.sudomaster.repository.SudokuPuzzleRepository;
+import com.ltp.sudomaster.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Sessions expire a fixed time after their last change. Every change on this node schedules the
+// session in a timing wheel, and each tick deletes whatever came due in small batches. A bounded
+// sweep of the table catches sessions the wheel never saw (older rows, other nodes).
+@Service
+@Slf4j
+public class SessionCleanupService {
+
+    private static final Set<Enums.GameStatus> EXPIRING = EnumSet.of(Enums.GameStatus.IN_PROGRESS, Enums.GameStatus.COMPLETED);
+    private static final int WHEEL_SLOTS = 64;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final SudokuGameSessionRepository sessionRepository;
+    private final SudokuPuzzleRepository puzzleRepository;
+    private final ActiveSessionStore activeSessionStore;
+    private final PuzzleCache puzzleCache;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxIdleMillis;
+    private final int batchSize;
+    private final int sweepBatches;
+    private final int seedLimit;
+    private final TimingWheel<String> wheel;
+    private volatile boolean seeded;
+
+    public SessionCleanupService(
+            SudokuGameSessionRepository sessionRepository,
+            SudokuPuzzleRepository puzzleRepository,
+            ActiveSessionStore activeSessionStore,
+            PuzzleCache puzzleCache,
+            TransactionTemplate transactionTemplate,
+            @Value("${sudomaster.session-expiry.max-idle-ms:259200000}") long maxIdleMillis,
+            @Value("${sudomaster.session-expiry.tick-ms:60000}") long tickMillis,
+            @Value("${sudomaster.session-expiry.batch-size:100}") int batchSize,
+            @Value("${sudomaster.session-expiry.sweep-batches:50}") int sweepBatches,
+            @Value("${sudomaster.session-expiry.seed-limit:100000}") int seedLimit) {
+        this.sessionRepository = sessionRepository;
+        this.puzzleRepository = puzzleRepository;
+        this.activeSessionStore = activeSessionStore;
+        this.puzzleCache = puzzleCache;
+        this.transactionTemplate = transactionTemplate;
+        this.maxIdleMillis = maxIdleMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.sweepBatches = Math.max(1, sweepBatches);
+        this.seedLimit = Math.max(0, seedLimit);
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SLOTS, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void registerActivityListener() {
+        activeSessionStore.onActivity(this::track);
+    }
+
+    public void track(String sessionId, long activeAtMillis) {
+        synchronized (wheel) {
+            wheel.schedule(sessionId, activeAtMillis + maxIdleMillis);
+        }
+    }
+
+    public int trackedSessions() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${sudomaster.session-expiry.tick-ms:60000}",
+               fixedDelayString = "${sudomaster.session-expiry.tick-ms:60000}")
+    public int expireDueSessions() {
+        List<String> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        LocalDateTime cutoff = cutoff();
+        int deleted = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            deleted += deleteBatch(due.subList(from, Math.min(due.size(), from + batchSize)), cutoff);
+        }
+        if (deleted > 0) {
+            log.debug("Expired {} of {} due sessions", deleted, due.size());
+        }
+        return deleted;
+    }
+
+    // Runs shortly after startup and then as a backstop. Each pass deletes at most
+    // sweep-batches * batch-size rows; anything left is picked up by the next pass.
+    @Scheduled(initialDelayString = "${sudomaster.session-expiry.sweep-delay-ms:60000}",
+               fixedDelayString = "${sudomaster.session-expiry.sweep-interval-ms:21600000}")
+    public int cleanupStaleSessions() {
+        LocalDateTime cutoff = cutoff();
+        int deleted = 0;
+        for (int batch = 0; batch < sweepBatches; batch++) {
+            List<String> stale = sessionRepository.findIdsByStatusInAndUpdatedAtBefore(EXPIRING, cutoff,
+                    PageRequest.of(0, batchSize));
+            if (stale.isEmpty()) {
+                break;
+            }
+            deleted += deleteBatch(stale, cutoff);
+            if (stale.size() < batchSize) {
+                break;
+            }
+        }
+        if (!seeded) {
+            seeded = true;
+            seedWheel();
+        }
+        log.info("Stale session sweep deleted {} sessions; {} sessions tracked for expiry", deleted, trackedSessions());
+        return deleted;
+    }
+
+    private void seedWheel() {
+        if (seedLimit == 0) {
+            return;
+        }
+        for (SudokuGameSessionRepository.ExpiryView row
+                : sessionRepository.findExpiryViewsByStatusIn(EXPIRING, PageRequest.of(0, seedLimit))) {
+            track(row.getSessionId(), toMillis(row.getUpdatedAt()));
+        }
+    }
+
+    // Sessions that were touched since they were scheduled go back on the wheel at their new time.
+    private int deleteBatch(List<String> sessionIds, LocalDateTime cutoff) {
+        try {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<String> stale = new ArrayList<>();
+                List<Long> puzzleIds = new ArrayList<>();
+                for (SudokuGameSessionRepository.ExpiryView row : sessionRepository.findExpiryViews(sessionIds, EXPIRING)) {
+                    if (row.getUpdatedAt() != null && row.getUpdatedAt().isBefore(cutoff)) {
+                        stale.add(row.getSessionId());
+                        puzzleIds.add(row.getPuzzleId());
+                    } else {
+                        track(row.getSessionId(), row.getUpdatedAt() != null
+                                ? toMillis(row.getUpdatedAt()) : System.currentTimeMillis());
+                    }
+                }
+                if (stale.isEmpty()) {
+                    return 0;
+                }
+                activeSessionStore.evictAll(stale);
+                int rows = sessionRepository.deleteExpired(stale, cutoff);
+                synchronized (wheel) {
+                    stale.forEach(wheel::cancel);
+                }
+                puzzleRepository.deleteUnreferenced(puzzleIds);
+                puzzleIds.forEach(puzzleCache::evict);
+                return rows;
+            });
+            return deleted != null ? deleted : 0;
+        } catch (Exception e) {
+            log.error("Error deleting a batch of {} expired sessions: {}", sessionIds.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(Duration.ofMillis(maxIdleMillis));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -5,10 +5,13 @@ import com.ltp.sudomaster.dto.LoginRequest;
 import com.ltp.sudomaster.dto.RegisterRequest;
 import com.ltp.sudomaster.entity.User;
 import com.ltp.sudomaster.entity.SudokuGameSession;
+import com.ltp.sudomaster.pointsengine.ActiveSessionStore;
+import com.ltp.sudomaster.pointsengine.PuzzleCache;
 import com.ltp.sudomaster.repository.UserRepository;
 import com.ltp.sudomaster.repository.SudokuGameSessionRepository;
 import com.ltp.sudomaster.repository.SudokuPuzzleRepository;
 import com.ltp.sudomaster.repository.GameScoreRepository;
+import com.ltp.sudomaster.repository.CompletionTaskRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +42,18 @@ public class UserAuthenticationService {
     @Autowired
     private GameScoreRepository gameScoreRepository;
 
+    @Autowired
+    private CompletionTaskRepository completionTaskRepository;
+
+    @Autowired
+    private PlayedPuzzleService playedPuzzleService;
+
+    @Autowired
+    private ActiveSessionStore activeSessionStore;
+
+    @Autowired
+    private PuzzleCache puzzleCache;
+
     private static final long TOKEN_EXPIRY_MS = 72 * 60 * 60 * 1000L;
 
     private String generateBearerToken(String userId) {
@@ -151,11 +166,13 @@ public class UserAuthenticationService {
                     Long puzzleId = session.getPuzzle() != null ? session.getPuzzle().getId() : null;
                     
                     try {
+                        activeSessionStore.evict(sessionId, false);
                         sudokuGameSessionRepository.deleteById(sessionId);
                         log.debug("Deleted session: {}", sessionId);
                         
                         if (puzzleId != null) {
                             sudokuPuzzleRepository.deleteById(puzzleId);
+                            puzzleCache.evict(puzzleId);
                             log.debug("Deleted puzzle {} for session: {}", puzzleId, sessionId);
                         }
                     } catch (Exception e) {
@@ -172,6 +189,10 @@ public class UserAuthenticationService {
         
         gameScoreRepository.deleteByUserId(userId);
         log.debug("Game scores deleted");
+
+        completionTaskRepository.deleteByUserId(userId);
+
+        playedPuzzleService.deleteForUser(userId);
         
         userRepository.deleteById(userId);
     }
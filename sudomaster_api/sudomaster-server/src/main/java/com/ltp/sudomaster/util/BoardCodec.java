@@ -0,0 +1,46 @@
+package com.ltp.sudomaster.util;
+
+public final class BoardCodec {
+
+    public static final int CELLS = 81;
+    public static final int PACKED_BYTES = (CELLS + 1) / 2;
+
+    private BoardCodec() {}
+
+    public static byte[] pack(String board) {
+        byte[] packed = new byte[PACKED_BYTES];
+        pack(board, packed, 0);
+        return packed;
+    }
+
+    public static void pack(String board, byte[] target, int offset) {
+        if (board == null || board.length() != CELLS) {
+            throw new IllegalArgumentException("Board must have " + CELLS + " cells");
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int digit = board.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid cell value at position " + i);
+            }
+            int index = offset + (i >> 1);
+            target[index] = (byte) ((i & 1) == 0 ? digit << 4 : target[index] | digit);
+        }
+    }
+
+    public static int digitAt(byte[] source, int offset, int position) {
+        int value = source[offset + (position >> 1)] & 0xFF;
+        return (position & 1) == 0 ? value >>> 4 : value & 0x0F;
+    }
+
+    public static String unpack(byte[] source, int offset) {
+        char[] board = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            int digit = digitAt(source, offset, i);
+            if (digit > 9) {
+                throw new IllegalArgumentException("Invalid packed cell value at position " + i);
+            }
+            board[i] = (char) ('0' + digit);
+        }
+        return new String(board);
+    }
+}
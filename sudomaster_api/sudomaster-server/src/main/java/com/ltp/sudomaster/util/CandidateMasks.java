@@ -0,0 +1,309 @@
+package com.ltp.sudomaster.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+@JsonSerialize(using = CandidateMasks.Serializer.class)
+public final class CandidateMasks {
+
+    public static final int CELLS = 81;
+    public static final int PACKED_BYTES = 1 + (CELLS + 7) / 8 + (CELLS * 9 + 7) / 8;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int ROW_COL_FLAG = 0x10;
+    private static final int PRESENCE_OFFSET = 1;
+    private static final int MASK_OFFSET = PRESENCE_OFFSET + (CELLS + 7) / 8;
+
+    private static final String[] INDEX_KEYS = new String[CELLS];
+    private static final String[] ROW_COL_KEYS = new String[CELLS];
+    private static final String[] DIGIT_LISTS = new String[512];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            INDEX_KEYS[i] = String.valueOf(i);
+            ROW_COL_KEYS[i] = (i / 9) + "-" + (i % 9);
+        }
+        for (int mask = 0; mask < DIGIT_LISTS.length; mask++) {
+            StringBuilder list = new StringBuilder(19).append('[');
+            for (int digit = 1; digit <= 9; digit++) {
+                if ((mask & (1 << (digit - 1))) != 0) {
+                    if (list.length() > 1) {
+                        list.append(',');
+                    }
+                    list.append(digit);
+                }
+            }
+            DIGIT_LISTS[mask] = list.append(']').toString();
+        }
+    }
+
+    private final short[] masks;
+    private final boolean rowColKeys;
+
+    private CandidateMasks(short[] masks, boolean rowColKeys) {
+        this.masks = masks;
+        this.rowColKeys = rowColKeys;
+    }
+
+    public static CandidateMasks blank() {
+        return new CandidateMasks(new short[CELLS], false);
+    }
+
+    // One mask per cell, -1 for a cell the map does not list.
+    public static CandidateMasks of(short[] masks, boolean rowColKeys) {
+        if (masks.length != CELLS) {
+            throw new IllegalArgumentException("Candidate masks must cover " + CELLS + " cells");
+        }
+        short[] copy = new short[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            if (masks[i] < -1 || masks[i] > 0x1FF) {
+                throw new IllegalArgumentException("Invalid candidate mask at position " + i);
+            }
+            copy[i] = masks[i];
+        }
+        return new CandidateMasks(copy, rowColKeys);
+    }
+
+    public boolean isPresent(int position) {
+        return masks[position] >= 0;
+    }
+
+    public int maskAt(int position) {
+        return Math.max(masks[position], 0);
+    }
+
+    public boolean usesRowColKeys() {
+        return rowColKeys;
+    }
+
+    public byte[] toBytes() {
+        byte[] packed = new byte[PACKED_BYTES];
+        packed[0] = (byte) (FORMAT_VERSION | (rowColKeys ? ROW_COL_FLAG : 0));
+        int bit = MASK_OFFSET * 8;
+        for (int i = 0; i < CELLS; i++) {
+            if (masks[i] >= 0) {
+                packed[PRESENCE_OFFSET + (i >> 3)] |= (byte) (0x80 >>> (i & 7));
+            }
+            int mask = maskAt(i);
+            for (int b = 8; b >= 0; b--, bit++) {
+                if ((mask & (1 << b)) != 0) {
+                    packed[bit >> 3] |= (byte) (0x80 >>> (bit & 7));
+                }
+            }
+        }
+        return packed;
+    }
+
+    public static CandidateMasks fromBytes(byte[] packed) {
+        if (packed == null || packed.length != PACKED_BYTES) {
+            throw new IllegalArgumentException("Packed candidates must be " + PACKED_BYTES + " bytes");
+        }
+        if ((packed[0] & 0x0F) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported candidate format version: " + (packed[0] & 0x0F));
+        }
+
+        short[] masks = new short[CELLS];
+        int bit = MASK_OFFSET * 8;
+        for (int i = 0; i < CELLS; i++) {
+            int mask = 0;
+            for (int b = 0; b < 9; b++, bit++) {
+                mask = (mask << 1) | ((packed[bit >> 3] >>> (7 - (bit & 7))) & 1);
+            }
+            boolean present = (packed[PRESENCE_OFFSET + (i >> 3)] & (0x80 >>> (i & 7))) != 0;
+            masks[i] = present ? (short) mask : -1;
+        }
+        return new CandidateMasks(masks, (packed[0] & ROW_COL_FLAG) != 0);
+    }
+
+    // Accepts the {"key":[digits]} shape the client sends, keyed either "0".."80" or "row-col".
+    // Returns null for anything else so the caller can keep the text as-is.
+    public static CandidateMasks parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        short[] masks = new short[CELLS];
+        Arrays.fill(masks, (short) -1);
+        int keyStyle = 0;
+
+        int i = skipWhitespace(json, 0);
+        if (i >= json.length() || json.charAt(i++) != '{') {
+            return null;
+        }
+        i = skipWhitespace(json, i);
+        if (i < json.length() && json.charAt(i) == '}') {
+            return skipWhitespace(json, i + 1) == json.length() ? new CandidateMasks(masks, false) : null;
+        }
+
+        while (true) {
+            if (i >= json.length() || json.charAt(i++) != '"') {
+                return null;
+            }
+            int keyEnd = json.indexOf('"', i);
+            if (keyEnd < 0) {
+                return null;
+            }
+            int style = keyStyle(json, i, keyEnd);
+            int position = keyPosition(json, i, keyEnd, style);
+            if (position < 0 || masks[position] >= 0 || (keyStyle != 0 && style != keyStyle)) {
+                return null;
+            }
+            keyStyle = style;
+
+            i = skipWhitespace(json, keyEnd + 1);
+            if (i >= json.length() || json.charAt(i++) != ':') {
+                return null;
+            }
+            i = skipWhitespace(json, i);
+            if (i >= json.length() || json.charAt(i++) != '[') {
+                return null;
+            }
+
+            int mask = 0;
+            i = skipWhitespace(json, i);
+            if (i < json.length() && json.charAt(i) == ']') {
+                i++;
+            } else {
+                while (true) {
+                    if (i >= json.length()) {
+                        return null;
+                    }
+                    int digit = json.charAt(i++) - '0';
+                    if (digit < 1 || digit > 9) {
+                        return null;
+                    }
+                    mask |= 1 << (digit - 1);
+                    i = skipWhitespace(json, i);
+                    if (i >= json.length()) {
+                        return null;
+                    }
+                    char next = json.charAt(i++);
+                    if (next == ']') {
+                        break;
+                    }
+                    if (next != ',') {
+                        return null;
+                    }
+                    i = skipWhitespace(json, i);
+                }
+            }
+            masks[position] = (short) mask;
+
+            i = skipWhitespace(json, i);
+            if (i >= json.length()) {
+                return null;
+            }
+            char next = json.charAt(i++);
+            if (next == '}') {
+                break;
+            }
+            if (next != ',') {
+                return null;
+            }
+            i = skipWhitespace(json, i);
+        }
+
+        return skipWhitespace(json, i) == json.length() ? new CandidateMasks(masks, keyStyle == 2) : null;
+    }
+
+    public String toJson() {
+        String[] keys = rowColKeys ? ROW_COL_KEYS : INDEX_KEYS;
+        StringBuilder json = new StringBuilder(16).append('{');
+        for (int i = 0; i < CELLS; i++) {
+            if (masks[i] < 0) {
+                continue;
+            }
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(keys[i]).append("\":").append(DIGIT_LISTS[masks[i]]);
+        }
+        return json.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CandidateMasks that
+                && rowColKeys == that.rowColKeys
+                && Arrays.equals(masks, that.masks);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(masks) + Boolean.hashCode(rowColKeys);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    private static int skipWhitespace(String json, int i) {
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int keyStyle(String json, int from, int to) {
+        return json.indexOf('-', from) >= 0 && json.indexOf('-', from) < to ? 2 : 1;
+    }
+
+    private static int keyPosition(String json, int from, int to, int style) {
+        int length = to - from;
+        if (style == 2) {
+            if (length != 3 || json.charAt(from + 1) != '-') {
+                return -1;
+            }
+            int row = json.charAt(from) - '0';
+            int col = json.charAt(from + 2) - '0';
+            return row >= 0 && row < 9 && col >= 0 && col < 9 ? row * 9 + col : -1;
+        }
+        if (length < 1 || length > 2 || (length == 2 && json.charAt(from) == '0')) {
+            return -1;
+        }
+        int position = 0;
+        for (int i = from; i < to; i++) {
+            int digit = json.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            position = position * 10 + digit;
+        }
+        return position < CELLS ? position : -1;
+    }
+
+    public static final class Serializer extends StdSerializer<CandidateMasks> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serializer() {
+            super(CandidateMasks.class);
+        }
+
+        @Override
+        public void serialize(CandidateMasks value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            String[] keys = value.rowColKeys ? ROW_COL_KEYS : INDEX_KEYS;
+            gen.writeStartObject();
+            for (int i = 0; i < CELLS; i++) {
+                int mask = value.masks[i];
+                if (mask < 0) {
+                    continue;
+                }
+                gen.writeFieldName(keys[i]);
+                gen.writeStartArray();
+                for (int digit = 1; digit <= 9; digit++) {
+                    if ((mask & (1 << (digit - 1))) != 0) {
+                        gen.writeNumber(digit);
+                    }
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.ltp.sudomaster.util;
 
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.StaleObjectStateException;
-import jakarta.persistence.OptimisticLockException;
 
 @Slf4j
 public class CleanupUtil {
@@ -126,47 +124,4 @@ public class CleanupUtil {
             return false;
         }
     }
-
-    public static <T> T safeSaveWithRetry(
-            String operationName,
-            java.util.function.Supplier<T> saveOperation) {
-        return safeSaveWithRetry(operationName, saveOperation, DEFAULT_MAX_RETRIES);
-    }
-
-    public static <T> T safeSaveWithRetry(
-            String operationName,
-            java.util.function.Supplier<T> saveOperation,
-            int maxRetries) {
-        
-        log.debug("Attempting save: {}", operationName);
-        
-        try {
-            for (int attempt = 1; attempt <= maxRetries; attempt++) {
-                try {
-                    T result = saveOperation.get();
-                    log.debug("Save succeeded: {}", operationName);
-                    return result;
-                } catch (StaleObjectStateException | OptimisticLockException e) {
-                    log.warn("Optimistic lock conflict on attempt {}/{}: {}", 
-                            attempt, maxRetries, e.getMessage());
-                    if (attempt < maxRetries) {
-                        try {
-                            Thread.sleep(50L * attempt);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("Save operation interrupted", ie);
-                        }
-                    } else {
-                        throw new RuntimeException(
-                            "Failed to save " + operationName + " after " + maxRetries + " retries: " + e.getMessage(), e);
-                    }
-                }
-            }
-        } catch (RuntimeException e) {
-            log.error("Save failed: {} - {}", operationName, e.getMessage());
-            throw e;
-        }
-        
-        throw new RuntimeException("Failed to complete save operation: " + operationName);
-    }
 }
@@ -0,0 +1,261 @@
+package com.ltp.sudomaster.util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int FORMAT_VERSION = 1;
+
+    private char[] keys = new char[4];
+    private Object[] containers = new Object[4];
+    private int[] cardinalities = new int[4];
+    private int size;
+
+    public boolean add(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = indexOfKey(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new char[4]);
+        }
+
+        Object container = containers[index];
+        if (container instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= mask;
+            cardinalities[index]++;
+            return true;
+        }
+
+        char[] values = (char[]) container;
+        int cardinality = cardinalities[index];
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+
+        if (cardinality == ARRAY_MAX) {
+            long[] bits = toBitmap(values, cardinality);
+            bits[low >>> 6] |= 1L << low;
+            containers[index] = bits;
+            cardinalities[index]++;
+            return true;
+        }
+
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            containers[index] = values;
+        }
+        System.arraycopy(values, position, values, position + 1, cardinality - position);
+        values[position] = low;
+        cardinalities[index]++;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int index = indexOfKey((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        if (container instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[index], low) >= 0;
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long rank(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] < key) {
+                count += cardinalities[i];
+            } else if (keys[i] == key) {
+                count += rankInContainer(i, low);
+                break;
+            } else {
+                break;
+            }
+        }
+        return count;
+    }
+
+    public long countInRange(int from, int toExclusive) {
+        if (toExclusive <= from) {
+            return 0;
+        }
+        return rank(toExclusive) - rank(from);
+    }
+
+    public int selectAbsent(int from, int toExclusive, long k) {
+        long absent = (long) toExclusive - from - countInRange(from, toExclusive);
+        if (k < 0 || k >= absent) {
+            throw new IllegalArgumentException("Only " + absent + " absent values in range");
+        }
+
+        long fromRank = rank(from);
+        int lo = from;
+        int hi = toExclusive - 1;
+        while (lo < hi) {
+            int mid = (int) (((long) lo + hi) >>> 1);
+            long absentThroughMid = (long) mid - from + 1 - (rank(mid + 1) - fromRank);
+            if (absentThroughMid > k) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    public byte[] toBytes() {
+        int length = 2 * Integer.BYTES;
+        for (int i = 0; i < size; i++) {
+            length += 2 * Character.BYTES + (containers[i] instanceof long[]
+                    ? BITMAP_WORDS * Long.BYTES
+                    : cardinalities[i] * Character.BYTES);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putChar(keys[i]);
+            buffer.putChar((char) (cardinalities[i] - 1));
+            if (containers[i] instanceof long[] bits) {
+                for (long word : bits) {
+                    buffer.putLong(word);
+                }
+            } else {
+                char[] values = (char[]) containers[i];
+                for (int j = 0; j < cardinalities[i]; j++) {
+                    buffer.putChar(values[j]);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    public static CompressedBitmap fromBytes(byte[] bytes) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        if (bytes == null || bytes.length == 0) {
+            return bitmap;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported bitmap format version: " + version);
+            }
+            int count = buffer.getInt();
+            if (count < 0 || count > 65536) {
+                throw new IllegalArgumentException("Corrupt bitmap container count: " + count);
+            }
+            for (int i = 0; i < count; i++) {
+                char key = buffer.getChar();
+                int cardinality = buffer.getChar() + 1;
+                Object container;
+                if (cardinality > ARRAY_MAX) {
+                    long[] bits = new long[BITMAP_WORDS];
+                    for (int j = 0; j < BITMAP_WORDS; j++) {
+                        bits[j] = buffer.getLong();
+                    }
+                    container = bits;
+                } else {
+                    char[] values = new char[cardinality];
+                    for (int j = 0; j < cardinality; j++) {
+                        values[j] = buffer.getChar();
+                    }
+                    container = values;
+                }
+                if (i > 0 && key <= bitmap.keys[i - 1]) {
+                    throw new IllegalArgumentException("Bitmap container keys out of order");
+                }
+                bitmap.insertContainer(i, key, container);
+                bitmap.cardinalities[i] = cardinality;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated bitmap data", e);
+        }
+        return bitmap;
+    }
+
+    private long rankInContainer(int index, char low) {
+        Object container = containers[index];
+        if (container instanceof long[] bits) {
+            int word = low >>> 6;
+            long count = 0;
+            for (int i = 0; i < word; i++) {
+                count += Long.bitCount(bits[i]);
+            }
+            return count + Long.bitCount(bits[word] & ((1L << low) - 1));
+        }
+        int position = Arrays.binarySearch((char[]) container, 0, cardinalities[index], low);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private int indexOfKey(char key) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midKey = keys[mid];
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    private void insertContainer(int index, char key, Object container) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        cardinalities[index] = 0;
+        size++;
+    }
+
+    private static long[] toBitmap(char[] values, int cardinality) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+}
@@ -4,6 +4,7 @@ public class ErrorMessages {
 
     public static final String INVALID_DIFFICULTY = "Invalid difficulty level";
     public static final String FAILED_TO_GENERATE_PUZZLE = "Failed to generate puzzle";
+    public static final String GENERATION_BUSY = "Puzzle generator is busy - please retry shortly";
     public static final String INVALID_MOVE = "Invalid move - conflicts with existing number at this position";
     public static final String AUTHENTICATION_REQUIRED = "Authentication required";
     public static final String TOKEN_EXPIRED = "Token expired - please login again";
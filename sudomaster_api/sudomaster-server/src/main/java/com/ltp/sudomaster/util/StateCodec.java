@@ -0,0 +1,350 @@
+package com.ltp.sudomaster.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ltp.sudomaster.dto.GameResponse;
+import com.ltp.sudomaster.dto.MoveResponse;
+import com.ltp.sudomaster.dto.SavedGameResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary form of the game state responses: a version byte, a kind byte and a 16-bit presence
+// mask, then each present field in declaration order. Boards are nibble-packed (BoardCodec),
+// candidates use the 104-byte CandidateMasks layout, all numbers are big-endian.
+public final class StateCodec {
+
+    public static final String MEDIA_TYPE = "application/x-sudomaster-state";
+
+    public static final int FORMAT_VERSION = 1;
+    public static final int KIND_GAME = 1;
+    public static final int KIND_MOVE = 2;
+    public static final int KIND_SAVED = 3;
+
+    private static final int CANDIDATES_PACKED = 1;
+    private static final int CANDIDATES_JSON = 2;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StateCodec() {}
+
+    public static boolean supports(Class<?> type) {
+        return type == GameResponse.class || type == MoveResponse.class || type == SavedGameResponse.class;
+    }
+
+    public static byte[] encode(Object response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try {
+            Writer out = new Writer(new DataOutputStream(bytes));
+            if (response instanceof GameResponse game) {
+                out.header(KIND_GAME, game.getSessionId(), game.getPuzzleId(), game.getCluesString(), game.getBoardString(),
+                        game.getCandidates(), game.getDifficulty(), game.getStatus(), game.getCreatedAt(),
+                        game.getUpdatedAt(), game.getBoardVersion());
+                out.string(game.getSessionId());
+                out.int64(game.getPuzzleId());
+                out.board(game.getCluesString());
+                out.board(game.getBoardString());
+                out.candidates(game.getCandidates());
+                out.string(game.getDifficulty());
+                out.string(game.getStatus());
+                out.time(game.getCreatedAt());
+                out.time(game.getUpdatedAt());
+                out.int64(game.getBoardVersion());
+            } else if (response instanceof MoveResponse move) {
+                out.header(KIND_MOVE, move.getSessionId(), move.getBoardString(), move.getCandidates(), move.getValid(),
+                        move.getMessage(), move.getMoveId(), move.getCompletionStatus(), move.getMoveCount(),
+                        move.getBoardVersion(), move.getConflicts());
+                out.string(move.getSessionId());
+                out.board(move.getBoardString());
+                out.candidates(move.getCandidates());
+                out.bool(move.getValid());
+                out.string(move.getMessage());
+                out.int64(move.getMoveId());
+                out.string(move.getCompletionStatus());
+                out.int32(move.getMoveCount());
+                out.int64(move.getBoardVersion());
+                out.positions(move.getConflicts());
+            } else if (response instanceof SavedGameResponse saved) {
+                out.header(KIND_SAVED, saved.getSessionId(), saved.getCluesString(), saved.getBoardString(),
+                        saved.getCandidatesJson(), saved.getDifficulty(), saved.getStatus(), saved.getElapsedTimeSeconds(),
+                        saved.getErrorCount(), saved.getAutoCandidateModeUsed(), saved.getIsAutoCandidateMode(),
+                        saved.getColorProfile(), saved.getSettingsJson(), saved.getCreatedAt(), saved.getUpdatedAt());
+                out.string(saved.getSessionId());
+                out.board(saved.getCluesString());
+                out.board(saved.getBoardString());
+                out.candidates(saved.getCandidatesJson());
+                out.string(saved.getDifficulty());
+                out.string(saved.getStatus());
+                out.int32(saved.getElapsedTimeSeconds());
+                out.int32(saved.getErrorCount());
+                out.bool(saved.getAutoCandidateModeUsed());
+                out.bool(saved.getIsAutoCandidateMode());
+                out.string(saved.getColorProfile());
+                out.string(saved.getSettingsJson());
+                out.time(saved.getCreatedAt());
+                out.time(saved.getUpdatedAt());
+            } else {
+                throw new IllegalArgumentException("No binary form for " + response.getClass().getSimpleName());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        try {
+            DataInputStream stream = new DataInputStream(new ByteArrayInputStream(data));
+            int version = stream.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported state format version: " + version);
+            }
+            int kind = stream.readUnsignedByte();
+            Reader in = new Reader(stream, stream.readUnsignedShort());
+            return switch (kind) {
+                case KIND_GAME -> {
+                    GameResponse game = new GameResponse();
+                    game.setSessionId(in.string());
+                    game.setPuzzleId(in.int64());
+                    game.setCluesString(in.board());
+                    game.setBoardString(in.board());
+                    game.setCandidates(in.candidates());
+                    game.setDifficulty(in.string());
+                    game.setStatus(in.string());
+                    game.setCreatedAt(in.time());
+                    game.setUpdatedAt(in.time());
+                    game.setBoardVersion(in.int64());
+                    yield game;
+                }
+                case KIND_MOVE -> {
+                    MoveResponse move = new MoveResponse();
+                    move.setSessionId(in.string());
+                    move.setBoardString(in.board());
+                    move.setCandidates(in.candidates());
+                    move.setValid(in.bool());
+                    move.setMessage(in.string());
+                    move.setMoveId(in.int64());
+                    move.setCompletionStatus(in.string());
+                    move.setMoveCount(in.int32());
+                    move.setBoardVersion(in.int64());
+                    move.setConflicts(in.positions());
+                    yield move;
+                }
+                case KIND_SAVED -> {
+                    SavedGameResponse saved = new SavedGameResponse();
+                    saved.setSessionId(in.string());
+                    saved.setCluesString(in.board());
+                    saved.setBoardString(in.board());
+                    Object candidates = in.candidates();
+                    saved.setCandidatesJson(candidates instanceof CandidateMasks masks ? masks.toJson() : (String) candidates);
+                    saved.setDifficulty(in.string());
+                    saved.setStatus(in.string());
+                    saved.setElapsedTimeSeconds(in.int32());
+                    saved.setErrorCount(in.int32());
+                    saved.setAutoCandidateModeUsed(in.bool());
+                    saved.setIsAutoCandidateMode(in.bool());
+                    saved.setColorProfile(in.string());
+                    saved.setSettingsJson(in.string());
+                    saved.setCreatedAt(in.time());
+                    saved.setUpdatedAt(in.time());
+                    yield saved;
+                }
+                default -> throw new IllegalArgumentException("Unknown state kind: " + kind);
+            };
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated state data", e);
+        }
+    }
+
+    private static final class Writer {
+
+        private final DataOutputStream out;
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void header(int kind, Object... fields) throws IOException {
+            int present = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    present |= 1 << i;
+                }
+            }
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(kind);
+            out.writeShort(present);
+        }
+
+        void string(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > MAX_STRING_BYTES) {
+                throw new IllegalArgumentException("String field longer than " + MAX_STRING_BYTES + " bytes");
+            }
+            out.writeShort(utf8.length);
+            out.write(utf8);
+        }
+
+        void board(String value) throws IOException {
+            if (value != null) {
+                out.write(BoardCodec.pack(value));
+            }
+        }
+
+        void int64(Long value) throws IOException {
+            if (value != null) {
+                out.writeLong(value);
+            }
+        }
+
+        void int32(Integer value) throws IOException {
+            if (value != null) {
+                out.writeInt(value);
+            }
+        }
+
+        void bool(Boolean value) throws IOException {
+            if (value != null) {
+                out.writeBoolean(value);
+            }
+        }
+
+        void time(LocalDateTime value) throws IOException {
+            if (value != null) {
+                out.writeLong(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+        }
+
+        void positions(List<Integer> value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            out.writeByte(value.size());
+            for (int position : value) {
+                out.writeByte(position);
+            }
+        }
+
+        // Candidates arrive as CandidateMasks, as a map parsed from legacy JSON, or as JSON text.
+        // The packed masks are sent unless the JSON text is shorter or the masks cannot represent it.
+        void candidates(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            CandidateMasks masks;
+            String json;
+            if (value instanceof CandidateMasks packed) {
+                masks = packed;
+                json = packed.toJson();
+            } else {
+                try {
+                    json = value instanceof String text ? text : objectMapper.writeValueAsString(value);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Candidates are not serializable", e);
+                }
+                masks = CandidateMasks.parse(json);
+            }
+            if (masks != null && json.length() + 2 > CandidateMasks.PACKED_BYTES) {
+                out.writeByte(CANDIDATES_PACKED);
+                out.write(masks.toBytes());
+            } else {
+                out.writeByte(CANDIDATES_JSON);
+                string(json);
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final DataInputStream in;
+        private final int present;
+        private int field;
+
+        Reader(DataInputStream in, int present) {
+            this.in = in;
+            this.present = present;
+        }
+
+        private boolean next() {
+            return (present & (1 << field++)) != 0;
+        }
+
+        String string() throws IOException {
+            return next() ? readString() : null;
+        }
+
+        private String readString() throws IOException {
+            byte[] utf8 = new byte[in.readUnsignedShort()];
+            in.readFully(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        String board() throws IOException {
+            if (!next()) {
+                return null;
+            }
+            byte[] packed = new byte[BoardCodec.PACKED_BYTES];
+            in.readFully(packed);
+            return BoardCodec.unpack(packed, 0);
+        }
+
+        Long int64() throws IOException {
+            return next() ? in.readLong() : null;
+        }
+
+        Integer int32() throws IOException {
+            return next() ? in.readInt() : null;
+        }
+
+        Boolean bool() throws IOException {
+            return next() ? in.readBoolean() : null;
+        }
+
+        LocalDateTime time() throws IOException {
+            return next() ? LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC) : null;
+        }
+
+        List<Integer> positions() throws IOException {
+            if (!next()) {
+                return null;
+            }
+            int count = in.readUnsignedByte();
+            List<Integer> positions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                positions.add(in.readUnsignedByte());
+            }
+            return positions;
+        }
+
+        Object candidates() throws IOException {
+            if (!next()) {
+                return null;
+            }
+            int tag = in.readUnsignedByte();
+            if (tag == CANDIDATES_PACKED) {
+                byte[] packed = new byte[CandidateMasks.PACKED_BYTES];
+                in.readFully(packed);
+                return CandidateMasks.fromBytes(packed);
+            }
+            if (tag == CANDIDATES_JSON) {
+                String json = readString();
+                CandidateMasks masks = CandidateMasks.parse(json);
+                return masks != null ? masks : json;
+            }
+            throw new IllegalArgumentException("Unknown candidates encoding: " + tag);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ltp.sudomaster.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hierarchical timing wheel: level 0 has one slot per tick, each level above spans a full turn of
+// the one below, and slots cascade down as the wheel turns. Moving a deadline later only updates
+// the map; the key is re-slotted when its old slot comes round. Not thread-safe.
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<ArrayDeque<K>> slots;
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick, at least 2 slots and 1 level");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levels];
+        this.slots = new ArrayList<>(levels * wheelSize);
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            spans[level] = span;
+            span = Math.multiplyExact(span, wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new ArrayDeque<>());
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(K key, long deadlineMillis) {
+        Long previous = deadlines.put(key, deadlineMillis);
+        if (previous == null || deadlineMillis < previous) {
+            place(key, deadlineTick(deadlineMillis));
+        }
+    }
+
+    public boolean cancel(K key) {
+        return deadlines.remove(key) != null;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    // Turns the wheel up to nowMillis and returns the keys whose deadline has passed.
+    public List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    drain(slot(level, currentTick), expired);
+                }
+            }
+            drain(slot(0, currentTick), expired);
+        }
+        return expired;
+    }
+
+    private void drain(ArrayDeque<K> slot, List<K> expired) {
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            K key = slot.poll();
+            Long deadline = deadlines.get(key);
+            if (deadline == null) {
+                continue;
+            }
+            long tick = deadlineTick(deadline);
+            if (tick <= currentTick) {
+                deadlines.remove(key);
+                expired.add(key);
+            } else {
+                place(key, tick);
+            }
+        }
+    }
+
+    private void place(K key, long tick) {
+        long ticks = Math.max(1, tick - currentTick);
+        tick = currentTick + ticks;
+        int level = 0;
+        while (level < spans.length - 1 && ticks >= spans[level + 1]) {
+            level++;
+        }
+        // Past the top level the key waits in the farthest slot and is placed again from there.
+        if (level == spans.length - 1 && ticks >= spans[level] * wheelSize) {
+            tick = currentTick + spans[level] * (wheelSize - 1);
+        }
+        slot(level, tick).add(key);
+    }
+
+    private ArrayDeque<K> slot(int level, long tick) {
+        return slots.get(level * wheelSize + (int) ((tick / spans[level]) % wheelSize));
+    }
+
+    private long deadlineTick(long deadlineMillis) {
+        return Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    }
+}
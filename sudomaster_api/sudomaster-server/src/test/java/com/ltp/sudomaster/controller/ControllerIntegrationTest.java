@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ltp.sudomaster.dto.*;
 import com.ltp.sudomaster.entity.*;
 import com.ltp.sudomaster.repository.*;
+import com.ltp.sudomaster.util.StateCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +15,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -233,4 +241,130 @@ class ControllerIntegrationTest {
         mockMvc.perform(get("/api/games"))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("Game state is binary only when the client asks for it")
+    void testGameStateContentNegotiation() throws Exception {
+        SudokuGameSession session = sessionRepository.save(SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(testUser)
+                .puzzle(testPuzzle)
+                .boardString(testPuzzle.getCluesString())
+                .candidatesJson("{\"0-2\":[1,2,4]}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        String token = Base64.getEncoder().encodeToString(
+                (testUser.getId() + ":" + System.currentTimeMillis()).getBytes());
+
+        mockMvc.perform(get("/api/game/" + session.getSessionId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        byte[] body = mockMvc.perform(get("/api/game/" + session.getSessionId())
+                .header("Authorization", "Bearer " + token)
+                .accept(StateCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(StateCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        GameResponse decoded = (GameResponse) StateCodec.decode(body);
+        assertEquals(session.getSessionId(), decoded.getSessionId());
+        assertEquals(testPuzzle.getCluesString(), decoded.getBoardString());
+        assertEquals("{\"0-2\":[1,2,4]}", decoded.getCandidates().toString());
+    }
+
+    @Test
+    @DisplayName("A retried move with the same Idempotency-Key is replayed, not re-applied")
+    void testIdempotentMoveRetry() throws Exception {
+        SudokuGameSession session = sessionRepository.save(SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(testUser)
+                .puzzle(testPuzzle)
+                .boardString(testPuzzle.getCluesString())
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        String token = Base64.getEncoder().encodeToString(
+                (testUser.getId() + ":" + System.currentTimeMillis()).getBytes());
+        String key = UUID.randomUUID().toString();
+        String move = objectMapper.writeValueAsString(MoveRequest.builder().position(2).value(4).build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/game/" + session.getSessionId() + "/move")
+                    .header("Authorization", "Bearer " + token)
+                    .header("Idempotency-Key", key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(move))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.moveCount").value(1))
+                    .andExpect(attempt == 0
+                            ? header().doesNotExist("Idempotent-Replayed")
+                            : header().string("Idempotent-Replayed", "true"));
+        }
+        assertEquals(1, sessionRepository.findBySessionId(session.getSessionId()).orElseThrow().getMoveCount());
+
+        mockMvc.perform(post("/api/game/" + session.getSessionId() + "/move")
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(MoveRequest.builder().position(2).value(1).build())))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("Game and saved-game reads answer If-None-Match with 304 until the session changes")
+    void testConditionalGameReads() throws Exception {
+        SudokuGameSession session = sessionRepository.save(SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(testUser)
+                .puzzle(testPuzzle)
+                .boardString(testPuzzle.getCluesString())
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        String token = Base64.getEncoder().encodeToString(
+                (testUser.getId() + ":" + System.currentTimeMillis()).getBytes());
+        String gameUrl = "/api/game/" + session.getSessionId();
+
+        String etag = mockMvc.perform(get(gameUrl).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(gameUrl).header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get(gameUrl).header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag).accept(StateCodec.MEDIA_TYPE))
+                .andExpect(status().isOk());
+
+        String savedEtag = mockMvc.perform(get("/api/game/saved").param("difficulty", "EASY")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/game/saved").param("difficulty", "EASY")
+                .header("Authorization", "Bearer " + token).header("If-None-Match", savedEtag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post(gameUrl + "/move")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(MoveRequest.builder().position(2).value(4).build())))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get(gameUrl).header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.boardString").value(startsWith("534")))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+        mockMvc.perform(get("/api/game/saved").param("difficulty", "EASY")
+                .header("Authorization", "Bearer " + token).header("If-None-Match", savedEtag))
+                .andExpect(status().isOk());
+    }
 }
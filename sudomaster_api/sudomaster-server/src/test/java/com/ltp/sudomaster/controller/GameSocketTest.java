@@ -0,0 +1,143 @@
+package com.ltp.sudomaster.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:sockettest")
+@DisplayName("Game Socket Tests")
+@SuppressWarnings("null")
+class GameSocketTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<JsonNode> replies = new LinkedBlockingQueue<>();
+    private String token;
+    private String sessionId;
+
+    @BeforeEach
+    void setup() {
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("socketuser");
+        user.setEmail("socket@test.com");
+        user.setPasswordHash("hashedpassword");
+        user = userRepository.save(user);
+        token = Base64.getEncoder().encodeToString((user.getId() + ":" + System.currentTimeMillis()).getBytes());
+
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        puzzle.setDifficulty(Enums.Difficulty.EASY);
+        puzzle.setCluesString(CLUES);
+        puzzle.setSolutionString(SOLUTION);
+        puzzle = puzzleRepository.save(puzzle);
+
+        sessionId = sessionRepository.save(SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(user)
+                .puzzle(puzzle)
+                .boardString(CLUES)
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).getSessionId();
+    }
+
+    private WebSocketSession connect(String bearer) throws Exception {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        if (bearer != null) {
+            headers.add("Authorization", "Bearer " + bearer);
+        }
+        return new StandardWebSocketClient().execute(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(@NonNull WebSocketSession session, @NonNull TextMessage message) throws Exception {
+                replies.add(objectMapper.readTree(message.getPayload()));
+            }
+        }, headers, URI.create("ws://localhost:" + port + "/ws/game")).get(5, TimeUnit.SECONDS);
+    }
+
+    private JsonNode request(WebSocketSession socket, String frame) throws Exception {
+        socket.sendMessage(new TextMessage(frame));
+        JsonNode reply = replies.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reply, "No reply to " + frame);
+        return reply;
+    }
+
+    @Test
+    @DisplayName("Moves and saves are acknowledged over one authenticated connection")
+    void testMovesAndSavesAcknowledged() throws Exception {
+        WebSocketSession socket = connect(token);
+
+        JsonNode move = request(socket, "{\"id\":1,\"type\":\"move\",\"sessionId\":\"" + sessionId
+                + "\",\"body\":{\"position\":2,\"value\":4}}");
+        assertEquals(1, move.get("id").asInt());
+        assertEquals(200, move.get("status").asInt());
+        assertTrue(move.get("body").get("valid").asBoolean());
+        assertEquals(1, move.get("body").get("boardVersion").asLong());
+
+        JsonNode save = request(socket, "{\"id\":2,\"type\":\"save\",\"sessionId\":\"" + sessionId
+                + "\",\"body\":{\"elapsedTimeSeconds\":42,\"baseVersion\":0}}");
+        assertEquals(409, save.get("status").asInt());
+        assertEquals(1, save.get("body").get("boardVersion").asLong());
+
+        JsonNode invalid = request(socket, "{\"id\":3,\"type\":\"move\",\"sessionId\":\"" + sessionId
+                + "\",\"body\":{\"position\":81,\"value\":4}}");
+        assertEquals(400, invalid.get("status").asInt());
+
+        assertEquals('4', sessionRepository.findBySessionId(sessionId).orElseThrow().getBoardString().charAt(2));
+        socket.close();
+    }
+
+    @Test
+    @DisplayName("Handshake without a valid token is refused")
+    void testHandshakeRequiresToken() {
+        ExecutionException missing = assertThrows(ExecutionException.class, () -> connect(null));
+        assertNotNull(missing.getCause());
+        assertThrows(ExecutionException.class, () -> connect("not-a-token"));
+    }
+}
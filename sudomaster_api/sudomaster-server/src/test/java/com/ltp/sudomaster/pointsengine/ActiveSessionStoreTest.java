@@ -0,0 +1,574 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.GameResponse;
+import com.ltp.sudomaster.dto.MoveRequest;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "sudomaster.session-store.write-behind=true",
+        "sudomaster.session-store.flush-interval-ms=3600000",
+        "sudomaster.session-store.flush-threshold=5"
+})
+@DisplayName("Write-Behind Session Store Tests")
+@SuppressWarnings("null")
+class ActiveSessionStoreTest {
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private ActiveSessionStore activeSessionStore;
+
+    @Autowired
+    private MoveJournal moveJournal;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    private User testUser;
+    private SudokuPuzzle testPuzzle;
+
+    private static final String CLUES    = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+    private static final int[] EMPTY_POSITIONS = {2, 3, 5, 6, 7, 8};
+
+    @BeforeEach
+    void setup() {
+        gameScoreRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+
+        testUser = new User();
+        testUser.setUsername("storeuser");
+        testUser.setEmail("store@test.com");
+        testUser.setPasswordHash("hashedpassword");
+        testUser = userRepository.save(testUser);
+
+        testPuzzle = new SudokuPuzzle();
+        testPuzzle.setDifficulty(Enums.Difficulty.EASY);
+        testPuzzle.setCluesString(CLUES);
+        testPuzzle.setSolutionString(SOLUTION);
+        testPuzzle = puzzleRepository.save(testPuzzle);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                testUser.getId(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private SudokuGameSession createSession() {
+        return sessionRepository.save(SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(testUser)
+                .puzzle(testPuzzle)
+                .boardString(CLUES)
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void move(String sessionId, int position) {
+        move(sessionId, position, Character.getNumericValue(SOLUTION.charAt(position)));
+    }
+
+    private void move(String sessionId, int position, int value) {
+        MoveRequest request = new MoveRequest();
+        request.setPosition(position);
+        request.setValue(value);
+        gameEngine.makeMove(sessionId, request);
+    }
+
+    @Test
+    @DisplayName("Moves are applied in memory and coalesced into one write on flush")
+    void testMovesCoalesced() {
+        String sessionId = createSession().getSessionId();
+        long writesBefore = activeSessionStore.getFlushedWrites();
+
+        move(sessionId, 2);
+        move(sessionId, 3);
+        move(sessionId, 5);
+
+        assertEquals(CLUES, sessionRepository.findBySessionId(sessionId).orElseThrow().getBoardString());
+        GameResponse live = gameEngine.getGame(sessionId);
+        assertEquals('4', live.getBoardString().charAt(2));
+        assertEquals('6', live.getBoardString().charAt(3));
+
+        activeSessionStore.flush(sessionId);
+
+        SudokuGameSession stored = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertEquals(live.getBoardString(), stored.getBoardString());
+        assertEquals(3, stored.getMoveCount());
+        assertEquals(writesBefore + 1, activeSessionStore.getFlushedWrites());
+    }
+
+    @Test
+    @DisplayName("The version tag used for conditional reads covers buffered moves without a flush")
+    void testGameVersionTagCoversBufferedMoves() {
+        String sessionId = createSession().getSessionId();
+        String before = gameEngine.getGameVersionTag(sessionId);
+
+        move(sessionId, 2);
+        String afterMove = gameEngine.getGameVersionTag(sessionId);
+        assertNotEquals(before, afterMove);
+        assertTrue(gameEngine.hasPendingChanges(sessionId));
+        assertEquals(afterMove, gameEngine.getGameVersionTag(sessionId));
+
+        move(sessionId, 2, 0);
+        move(sessionId, 2);
+        assertNotEquals(afterMove, gameEngine.getGameVersionTag(sessionId));
+        assertTrue(gameEngine.hasPendingChanges(sessionId));
+
+        activeSessionStore.evict(sessionId, true);
+        String stored = gameEngine.getGameVersionTag(sessionId);
+        assertEquals(sessionId + "." + sessionRepository.findBySessionId(sessionId).orElseThrow().getVersion(), stored);
+        assertNotEquals(before, stored);
+    }
+
+    @Test
+    @DisplayName("Reaching the change threshold triggers an asynchronous flush")
+    void testThresholdFlush() throws Exception {
+        String sessionId = createSession().getSessionId();
+
+        for (int position : EMPTY_POSITIONS) {
+            move(sessionId, position);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && sessionRepository.findBySessionId(sessionId).orElseThrow().getMoveCount() < 5) {
+            Thread.sleep(20);
+        }
+        assertTrue(sessionRepository.findBySessionId(sessionId).orElseThrow().getMoveCount() >= 5);
+    }
+
+    @Test
+    @DisplayName("Abandoning discards in-memory state without resurrecting the row")
+    void testAbandonDiscards() {
+        String sessionId = createSession().getSessionId();
+        move(sessionId, 2);
+
+        gameEngine.abandonGame(sessionId);
+        activeSessionStore.flush(sessionId);
+
+        assertTrue(sessionRepository.findBySessionId(sessionId).isEmpty());
+        assertTrue(activeSessionStore.peek(sessionId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A rejected completion leaves buffered moves in the store")
+    void testRejectedCompletionKeepsSession() {
+        String sessionId = createSession().getSessionId();
+        move(sessionId, 2);
+
+        assertThrows(IllegalStateException.class, () -> gameEngine.completeGame(sessionId, 60, 0, false));
+
+        assertTrue(gameEngine.hasPendingChanges(sessionId));
+        assertEquals('4', activeSessionStore.peek(sessionId).orElseThrow().getBoardString().charAt(2));
+        assertEquals(CLUES, sessionRepository.findBySessionId(sessionId).orElseThrow().getBoardString());
+        assertEquals(Enums.GameStatus.IN_PROGRESS, sessionRepository.findBySessionId(sessionId).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Dirty sessions are flushed on eviction and on shutdown")
+    void testEvictionAndShutdownFlush() throws Exception {
+        ActiveSessionStore store = new ActiveSessionStore(sessionRepository, moveJournal, transactionTemplate, true, 1, 3600000, 100, 3600000, 0);
+        String first = createSession().getSessionId();
+        String second = createSession().getSessionId();
+
+        LiveSession live = store.find(first).orElseThrow();
+        live.lock();
+        try {
+            live.getSession().setBoardString(SOLUTION);
+            store.markDirty(live);
+        } finally {
+            live.unlock();
+        }
+        store.find(second).orElseThrow();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && !SOLUTION.equals(sessionRepository.findBySessionId(first).orElseThrow().getBoardString())) {
+            Thread.sleep(20);
+        }
+        assertEquals(SOLUTION, sessionRepository.findBySessionId(first).orElseThrow().getBoardString());
+
+        LiveSession secondLive = store.find(second).orElseThrow();
+        secondLive.lock();
+        try {
+            secondLive.getSession().setErrorCount(7);
+            store.markDirty(secondLive);
+        } finally {
+            secondLive.unlock();
+        }
+        store.shutdown();
+
+        assertEquals(7, sessionRepository.findBySessionId(second).orElseThrow().getErrorCount());
+    }
+
+    @Test
+    @DisplayName("Saves inside the window are coalesced into the latest state")
+    void testSavesCoalesced() {
+        ActiveSessionStore store = new ActiveSessionStore(sessionRepository, moveJournal, transactionTemplate, true, 100, 3600000, 1, 3600000, 3600000);
+        String sessionId = createSession().getSessionId();
+
+        LiveSession live = store.find(sessionId).orElseThrow();
+        for (int seconds = 1; seconds <= 5; seconds++) {
+            live.lock();
+            try {
+                live.getSession().setElapsedTimeSeconds(seconds);
+                store.markSaved(live);
+            } finally {
+                live.unlock();
+            }
+        }
+        store.flushSweep();
+
+        assertEquals(0, store.getFlushedWrites());
+        assertEquals(0, sessionRepository.findBySessionId(sessionId).orElseThrow().getElapsedTimeSeconds());
+
+        store.flush(sessionId);
+
+        assertEquals(1, store.getFlushedWrites());
+        assertEquals(5, sessionRepository.findBySessionId(sessionId).orElseThrow().getElapsedTimeSeconds());
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Write-through stores hold saves until the window closes or the session is evicted")
+    void testWriteThroughSavesDeferred() {
+        ActiveSessionStore store = new ActiveSessionStore(sessionRepository, moveJournal, transactionTemplate, false, 100, 3600000, 1, 3600000, 3600000);
+        String sessionId = createSession().getSessionId();
+
+        LiveSession live = store.find(sessionId).orElseThrow();
+        live.lock();
+        try {
+            live.getSession().setErrorCount(3);
+            store.markSaved(live);
+        } finally {
+            live.unlock();
+        }
+
+        assertSame(live, store.find(sessionId).orElseThrow());
+        assertEquals(3, store.peek(sessionId).orElseThrow().getErrorCount());
+        assertEquals(0, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+
+        store.evict(sessionId, true);
+
+        assertEquals(3, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+        assertNotSame(live, store.find(sessionId).orElseThrow());
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("A failed flush keeps the changes pending and the next flush writes them")
+    void testFlushFailureRetried() {
+        SudokuGameSessionRepository flaky = mock(SudokuGameSessionRepository.class);
+        when(flaky.findBySessionId(anyString()))
+                .thenAnswer(invocation -> sessionRepository.findBySessionId(invocation.getArgument(0)));
+        when(flaky.patch(any(), anyLong(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenAnswer(invocation -> sessionRepository.patch(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2)));
+        ActiveSessionStore store = new ActiveSessionStore(flaky, moveJournal, transactionTemplate, true, 100, 3600000, 100, 3600000, 0);
+        String sessionId = createSession().getSessionId();
+
+        LiveSession live = store.find(sessionId).orElseThrow();
+        live.lock();
+        try {
+            live.getSession().setErrorCount(4);
+            store.markDirty(live);
+        } finally {
+            live.unlock();
+        }
+        store.flush(sessionId);
+
+        assertEquals(0, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+        assertTrue(store.hasPendingChanges(sessionId));
+
+        store.flush(sessionId);
+
+        assertEquals(4, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+        assertFalse(store.hasPendingChanges(sessionId));
+        verify(flaky, times(2)).patch(any(), anyLong(), any());
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Moves are applied while a flush of the same session is writing")
+    void testMovesNotBlockedByFlush() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SudokuGameSessionRepository slow = mock(SudokuGameSessionRepository.class);
+        when(slow.findBySessionId(anyString()))
+                .thenAnswer(invocation -> sessionRepository.findBySessionId(invocation.getArgument(0)));
+        when(slow.patch(any(), anyLong(), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return sessionRepository.patch(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+        });
+        ActiveSessionStore store = new ActiveSessionStore(slow, moveJournal, transactionTemplate, true, 100, 3600000, 100, 3600000, 0);
+        String sessionId = createSession().getSessionId();
+        LiveSession live = store.find(sessionId).orElseThrow();
+        live.lock();
+        try {
+            live.getSession().setErrorCount(1);
+            store.markDirty(live);
+        } finally {
+            live.unlock();
+        }
+
+        ExecutorService pool = daemonPool(2);
+        try {
+            Future<?> flush = pool.submit(() -> store.flush(sessionId));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            pool.submit(() -> {
+                live.lock();
+                try {
+                    live.getSession().setErrorCount(2);
+                    store.markDirty(live);
+                } finally {
+                    live.unlock();
+                }
+            }).get(5, TimeUnit.SECONDS);
+            release.countDown();
+            flush.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+        store.flush(sessionId);
+        assertEquals(2, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Flushing under the session lock never deadlocks with a concurrent flush of the same session")
+    void testLockOrderUnderConcurrentFlush() throws Exception {
+        ActiveSessionStore store = new ActiveSessionStore(sessionRepository, moveJournal, transactionTemplate, false, 100, 3600000, 1, 3600000, 3600000);
+        String sessionId = createSession().getSessionId();
+        LiveSession live = store.find(sessionId).orElseThrow();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = daemonPool(2);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                try {
+                    for (int errors = 1; errors <= 500; errors++) {
+                        live.lock();
+                        try {
+                            live.getSession().setErrorCount(errors);
+                            if (errors % 2 == 0) {
+                                store.markDirty(live);
+                            } else {
+                                store.markSaved(live);
+                            }
+                        } finally {
+                            live.unlock();
+                        }
+                    }
+                } finally {
+                    done.set(true);
+                }
+            });
+            Future<?> flusher = pool.submit(() -> {
+                while (!done.get()) {
+                    store.flush(sessionId);
+                }
+            });
+
+            writer.get(30, TimeUnit.SECONDS);
+            flusher.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(500, sessionRepository.findBySessionId(sessionId).orElseThrow().getErrorCount());
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Moves, undos and journal reads racing flushes on one session neither deadlock nor lose state")
+    void testConcurrentMovesAndFlushes() throws Exception {
+        String sessionId = createSession().getSessionId();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = daemonPool(3);
+        try {
+            Future<?> mover = pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                try {
+                    for (int round = 0; round < 40; round++) {
+                        for (int position : EMPTY_POSITIONS) {
+                            move(sessionId, position, round % 2 == 0 ? SOLUTION.charAt(position) - '0' : 0);
+                        }
+                        gameEngine.undoMove(sessionId);
+                    }
+                } finally {
+                    done.set(true);
+                }
+            });
+            Future<?> reader = pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                while (!done.get()) {
+                    gameEngine.getJournal(sessionId);
+                }
+            });
+            Future<?> flusher = pool.submit(() -> {
+                while (!done.get()) {
+                    activeSessionStore.flush(sessionId);
+                    activeSessionStore.flushSweep();
+                }
+            });
+
+            mover.get(60, TimeUnit.SECONDS);
+            reader.get(10, TimeUnit.SECONDS);
+            flusher.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        activeSessionStore.flush(sessionId);
+        GameResponse live = gameEngine.getGame(sessionId);
+        SudokuGameSession stored = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertEquals(live.getBoardString(), stored.getBoardString());
+        assertEquals(live.getBoardVersion(), stored.getBoardVersion());
+    }
+
+    // Daemon threads, so a deadlock fails the test on its timeout instead of hanging the JVM.
+    private static ExecutorService daemonPool(int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Test
+    @DisplayName("Two write-through moves based on the same board version conflict instead of losing one")
+    void testWriteThroughBoardCompareAndSet() {
+        ActiveSessionStore store = new ActiveSessionStore(sessionRepository, moveJournal, transactionTemplate, false, 100, 3600000, 1, 3600000, 0);
+        String sessionId = createSession().getSessionId();
+        LiveSession first = store.find(sessionId).orElseThrow();
+        LiveSession second = store.find(sessionId).orElseThrow();
+        assertNotSame(first, second);
+
+        first.lock();
+        try {
+            first.board().set(2, 4);
+            first.boardChanged();
+            first.getSession().setBoardVersion(1L);
+            store.markDirty(first, EnumSet.of(SudokuGameSession.FieldGroup.BOARD));
+        } finally {
+            first.unlock();
+        }
+        second.lock();
+        try {
+            second.board().set(3, 6);
+            second.boardChanged();
+            second.getSession().setBoardVersion(1L);
+            assertThrows(ObjectOptimisticLockingFailureException.class,
+                    () -> store.markDirty(second, EnumSet.of(SudokuGameSession.FieldGroup.BOARD)));
+        } finally {
+            second.unlock();
+        }
+
+        SudokuGameSession stored = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertEquals('4', stored.getBoardString().charAt(2));
+        assertEquals('0', stored.getBoardString().charAt(3));
+        assertEquals(1L, stored.getBoardVersion());
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Patches write only their column groups and merge deterministically")
+    void testPatchMerge() {
+        String sessionId = createSession().getSessionId();
+        SudokuGameSession base = sessionRepository.findBySessionId(sessionId).orElseThrow();
+
+        SudokuGameSession timer = base.toBuilder().elapsedTimeSeconds(120).errorCount(2).build();
+        SudokuGameSession board = base.toBuilder().boardString(SOLUTION).boardVersion(3L).moveCount(3)
+                .elapsedTimeSeconds(60).errorCount(1).colorProfile("blue").build();
+        SudokuGameSession staleBoard = base.toBuilder().boardString(CLUES).boardVersion(1L).elapsedTimeSeconds(900).build();
+
+        assertTrue(sessionRepository.patch(timer, 0L, EnumSet.of(SudokuGameSession.FieldGroup.TIMER)));
+        assertTrue(sessionRepository.patch(board, 0L,
+                EnumSet.of(SudokuGameSession.FieldGroup.BOARD, SudokuGameSession.FieldGroup.TIMER)));
+        assertFalse(sessionRepository.patch(staleBoard, 0L,
+                EnumSet.of(SudokuGameSession.FieldGroup.BOARD, SudokuGameSession.FieldGroup.TIMER)));
+
+        SudokuGameSession stored = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertEquals(SOLUTION, stored.getBoardString());
+        assertEquals(3L, stored.getBoardVersion());
+        assertEquals(3, stored.getMoveCount());
+        assertEquals(120, stored.getElapsedTimeSeconds());
+        assertEquals(1, stored.getErrorCount());
+        assertEquals("orange", stored.getColorProfile());
+        assertEquals(base.getVersion() + 3, stored.getVersion());
+
+        SudokuGameSession corrected = base.toBuilder().elapsedTimeSeconds(30).errorCount(0).build();
+        assertTrue(sessionRepository.patch(corrected, 3L, EnumSet.of(SudokuGameSession.FieldGroup.TIMER)));
+        stored = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertEquals(120, stored.getElapsedTimeSeconds());
+        assertEquals(0, stored.getErrorCount());
+
+        SudokuGameSession blank = base.toBuilder().elapsedTimeSeconds(null).errorCount(null).build();
+        assertTrue(sessionRepository.patch(blank, 3L, EnumSet.of(SudokuGameSession.FieldGroup.TIMER)));
+        stored = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertEquals(120, stored.getElapsedTimeSeconds());
+        assertEquals(0, stored.getErrorCount());
+    }
+}
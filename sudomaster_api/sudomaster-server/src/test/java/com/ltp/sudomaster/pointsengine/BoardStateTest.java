@@ -0,0 +1,87 @@
+package com.ltp.sudomaster.pointsengine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Board State Tests")
+class BoardStateTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+
+    @Test
+    @DisplayName("Conflicts list every cell sharing a digit with a peer")
+    void testConflictingCells() {
+        BoardState board = BoardState.parse(CLUES);
+        assertFalse(board.hasAnyConflict());
+
+        assertEquals(0, board.set(2, 5));
+        assertTrue(board.hasConflict(2));
+        assertTrue(board.hasConflict(0));
+        assertEquals(List.of(0, 2), board.conflictingCells());
+
+        board.set(47, 5);
+        assertEquals(List.of(0, 2, 47), board.conflictingCells());
+
+        board.set(2, 4);
+        assertEquals(List.of(), board.conflictingCells());
+        assertFalse(board.hasConflict(47));
+        assertEquals(CLUES.substring(0, 2) + "4" + CLUES.substring(3, 47) + "5" + CLUES.substring(48), board.toBoardString());
+    }
+
+    @Test
+    @DisplayName("Incremental counters agree with a full rescan after random edits")
+    void testMatchesRescan() {
+        Random random = new Random(7);
+        BoardState board = BoardState.parse(CLUES);
+        char[] reference = CLUES.toCharArray();
+
+        for (int step = 0; step < 5000; step++) {
+            int position = random.nextInt(81);
+            int value = random.nextInt(10);
+            board.set(position, value);
+            reference[position] = (char) ('0' + value);
+            if (step % 50 == 0) {
+                assertEquals(rescan(new String(reference)), board.conflictingCells());
+            }
+        }
+        assertEquals(new String(reference), board.toBoardString());
+    }
+
+    @Test
+    @DisplayName("Completion needs every cell filled and matching the solution")
+    void testFilledAndMatches() {
+        BoardState board = BoardState.parse("0" + SOLUTION.substring(1));
+        assertFalse(board.isFilled());
+        board.set(0, 5);
+        assertTrue(board.isFilled());
+        assertTrue(board.matches(SOLUTION));
+        board.set(1, 4);
+        assertFalse(board.matches(SOLUTION));
+    }
+
+    private static List<Integer> rescan(String board) {
+        List<Integer> conflicts = new ArrayList<>();
+        for (int i = 0; i < 81; i++) {
+            char value = board.charAt(i);
+            if (value == '0') {
+                continue;
+            }
+            for (int j = 0; j < 81; j++) {
+                boolean peer = i / 9 == j / 9 || i % 9 == j % 9
+                        || (i / 27 == j / 27 && (i % 9) / 3 == (j % 9) / 3);
+                if (i != j && peer && board.charAt(j) == value) {
+                    conflicts.add(i);
+                    break;
+                }
+            }
+        }
+        return conflicts;
+    }
+}
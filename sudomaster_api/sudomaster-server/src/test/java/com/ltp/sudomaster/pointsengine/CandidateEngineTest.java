@@ -0,0 +1,88 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.util.CandidateMasks;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Candidate Engine Tests")
+class CandidateEngineTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+
+    @Test
+    @DisplayName("Auto mode keeps every mask equal to a full rescan and reports exactly the changed cells")
+    void testAutoMatchesRescan() {
+        Random random = new Random(11);
+        BoardState board = BoardState.parse(CLUES);
+        CandidateEngine engine = CandidateEngine.of(board, CandidateMasks.blank());
+        engine.fill();
+
+        for (int step = 0; step < 3000; step++) {
+            int position = random.nextInt(81);
+            int value = random.nextInt(10);
+            int[] before = masksOf(engine);
+            List<Integer> changed = engine.place(position, value, true);
+            board.set(position, value);
+
+            int[] after = masksOf(engine);
+            for (int cell = 0; cell < 81; cell++) {
+                assertEquals(before[cell] != after[cell], changed.contains(cell), "cell " + cell);
+            }
+            if (step % 50 == 0) {
+                String text = board.toBoardString();
+                for (int cell = 0; cell < 81; cell++) {
+                    assertEquals(rescan(text, cell), engine.maskAt(cell), "cell " + cell);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Manual notes lose a placed digit in every peer and nothing else")
+    void testManualPeerElimination() {
+        CandidateMasks notes = CandidateMasks.parse("{\"2\":[1,2,4],\"18\":[4,6],\"74\":[4],\"3\":[2,9]}");
+        CandidateEngine engine = CandidateEngine.of(BoardState.parse(CLUES), notes);
+
+        assertEquals(List.of(2, 18, 74), engine.place(11, 4, false));
+        assertEquals(0b11, engine.maskAt(2));
+        assertEquals(1 << 5, engine.maskAt(18));
+        assertTrue(engine.isPresent(74));
+        assertEquals(0, engine.maskAt(74));
+        assertEquals((1 << 1) | (1 << 8), engine.maskAt(3));
+        assertFalse(engine.isPresent(11));
+
+        assertEquals(List.of(), engine.place(11, 0, false));
+        assertEquals(notes.usesRowColKeys(), engine.toMasks().usesRowColKeys());
+    }
+
+    private static int[] masksOf(CandidateEngine engine) {
+        int[] masks = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            masks[cell] = engine.maskAt(cell);
+        }
+        return masks;
+    }
+
+    private static int rescan(String board, int cell) {
+        if (board.charAt(cell) != '0') {
+            return 0;
+        }
+        int row = cell / 9;
+        int col = cell % 9;
+        int mask = 0x1FF;
+        for (int other = 0; other < 81; other++) {
+            int r = other / 9;
+            int c = other % 9;
+            int digit = board.charAt(other) - '0';
+            if (digit != 0 && (r == row || c == col || (r / 3 == row / 3 && c / 3 == col / 3))) {
+                mask &= ~(1 << (digit - 1));
+            }
+        }
+        return mask;
+    }
+}
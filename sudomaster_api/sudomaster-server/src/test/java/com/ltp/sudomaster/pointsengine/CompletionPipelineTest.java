@@ -0,0 +1,166 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.CompletionResponse;
+import com.ltp.sudomaster.dto.GameCompleteResponse;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Completion Pipeline Tests")
+@SuppressWarnings("null")
+class CompletionPipelineTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private CompletionPipeline completionPipeline;
+
+    @Autowired
+    private CompletionTaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    @Autowired
+    private ScoringEngine scoringEngine;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        gameScoreRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+
+        user = new User();
+        user.setUsername("completionuser");
+        user.setEmail("completion@test.com");
+        user.setPasswordHash("hashedpassword");
+        user = userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getId(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private SudokuGameSession solvedSession() {
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        puzzle.setDifficulty(Enums.Difficulty.HARD);
+        puzzle.setCluesString(CLUES);
+        puzzle.setSolutionString(SOLUTION);
+        puzzle = puzzleRepository.save(puzzle);
+
+        return sessionRepository.save(SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(user)
+                .puzzle(puzzle)
+                .boardString(SOLUTION)
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Completion ranks and cleans up once, and a repeat completion is rejected")
+    void testCompletionIsIdempotent() {
+        SudokuGameSession session = solvedSession();
+        Long puzzleId = session.getPuzzle().getId();
+
+        GameCompleteResponse response = gameEngine.completeGame(session.getSessionId(), 300, 0, false);
+        assertNull(response.getRank());
+
+        CompletionResponse completion = gameEngine.getCompletion(session.getSessionId());
+        assertEquals("DONE", completion.getState());
+        assertEquals(1, completion.getRank());
+        assertEquals(response.getScore(), completion.getBestScore());
+        assertTrue(sessionRepository.findBySessionId(session.getSessionId()).isEmpty());
+        assertFalse(puzzleRepository.existsById(puzzleId));
+
+        assertFalse(completionPipeline.process(session.getSessionId()));
+        assertEquals(1, taskRepository.findById(session.getSessionId()).orElseThrow().getAttempts());
+        assertThrows(RuntimeException.class,
+                () -> gameEngine.completeGame(session.getSessionId(), 300, 0, false));
+        assertEquals(1, gameScoreRepository.count());
+    }
+
+    @Test
+    @DisplayName("Equal scores rank by completion time, as on the leaderboard")
+    void testTiedScoresRankByCompletionTime() {
+        int score = scoringEngine.calculateScore(Enums.Difficulty.HARD, 300, 0, false);
+        rivalScore("earlier", score, LocalDateTime.now().minusHours(1));
+        rivalScore("later", score, LocalDateTime.now().plusHours(1));
+        rivalScore("higher", score + 1, LocalDateTime.now().plusHours(1));
+
+        SudokuGameSession session = solvedSession();
+        gameEngine.completeGame(session.getSessionId(), 300, 0, false);
+
+        assertEquals(3, gameEngine.getCompletion(session.getSessionId()).getRank());
+    }
+
+    private void rivalScore(String name, int score, LocalDateTime completedAt) {
+        User rival = new User();
+        rival.setUsername(name);
+        rival.setEmail(name + "@test.com");
+        rival.setPasswordHash("hashedpassword");
+        rival = userRepository.save(rival);
+        gameScoreRepository.save(GameScore.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(rival)
+                .difficulty(Enums.Difficulty.HARD)
+                .elapsedTimeSeconds(300)
+                .score(score)
+                .completedAt(completedAt)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Tasks left pending by a crash are picked up by the sweep")
+    void testSweepResumesPendingTasks() {
+        SudokuGameSession session = solvedSession();
+        taskRepository.save(CompletionTask.builder()
+                .sessionId(session.getSessionId())
+                .userId(user.getId())
+                .puzzleId(session.getPuzzle().getId())
+                .difficulty(Enums.Difficulty.HARD)
+                .bestScore(500)
+                .build());
+
+        completionPipeline.sweep();
+
+        CompletionTask task = taskRepository.findById(session.getSessionId()).orElseThrow();
+        assertEquals(Enums.CompletionState.DONE, task.getState());
+        assertEquals(1, task.getRank());
+        assertTrue(sessionRepository.findBySessionId(session.getSessionId()).isEmpty());
+    }
+}
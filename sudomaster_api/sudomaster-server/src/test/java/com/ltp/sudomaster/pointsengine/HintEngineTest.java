@@ -0,0 +1,149 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.HintResponse;
+import com.ltp.sudomaster.dto.MoveRequest;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.repository.*;
+import com.ltp.sudomaster.util.CandidateMasks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Hint Engine Tests")
+@SuppressWarnings("null")
+class HintEngineTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+    private static final String INSANE_CLUES = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    private static final String INSANE_SOLUTION = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private HintEngine hintEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    private String sessionId;
+
+    @BeforeEach
+    void setup() {
+        gameScoreRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("hintuser");
+        user.setEmail("hint@test.com");
+        user.setPasswordHash("hashedpassword");
+        user = userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getId(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        puzzle.setDifficulty(Enums.Difficulty.EASY);
+        puzzle.setCluesString(CLUES);
+        puzzle.setSolutionString(SOLUTION);
+        puzzle = puzzleRepository.save(puzzle);
+
+        SudokuGameSession session = SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(user)
+                .puzzle(puzzle)
+                .boardString(CLUES)
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        sessionId = sessionRepository.save(session).getSessionId();
+    }
+
+    private void move(int position, int value) {
+        MoveRequest request = new MoveRequest();
+        request.setPosition(position);
+        request.setValue(value);
+        gameEngine.makeMove(sessionId, request);
+    }
+
+    @Test
+    @DisplayName("A hint places a correct digit and is reused until the board changes")
+    void testPlacementIsCachedPerVersion() {
+        HintResponse hint = gameEngine.getHint(sessionId);
+
+        assertTrue(List.of("SINGLE_CANDIDATE", "SINGLE_POSITION").contains(hint.getTechnique()), hint.getTechnique());
+        assertEquals(SOLUTION.charAt(hint.getPosition()) - '0', hint.getValue());
+        assertEquals(List.of(hint.getPosition()), hint.getCells());
+        assertSame(hint, gameEngine.getHint(sessionId));
+
+        move(hint.getPosition(), hint.getValue());
+        HintResponse next = gameEngine.getHint(sessionId);
+        assertNotSame(hint, next);
+        assertNotEquals(hint.getPosition(), next.getPosition());
+        assertTrue(next.getBoardVersion() > hint.getBoardVersion());
+    }
+
+    @Test
+    @DisplayName("Wrong digits are pointed out before any technique")
+    void testWrongCells() {
+        move(2, 1);
+
+        HintResponse hint = gameEngine.getHint(sessionId);
+
+        assertEquals(List.of(2), hint.getWrongCells());
+        assertNull(hint.getTechnique());
+        assertNotNull(hint.getMessage());
+    }
+
+    @Test
+    @DisplayName("An uncached hint for an insane position stays well under 10 ms")
+    void testInsaneHintLatency() {
+        SudokuPuzzle entity = new SudokuPuzzle();
+        entity.setDifficulty(Enums.Difficulty.INSANE);
+        entity.setCluesString(INSANE_CLUES);
+        entity.setSolutionString(INSANE_SOLUTION);
+        PuzzleData puzzle = PuzzleData.of(entity);
+        BoardState board = BoardState.parse(INSANE_CLUES);
+        CandidateEngine candidates = CandidateEngine.of(board, CandidateMasks.blank());
+
+        for (int version = 0; version < 50; version++) {
+            hintEngine.hintFor("insane-warmup", version, board, candidates, puzzle);
+        }
+        long started = System.nanoTime();
+        HintResponse hint = null;
+        for (int version = 0; version < 20; version++) {
+            hint = hintEngine.hintFor("insane", version, board, candidates, puzzle);
+        }
+        long averageMicros = (System.nanoTime() - started) / 20 / 1000;
+
+        assertEquals(puzzle.solutionAt(hint.getPosition()), hint.getValue());
+        assertTrue(averageMicros < 10_000, "average " + averageMicros + " us");
+    }
+}
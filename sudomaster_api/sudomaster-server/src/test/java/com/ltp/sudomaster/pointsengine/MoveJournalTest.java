@@ -0,0 +1,203 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.MoveJournalResponse;
+import com.ltp.sudomaster.dto.MoveRequest;
+import com.ltp.sudomaster.dto.MoveResponse;
+import com.ltp.sudomaster.dto.SaveGameRequest;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Move Journal Tests")
+@SuppressWarnings("null")
+class MoveJournalTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private MoveJournal moveJournal;
+
+    @Autowired
+    private MoveJournalChunkRepository chunkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    private String sessionId;
+
+    @BeforeEach
+    void setup() {
+        chunkRepository.deleteAll();
+        gameScoreRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("journaluser");
+        user.setEmail("journal@test.com");
+        user.setPasswordHash("hashedpassword");
+        user = userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getId(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        SudokuPuzzle puzzle = new SudokuPuzzle();
+        puzzle.setDifficulty(Enums.Difficulty.EASY);
+        puzzle.setCluesString(CLUES);
+        puzzle.setSolutionString(SOLUTION);
+        puzzle = puzzleRepository.save(puzzle);
+
+        SudokuGameSession session = SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(user)
+                .puzzle(puzzle)
+                .boardString(CLUES)
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        sessionId = sessionRepository.save(session).getSessionId();
+    }
+
+    private MoveResponse move(int position, int value) {
+        MoveRequest request = new MoveRequest();
+        request.setPosition(position);
+        request.setValue(value);
+        return gameEngine.makeMove(sessionId, request);
+    }
+
+    private static String replay(MoveJournalResponse journal) {
+        char[] board = journal.getBaseBoard().toCharArray();
+        for (MoveJournalResponse.Entry entry : journal.getEntries()) {
+            board[entry.getPosition()] = (char) ('0' + entry.getNewValue());
+        }
+        return new String(board);
+    }
+
+    @Test
+    @DisplayName("Moves are journaled as fixed-width records and replay to the current board")
+    void testJournalReplay() {
+        move(2, 4);
+        move(3, 6);
+        move(2, 1);
+        MoveResponse last = move(5, 8);
+
+        MoveJournalResponse journal = gameEngine.getJournal(sessionId);
+
+        assertEquals(CLUES, journal.getBaseBoard());
+        assertEquals(4, journal.getEntries().size());
+        MoveJournalResponse.Entry third = journal.getEntries().get(2);
+        assertEquals(2, third.getSequence());
+        assertEquals(2, third.getPosition());
+        assertEquals(4, third.getOldValue());
+        assertEquals(1, third.getNewValue());
+        assertEquals("MOVE", third.getKind());
+        assertTrue(journal.getEntries().get(3).getAtMillis() >= journal.getEntries().get(0).getAtMillis());
+        assertEquals(last.getBoardString(), replay(journal));
+
+        MoveJournalChunk chunk = chunkRepository.findBySessionIdOrderByFirstSequenceAscRecordCountAsc(sessionId).get(0);
+        assertEquals(JournalEntry.RECORD_BYTES, chunk.getRecords().length);
+        assertEquals(4, sessionRepository.findBySessionId(sessionId).orElseThrow().getJournalSequence());
+    }
+
+    @Test
+    @DisplayName("Undo walks back moves in order and stops at a save")
+    void testUndo() {
+        move(2, 4);
+        move(3, 6);
+        move(3, 7);
+
+        MoveResponse undone = gameEngine.undoMove(sessionId);
+        assertEquals("Move undone", undone.getMessage());
+        assertEquals('6', undone.getBoardString().charAt(3));
+
+        undone = gameEngine.undoMove(sessionId);
+        assertEquals('0', undone.getBoardString().charAt(3));
+        assertEquals('4', undone.getBoardString().charAt(2));
+        assertEquals(undone.getBoardString(), sessionRepository.findBySessionId(sessionId).orElseThrow().getBoardString());
+
+        SaveGameRequest save = new SaveGameRequest();
+        save.setBoardString("53" + "0" + "9" + CLUES.substring(4));
+        gameEngine.saveGameState(sessionId, save);
+
+        MoveResponse nothing = gameEngine.undoMove(sessionId);
+        assertFalse(nothing.getValid());
+        assertEquals("Nothing to undo", nothing.getMessage());
+        assertEquals(save.getBoardString(), replay(gameEngine.getJournal(sessionId)));
+    }
+
+    @Test
+    @DisplayName("Compaction folds old chunks into a snapshot without changing the replay")
+    void testCompaction() {
+        int[][] moves = {{2, 4}, {3, 6}, {5, 8}, {6, 9}, {7, 1}, {8, 2}, {2, 1}};
+        MoveResponse last = null;
+        for (int[] m : moves) {
+            last = move(m[0], m[1]);
+        }
+        assertEquals(moves.length, chunkRepository.findBySessionIdOrderByFirstSequenceAscRecordCountAsc(sessionId).size());
+
+        assertEquals(moves.length - 4, moveJournal.compact(sessionId));
+
+        List<MoveJournalChunk> chunks = chunkRepository.findBySessionIdOrderByFirstSequenceAscRecordCountAsc(sessionId);
+        assertEquals(5, chunks.size());
+        assertNotNull(chunks.get(0).getSnapshotBoard());
+        assertEquals(0, chunks.get(0).getFirstSequence());
+        assertEquals(3, chunks.get(0).getRecordCount());
+
+        MoveJournalResponse journal = gameEngine.getJournal(sessionId);
+        assertEquals(3, journal.getBaseSequence());
+        assertEquals(4, journal.getEntries().size());
+        assertEquals(last.getBoardString(), replay(journal));
+
+        last = move(18, 2);
+        assertEquals(7, gameEngine.getJournal(sessionId).getEntries().get(4).getSequence());
+
+        assertEquals(2, moveJournal.compact(sessionId));
+        journal = gameEngine.getJournal(sessionId);
+        assertEquals(4, journal.getBaseSequence());
+        assertEquals(last.getBoardString(), replay(journal));
+    }
+
+    @Test
+    @DisplayName("Journal records round-trip through their packed form")
+    void testRecordCodec() {
+        byte[] buffer = new byte[JournalEntry.RECORD_BYTES * 2];
+        JournalEntry first = new JournalEntry(80, 9, 0, JournalEntry.Kind.UNDO, 1234);
+        JournalEntry second = new JournalEntry(0, 0, 5, JournalEntry.Kind.SAVE, JournalEntry.MAX_DELTA_MILLIS);
+        first.writeTo(buffer, 0);
+        second.writeTo(buffer, JournalEntry.RECORD_BYTES);
+
+        assertEquals(first, JournalEntry.readFrom(buffer, 0));
+        assertEquals(second, JournalEntry.readFrom(buffer, JournalEntry.RECORD_BYTES));
+    }
+}
@@ -0,0 +1,136 @@
+package com.ltp.sudomaster.pointsengine;
+
+import com.ltp.sudomaster.dto.CheckAnswerRequest;
+import com.ltp.sudomaster.dto.GameResponse;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Puzzle Cache Tests")
+@SuppressWarnings("null")
+class PuzzleCacheTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private PuzzleCache puzzleCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    @Autowired
+    private MoveJournalChunkRepository chunkRepository;
+
+    private SudokuPuzzle puzzle;
+    private String sessionId;
+
+    @BeforeEach
+    void setup() {
+        chunkRepository.deleteAll();
+        gameScoreRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("cacheuser");
+        user.setEmail("cache@test.com");
+        user.setPasswordHash("hashedpassword");
+        user = userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getId(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        puzzle = new SudokuPuzzle();
+        puzzle.setDifficulty(Enums.Difficulty.MEDIUM);
+        puzzle.setCluesString(CLUES);
+        puzzle.setSolutionString(SOLUTION);
+        puzzle = puzzleRepository.save(puzzle);
+
+        SudokuGameSession session = SudokuGameSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .user(user)
+                .puzzle(puzzle)
+                .boardString(CLUES)
+                .candidatesJson("{}")
+                .status(Enums.GameStatus.IN_PROGRESS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        sessionId = sessionRepository.save(session).getSessionId();
+    }
+
+    @Test
+    @DisplayName("Session reads leave the puzzle unloaded and repeat lookups hit the cache")
+    void testCacheHit() {
+        SudokuGameSession loaded = sessionRepository.findBySessionId(sessionId).orElseThrow();
+        assertFalse(Hibernate.isInitialized(loaded.getPuzzle()));
+        assertEquals(puzzle.getId(), loaded.getPuzzle().getId());
+
+        puzzleCache.evict(puzzle.getId());
+        double hitsBefore = meterRegistry.get("sudomaster.puzzle.cache.requests").tag("result", "hit").functionCounter().count();
+
+        GameResponse first = gameEngine.getGame(sessionId);
+        GameResponse second = gameEngine.getGame(sessionId);
+
+        assertEquals(CLUES, first.getCluesString());
+        assertEquals("MEDIUM", second.getDifficulty());
+        assertEquals(hitsBefore + 1,
+                meterRegistry.get("sudomaster.puzzle.cache.requests").tag("result", "hit").functionCounter().count());
+        assertTrue(meterRegistry.get("sudomaster.puzzle.cache.size").gauge().value() >= 1);
+        assertTrue(meterRegistry.get("sudomaster.puzzle.cache.hit.ratio").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Cached clues and solutions answer cell checks")
+    void testPackedLookups() {
+        PuzzleData data = puzzleCache.get(sessionRepository.findBySessionId(sessionId).orElseThrow());
+        assertEquals(CLUES, data.cluesString());
+        assertEquals(SOLUTION, data.solutionString());
+        assertTrue(data.isClue(0));
+        assertFalse(data.isClue(2));
+        assertEquals(4, data.solutionAt(2));
+        assertTrue(data.isSolvedBy(SOLUTION));
+        assertFalse(data.isSolvedBy(CLUES));
+
+        CheckAnswerRequest request = new CheckAnswerRequest();
+        request.setSessionId(sessionId);
+        request.setRow(0);
+        request.setCol(2);
+        request.setValue(4);
+        assertTrue(gameEngine.checkAnswer(request).isCorrect());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ltp.sudomaster.pointsengine;
 
+import com.ltp.sudomaster.dto.CompletionResponse;
 import com.ltp.sudomaster.dto.GameCompleteResponse;
 import com.ltp.sudomaster.entity.*;
 import com.ltp.sudomaster.repository.*;
@@ -248,8 +249,10 @@ class ScoringEngineTest {
 
         GameCompleteResponse response = gameEngine.completeGame(testSession.getSessionId(), 300, 0, false);
 
-        assertNotNull(response.getRank());
-        assertTrue(response.getRank() >= 1);
+        CompletionResponse completion = gameEngine.getCompletion(response.getSessionId());
+        assertEquals("DONE", completion.getState());
+        assertNotNull(completion.getRank());
+        assertTrue(completion.getRank() >= 1);
     }
 
     @Test
@@ -275,7 +278,7 @@ class ScoringEngineTest {
         GameCompleteResponse response = gameEngine.completeGame(testSession.getSessionId(), 300, 0, false);
 
         assertNotNull(response.getScore());
-        assertNotNull(response.getRank());
+        assertNotNull(gameEngine.getCompletion(response.getSessionId()).getRank());
         assertNotNull(response.getCompletionStatus());
     }
 
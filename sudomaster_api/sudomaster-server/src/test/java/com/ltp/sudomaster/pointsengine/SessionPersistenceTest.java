@@ -3,6 +3,7 @@ package com.ltp.sudomaster.pointsengine;
 import com.ltp.sudomaster.dto.*;
 import com.ltp.sudomaster.entity.*;
 import com.ltp.sudomaster.repository.*;
+import com.ltp.sudomaster.util.CandidateMasks;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -239,6 +241,52 @@ class SessionPersistenceTest {
         assertEquals("{\"0-0\":[1,2,3]}", updated.getCandidatesJson());
     }
 
+    @Test
+    @DisplayName("saveGameState rejects saves built on an older board version")
+    void testSaveGameStateRejectsStaleVersion() {
+        SudokuGameSession session = createSessionForUser(user1, Enums.Difficulty.EASY, null);
+        setAuth(user1);
+
+        String board = "534" + CLUES.substring(3);
+        long version = gameEngine.saveGameState(session.getSessionId(),
+                SaveGameRequest.builder().boardString(board).baseVersion(0L).build());
+        assertEquals(1, version);
+
+        SaveGameRequest stale = SaveGameRequest.builder()
+                .boardString(CLUES)
+                .elapsedTimeSeconds(42)
+                .baseVersion(0L)
+                .build();
+        com.ltp.sudomaster.exception.StaleStateException rejected = assertThrows(
+                com.ltp.sudomaster.exception.StaleStateException.class,
+                () -> gameEngine.saveGameState(session.getSessionId(), stale));
+        assertEquals(1, rejected.getCurrentVersion());
+
+        SudokuGameSession stored = sessionRepository.findBySessionId(session.getSessionId()).orElseThrow();
+        assertEquals(board, stored.getBoardString());
+        assertEquals(0, stored.getElapsedTimeSeconds());
+    }
+
+    @Test
+    @DisplayName("saveGameState rejects malformed boards and changed clues without applying anything")
+    void testSaveGameStateRejectsInvalidBoard() {
+        SudokuGameSession session = createSessionForUser(user1, Enums.Difficulty.EASY, null);
+        setAuth(user1);
+
+        for (String board : List.of(CLUES.substring(1), CLUES + "0", "x" + CLUES.substring(1), "9" + CLUES.substring(1))) {
+            SaveGameRequest request = SaveGameRequest.builder()
+                    .boardString(board)
+                    .elapsedTimeSeconds(42)
+                    .build();
+            assertThrows(IllegalArgumentException.class, () -> gameEngine.saveGameState(session.getSessionId(), request));
+        }
+
+        SudokuGameSession stored = sessionRepository.findBySessionId(session.getSessionId()).orElseThrow();
+        assertEquals(CLUES, stored.getBoardString());
+        assertEquals(0, stored.getElapsedTimeSeconds());
+        assertEquals(0, stored.getBoardVersion());
+    }
+
     @Test
     @DisplayName("saveGameState skips completed sessions")
     void testSaveGameStateSkipsCompleted() {
@@ -510,4 +558,61 @@ class SessionPersistenceTest {
         SudokuGameSession updated = sessionRepository.findBySessionId(session.getSessionId()).orElseThrow();
         assertEquals(existingSettings, updated.getSettingsJson());
     }
+
+    @Test
+    @DisplayName("getSavedGameSummaries groups every in-progress session of the user by difficulty")
+    void testSavedGameSummaries() {
+        SudokuGameSession easy = createSessionForUser(user1, Enums.Difficulty.EASY, null);
+        createSessionForUser(user1, Enums.Difficulty.HARD, null);
+        SudokuGameSession completed = createSessionForUser(user1, Enums.Difficulty.MEDIUM, null);
+        completed.setStatus(Enums.GameStatus.COMPLETED);
+        sessionRepository.save(completed);
+        createSessionForUser(user2, Enums.Difficulty.INSANE, null);
+        addMovesToSession(easy.getSessionId(), 7);
+
+        Map<String, List<SavedGameSummary>> summaries = gameEngine.getSavedGameSummaries(user1.getId());
+
+        assertEquals(List.of("EASY", "MEDIUM", "HARD", "INSANE"), List.copyOf(summaries.keySet()));
+        assertEquals(1, summaries.get("EASY").size());
+        assertEquals(easy.getSessionId(), summaries.get("EASY").get(0).getSessionId());
+        assertEquals(7, summaries.get("EASY").get(0).getMoveCount());
+        assertEquals(1, summaries.get("HARD").size());
+        assertTrue(summaries.get("MEDIUM").isEmpty());
+        assertTrue(summaries.get("INSANE").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Auto-candidate sessions get server-side candidates and per-move mask deltas")
+    void testServerSideAutoCandidates() {
+        SudokuGameSession session = createSessionForUser(user1, Enums.Difficulty.EASY, null);
+        setAuth(user1);
+
+        gameEngine.saveGameState(session.getSessionId(), SaveGameRequest.builder().isAutoCandidateMode(true).build());
+
+        CandidateMasks filled = sessionRepository.findBySessionId(session.getSessionId()).orElseThrow().getCandidates();
+        assertNotNull(filled);
+        assertEquals(1 << 3, filled.maskAt(2) & (1 << 3));
+        assertEquals(0, filled.maskAt(2) & (1 << 4));
+        assertEquals(0, filled.maskAt(0));
+
+        long version = gameEngine.getGame(session.getSessionId()).getBoardVersion();
+        MoveDeltaResponse delta = gameEngine.makeMoveDelta(session.getSessionId(),
+                MoveRequest.builder().position(2).value(4).baseVersion(version).build());
+
+        Map<String, Integer> changed = delta.getCandidateMasks();
+        assertNotNull(changed);
+        assertEquals(0, changed.get("2"));
+        assertTrue(changed.size() > 1);
+        for (Map.Entry<String, Integer> entry : changed.entrySet()) {
+            int cell = Integer.parseInt(entry.getKey());
+            assertTrue(cell == 2 || cell / 9 == 0 || cell % 9 == 2 || (cell / 27 == 0 && cell % 9 < 3), entry.getKey());
+            assertEquals(cell == 2 ? 0 : filled.maskAt(cell) & ~(1 << 3), entry.getValue(), entry.getKey());
+        }
+
+        CandidateMasks stored = sessionRepository.findBySessionId(session.getSessionId()).orElseThrow().getCandidates();
+        for (int cell = 0; cell < CandidateMasks.CELLS; cell++) {
+            Integer mask = changed.get(String.valueOf(cell));
+            assertEquals(mask != null ? mask : filled.maskAt(cell), stored.maskAt(cell), "cell " + cell);
+        }
+    }
 }
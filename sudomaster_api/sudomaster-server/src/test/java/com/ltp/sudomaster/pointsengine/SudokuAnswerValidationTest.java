@@ -1,5 +1,6 @@
 package com.ltp.sudomaster.pointsengine;
 
+import com.ltp.sudomaster.dto.BoardCheckResponse;
 import com.ltp.sudomaster.dto.CheckAnswerRequest;
 import com.ltp.sudomaster.dto.CheckAnswerResponse;
 import com.ltp.sudomaster.entity.*;
@@ -15,6 +16,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import java.util.List;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.Base64;
 import java.util.UUID;
 import java.time.LocalDateTime;
 
@@ -283,4 +285,24 @@ class SudokuAnswerValidationTest {
         assertNotNull(response.getMessage());
         assertFalse(response.isCorrect() && response.getMessage().isEmpty());
     }
+
+    @Test
+    @DisplayName("Whole-board check reports wrong user cells in one pass")
+    void testBoardCheck() {
+        String clues = testSession.getPuzzle().getCluesString();
+        testSession.setBoardString("534" + "5" + clues.substring(4, 78) + "1" + clues.substring(79));
+        sessionRepository.save(testSession);
+
+        BoardCheckResponse response = gameEngine.checkBoard(testSession.getSessionId());
+
+        assertEquals(List.of(3, 78), response.getWrongCells());
+        assertEquals(2, response.getWrongCount());
+        assertEquals(clues.replace("0", "").length() + 3, response.getFilledCells());
+        assertFalse(response.getComplete());
+
+        byte[] bitmap = Base64.getDecoder().decode(response.getWrongBitmap());
+        assertEquals(11, bitmap.length);
+        assertEquals((byte) 0x10, bitmap[0]);
+        assertEquals((byte) 0x02, bitmap[9]);
+    }
 }
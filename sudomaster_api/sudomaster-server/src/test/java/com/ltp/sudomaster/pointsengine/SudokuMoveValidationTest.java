@@ -1,5 +1,8 @@
 package com.ltp.sudomaster.pointsengine;
 
+import com.ltp.sudomaster.dto.BatchMoveRequest;
+import com.ltp.sudomaster.dto.BatchMoveResponse;
+import com.ltp.sudomaster.dto.MoveDeltaResponse;
 import com.ltp.sudomaster.dto.MoveRequest;
 import com.ltp.sudomaster.dto.MoveResponse;
 import com.ltp.sudomaster.entity.*;
@@ -306,4 +309,99 @@ class SudokuMoveValidationTest {
             assertNotNull(response);
         }
     }
+
+    private MoveRequest move(int position, int value) {
+        MoveRequest request = new MoveRequest();
+        request.setPosition(position);
+        request.setValue(value);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Batch moves match applying the same moves one by one")
+    void testBatchMatchesSequentialMoves() {
+        List<MoveRequest> moves = List.of(move(2, 4), move(3, 4), move(0, 9), move(3, 0), move(3, 6));
+
+        BatchMoveResponse batch = gameEngine.makeMoves(testSessionId, new BatchMoveRequest(moves));
+
+        assertEquals(5, batch.getResults().size());
+        assertTrue(batch.getResults().get(0).getValid());
+        assertFalse(batch.getResults().get(1).getValid());
+        assertTrue(batch.getResults().get(1).getApplied());
+        assertFalse(batch.getResults().get(2).getApplied());
+        assertTrue(batch.getResults().get(2).getMessage().contains("prefilled"));
+        assertEquals(4, batch.getMoveCount());
+
+        SudokuGameSession stored = sessionRepository.findBySessionId(testSessionId).orElseThrow();
+        assertEquals(batch.getBoardString(), stored.getBoardString());
+        assertEquals(4, stored.getMoveCount());
+
+        String clues = testSession.getPuzzle().getCluesString();
+        testSession = sessionRepository.findBySessionId(testSessionId).orElseThrow();
+        testSession.setBoardString(clues);
+        testSession.setMoveCount(0);
+        sessionRepository.save(testSession);
+
+        MoveResponse last = null;
+        for (int i = 0; i < moves.size(); i++) {
+            last = gameEngine.makeMove(testSessionId, moves.get(i));
+            if (i != 2) {
+                assertEquals(batch.getResults().get(i).getValid(), last.getValid());
+            }
+        }
+        assertEquals(batch.getBoardString(), last.getBoardString());
+    }
+
+    @Test
+    @DisplayName("Batch that completes the puzzle reports completion and stops applying")
+    void testBatchCompletion() {
+        String solution = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+        testSession.setBoardString("53" + "00" + solution.substring(4));
+        sessionRepository.save(testSession);
+        List<MoveRequest> moves = List.of(move(2, 4), move(3, 6), move(2, 1));
+
+        BatchMoveResponse batch = gameEngine.makeMoves(testSessionId, new BatchMoveRequest(moves));
+
+        assertEquals("COMPLETED", batch.getCompletionStatus());
+        assertEquals(solution, batch.getBoardString());
+        assertFalse(batch.getResults().get(moves.size() - 1).getApplied());
+        assertTrue(batch.getResults().get(moves.size() - 2).getMessage().contains("Congratulations"));
+    }
+
+    @Test
+    @DisplayName("Delta move at the current board version carries only the changed cell")
+    void testDeltaMoveInSync() {
+        MoveResponse first = gameEngine.makeMove(testSessionId, move(2, 4));
+        assertEquals(1L, first.getBoardVersion());
+
+        MoveRequest request = move(3, 5);
+        request.setBaseVersion(first.getBoardVersion());
+        MoveDeltaResponse delta = gameEngine.makeMoveDelta(testSessionId, request);
+
+        assertFalse(delta.getResync());
+        assertEquals(2L, delta.getBoardVersion());
+        assertEquals(3, delta.getPosition());
+        assertEquals(5, delta.getValue());
+        assertFalse(delta.getValid());
+        assertTrue(delta.getConflicts().contains(0));
+        assertNull(delta.getBoardString());
+        assertNull(delta.getCandidates());
+        assertEquals(2, delta.getMoveCount());
+    }
+
+    @Test
+    @DisplayName("Delta move against a stale board version falls back to a full resync")
+    void testDeltaMoveResync() {
+        gameEngine.makeMove(testSessionId, move(2, 4));
+
+        MoveRequest request = move(3, 6);
+        request.setBaseVersion(0L);
+        MoveDeltaResponse delta = gameEngine.makeMoveDelta(testSessionId, request);
+
+        assertTrue(delta.getResync());
+        assertEquals(2L, delta.getBoardVersion());
+        assertNull(delta.getPosition());
+        assertEquals("534670000" + testSession.getBoardString().substring(9), delta.getBoardString());
+        assertNotNull(delta.getCandidates());
+    }
 }
@@ -0,0 +1,199 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.dto.CreateGameRequest;
+import com.ltp.sudomaster.dto.GameResponse;
+import com.ltp.sudomaster.entity.*;
+import com.ltp.sudomaster.pointsengine.GameEngine;
+import com.ltp.sudomaster.repository.*;
+import com.ltp.sudomaster.sudokugen.BoardGenerator;
+import com.ltp.sudomaster.sudokugen.Difficulty;
+import com.ltp.sudomaster.sudokugen.GeneratedPuzzle;
+import com.ltp.sudomaster.sudokugen.SolvedGridBank;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Puzzle Catalogue and No-Repeat Tests")
+@SuppressWarnings("null")
+class PuzzleCatalogueTest {
+
+    private static final int CATALOGUE_SIZE = 3;
+    private static final Set<String> CATALOGUE_CLUES = new HashSet<>();
+
+    @DynamicPropertySource
+    static void catalogueProperties(DynamicPropertyRegistry registry) {
+        try {
+            Path dir = Files.createTempDirectory("catalogue");
+            BoardGenerator generator = new BoardGenerator(new SolvedGridBank(2));
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < CATALOGUE_SIZE; i++) {
+                GeneratedPuzzle puzzle = generator.generate(Difficulty.EASY);
+                String clues = toDigits(puzzle.puzzle());
+                CATALOGUE_CLUES.add(clues);
+                lines.add(clues + " " + toDigits(puzzle.solution()) + " 10 10");
+            }
+            Files.write(dir.resolve("EASY.txt"), lines);
+            registry.add("sudomaster.catalogue.dir", dir::toString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toDigits(int[][] board) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] row : board) {
+            for (int value : row) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Autowired
+    private PlayedPuzzleService playedPuzzleService;
+
+    @Autowired
+    private PuzzleCatalogueService catalogueService;
+
+    @Autowired
+    private PlayedPuzzlesRepository playedPuzzlesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SudokuGameSessionRepository sessionRepository;
+
+    @Autowired
+    private SudokuPuzzleRepository puzzleRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setup() {
+        gameScoreRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        puzzleRepository.deleteAll();
+        playedPuzzlesRepository.deleteAll();
+
+        testUser = new User();
+        testUser.setUsername("catalogueuser");
+        testUser.setEmail("catalogue@test.com");
+        testUser.setPasswordHash("hashedpassword");
+        testUser = userRepository.save(testUser);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                testUser.getId(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        playedPuzzleService.deleteForUser(testUser.getId());
+        SecurityContextHolder.clearContext();
+    }
+
+    private GameResponse newEasyGame() {
+        CreateGameRequest request = new CreateGameRequest();
+        request.setDifficulty("EASY");
+        return gameEngine.createGame(request);
+    }
+
+    @Test
+    @DisplayName("Catalogue loads configured puzzles")
+    void testCatalogueLoaded() {
+        assertEquals(CATALOGUE_SIZE, catalogueService.size(Enums.Difficulty.EASY));
+        assertEquals(0, catalogueService.size(Enums.Difficulty.HARD));
+        assertTrue(catalogueService.get(PuzzleCatalogueService.firstId(Enums.Difficulty.EASY)).isPresent());
+        assertTrue(catalogueService.get(PuzzleCatalogueService.firstId(Enums.Difficulty.EASY) + CATALOGUE_SIZE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A user never receives the same catalogue puzzle twice")
+    void testNoRepeats() {
+        Set<Integer> seenIds = new HashSet<>();
+        for (int i = 0; i < CATALOGUE_SIZE; i++) {
+            GameResponse response = newEasyGame();
+            SudokuPuzzle puzzle = puzzleRepository.findById(response.getPuzzleId()).orElseThrow();
+            assertNotNull(puzzle.getCatalogueId());
+            assertTrue(seenIds.add(puzzle.getCatalogueId()));
+            assertTrue(CATALOGUE_CLUES.contains(puzzle.getCluesString()));
+        }
+
+        GameResponse generated = newEasyGame();
+        assertNull(puzzleRepository.findById(generated.getPuzzleId()).orElseThrow().getCatalogueId());
+
+        PlayedPuzzles stored = playedPuzzlesRepository.findById(testUser.getId()).orElseThrow();
+        assertEquals(CATALOGUE_SIZE, stored.getPlayedCount());
+    }
+
+    @Test
+    @DisplayName("A picked id is only played once marked, and concurrent marks all reach the stored row")
+    void testPickThenMark() throws Exception {
+        String userId = testUser.getId();
+        int picked = playedPuzzleService.pickUnplayed(userId, Enums.Difficulty.EASY).orElseThrow();
+        assertFalse(playedPuzzleService.hasPlayed(userId, picked));
+        assertFalse(playedPuzzlesRepository.existsById(userId));
+
+        int firstId = PuzzleCatalogueService.firstId(Enums.Difficulty.EASY);
+        ExecutorService pool = Executors.newFixedThreadPool(CATALOGUE_SIZE);
+        try {
+            List<Future<?>> marks = new ArrayList<>();
+            for (int i = 0; i < CATALOGUE_SIZE; i++) {
+                int catalogueId = firstId + i;
+                marks.add(pool.submit(() -> playedPuzzleService.markPlayed(userId, catalogueId)));
+            }
+            for (Future<?> mark : marks) {
+                mark.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        PlayedPuzzles stored = playedPuzzlesRepository.findById(userId).orElseThrow();
+        assertEquals(CATALOGUE_SIZE, stored.getPlayedCount());
+        assertTrue(playedPuzzleService.pickUnplayed(userId, Enums.Difficulty.EASY).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Played set is deleted with the user's data")
+    void testDeleteForUser() {
+        newEasyGame();
+        assertTrue(playedPuzzlesRepository.existsById(testUser.getId()));
+
+        playedPuzzleService.deleteForUser(testUser.getId());
+
+        assertFalse(playedPuzzlesRepository.existsById(testUser.getId()));
+        assertFalse(playedPuzzleService.hasPlayed(testUser.getId(), PuzzleCatalogueService.firstId(Enums.Difficulty.EASY)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.exception.GenerationUnavailableException;
+import com.ltp.sudomaster.sudokugen.BoardGenerator;
+import com.ltp.sudomaster.sudokugen.Difficulty;
+import com.ltp.sudomaster.sudokugen.GeneratedPuzzle;
+import com.ltp.sudomaster.sudokugen.SolvedGridBank;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Puzzle Generation Bulkhead Tests")
+class PuzzleGenerationServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final BoardGenerator blockingGenerator = new BoardGenerator(new SolvedGridBank(1)) {
+        @Override
+        public GeneratedPuzzle generate(Difficulty difficulty) throws Exception {
+            started.countDown();
+            release.await();
+            return new GeneratedPuzzle(new int[9][9], new int[9][9]);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Generation returns the generated puzzle")
+    void testGenerate() throws Exception {
+        PuzzleGenerationService service = new PuzzleGenerationService(new BoardGenerator(new SolvedGridBank(1)), 1, 1, 30000);
+
+        GeneratedPuzzle puzzle = service.generate(Difficulty.EASY);
+
+        assertNotNull(puzzle.puzzle());
+        assertNotNull(puzzle.solution());
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Saturated generator rejects immediately with a retry estimate")
+    void testRejectsWhenSaturated() throws Exception {
+        PuzzleGenerationService service = new PuzzleGenerationService(blockingGenerator, 1, 0, 30000);
+        Future<GeneratedPuzzle> first = callers.submit(() -> service.generate(Difficulty.INSANE));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        GenerationUnavailableException ex = assertThrows(GenerationUnavailableException.class,
+                () -> service.generate(Difficulty.INSANE));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(1, service.getRejectedCount());
+
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Queued request fails once its deadline passes")
+    void testDeadline() throws Exception {
+        PuzzleGenerationService service = new PuzzleGenerationService(blockingGenerator, 1, 4, 200);
+
+        assertThrows(GenerationUnavailableException.class, () -> service.generate(Difficulty.HARD));
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Zero concurrency sizes the pool to the cores and background work waits for idle")
+    void testCoreSizedPoolAndIdleWork() throws Exception {
+        PuzzleGenerationService service = new PuzzleGenerationService(blockingGenerator, 0, 4, 30000);
+        assertEquals(Runtime.getRuntime().availableProcessors(), service.getMaxConcurrency());
+
+        Future<GeneratedPuzzle> first = callers.submit(() -> service.generate(Difficulty.EASY));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(service.runWhenIdle(() -> {}));
+
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        CountDownLatch ran = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!service.runWhenIdle(ran::countDown) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerationService(blockingGenerator, -1, 4, 30000));
+        service.shutdown();
+    }
+}
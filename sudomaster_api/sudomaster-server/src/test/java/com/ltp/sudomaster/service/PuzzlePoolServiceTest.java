@@ -0,0 +1,110 @@
+package com.ltp.sudomaster.service;
+
+import com.ltp.sudomaster.entity.Enums;
+import com.ltp.sudomaster.sudokugen.BoardGenerator;
+import com.ltp.sudomaster.sudokugen.SolvedGridBank;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Puzzle Pool Snapshot Tests")
+class PuzzlePoolServiceTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567825961734349287651761524896956837281283419675417253829";
+
+    private final PuzzleGenerationService generationService =
+            new PuzzleGenerationService(new BoardGenerator(new SolvedGridBank(1)), 1, 1, 30000);
+
+    @AfterEach
+    void tearDown() {
+        generationService.shutdown();
+    }
+
+    private PuzzlePoolService pool(Path snapshot) {
+        return new PuzzlePoolService(generationService, 4, snapshot.toString(), 72);
+    }
+
+    @Test
+    @DisplayName("Snapshot encoding round trips and is compact")
+    void testEncodeDecode() {
+        List<PuzzlePoolService.PooledPuzzle> entries = List.of(
+                new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.HARD, CLUES, SOLUTION, 1234L),
+                new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.INSANE, CLUES, SOLUTION, 5678L));
+
+        byte[] bytes = PuzzlePoolService.encode(entries);
+
+        assertEquals(10 + 2 * 91 + 8, bytes.length);
+        assertEquals(entries, PuzzlePoolService.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Corrupted snapshot is rejected by checksum")
+    void testChecksum() {
+        byte[] bytes = PuzzlePoolService.encode(List.of(
+                new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.EASY, CLUES, SOLUTION, 1L)));
+        bytes[20] ^= 0x01;
+
+        assertThrows(IllegalArgumentException.class, () -> PuzzlePoolService.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Pool is saved on shutdown and restored on startup without stale entries")
+    void testSaveAndRestore(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("pool.bin");
+        long now = System.currentTimeMillis();
+        PuzzlePoolService first = pool(snapshot);
+        assertTrue(first.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.HARD, CLUES, SOLUTION, now)));
+        assertTrue(first.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.INSANE, CLUES, SOLUTION, now)));
+        assertTrue(first.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.INSANE, CLUES, SOLUTION,
+                now - Duration.ofDays(10).toMillis())));
+        first.saveSnapshot();
+        assertTrue(Files.exists(snapshot));
+
+        PuzzlePoolService second = pool(snapshot);
+        second.loadSnapshot();
+
+        assertEquals(1, second.size(Enums.Difficulty.HARD));
+        assertEquals(1, second.size(Enums.Difficulty.INSANE));
+        assertEquals(CLUES, second.take(Enums.Difficulty.HARD).orElseThrow().cluesString());
+        assertTrue(second.take(Enums.Difficulty.HARD).isEmpty());
+        assertFalse(Files.exists(snapshot));
+    }
+
+    @Test
+    @DisplayName("Pool never grows beyond its target size")
+    void testBounded(@TempDir Path dir) {
+        PuzzlePoolService pool = pool(dir.resolve("pool.bin"));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pool.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.EASY, CLUES, SOLUTION, 1L)));
+        }
+
+        assertFalse(pool.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.EASY, CLUES, SOLUTION, 1L)));
+        assertEquals(4, pool.size(Enums.Difficulty.EASY));
+    }
+
+    @Test
+    @DisplayName("Idle refill generates into the neediest pool")
+    void testRefillWhenIdle(@TempDir Path dir) throws Exception {
+        PuzzlePoolService pool = new PuzzlePoolService(generationService, 1, dir.resolve("pool.bin").toString(), 72);
+        pool.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.INSANE, CLUES, SOLUTION, 1L));
+        pool.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.HARD, CLUES, SOLUTION, 1L));
+        pool.offer(new PuzzlePoolService.PooledPuzzle(Enums.Difficulty.MEDIUM, CLUES, SOLUTION, 1L));
+
+        pool.refillWhenIdle();
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while (pool.size(Enums.Difficulty.EASY) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, pool.size(Enums.Difficulty.EASY));
+    }
+}
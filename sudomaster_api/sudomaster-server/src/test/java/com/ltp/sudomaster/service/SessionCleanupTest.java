@@ -10,11 +10,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "sudomaster.session-expiry.tick-ms=20")
 @ActiveProfiles("test")
 @DisplayName("Session Cleanup Service Tests")
 @SuppressWarnings("null")
@@ -151,4 +152,27 @@ class SessionCleanupTest {
 
         assertTrue(sessionRepository.findBySessionId(sessionId).isPresent(), "Recent session should remain untouched");
     }
+
+    @Test
+    @DisplayName("Tracked sessions are deleted by the wheel once due, unless touched since")
+    void testWheelExpiry() throws InterruptedException {
+        LocalDateTime fourDaysAgo = LocalDateTime.now().minusDays(4);
+        SudokuPuzzle stalePuzzle = createPuzzle();
+        String staleId = createSession(testUser, stalePuzzle, Enums.GameStatus.IN_PROGRESS, fourDaysAgo).getSessionId();
+        String touchedId = createSession(testUser, createPuzzle(), Enums.GameStatus.IN_PROGRESS, LocalDateTime.now())
+                .getSessionId();
+
+        long scheduledAt = fourDaysAgo.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        sessionCleanupService.track(staleId, scheduledAt);
+        sessionCleanupService.track(touchedId, scheduledAt);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sessionRepository.findBySessionId(staleId).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertFalse(sessionRepository.findBySessionId(staleId).isPresent(), "Due session should be deleted by the wheel");
+        assertFalse(puzzleRepository.findById(stalePuzzle.getId()).isPresent(), "Its puzzle should be deleted too");
+        assertTrue(sessionRepository.findBySessionId(touchedId).isPresent(), "Session touched since should be kept");
+    }
 }
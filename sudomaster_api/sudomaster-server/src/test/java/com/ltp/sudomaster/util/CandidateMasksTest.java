@@ -0,0 +1,84 @@
+package com.ltp.sudomaster.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Candidate Masks Tests")
+class CandidateMasksTest {
+
+    @Test
+    @DisplayName("Client JSON survives a pack and unpack round trip")
+    void testRoundTrip() {
+        String[] samples = {
+                "{}",
+                "{\"0-1\":[2,3]}",
+                "{\"0\":[1,2,3],\"1\":[4,5]}",
+                "{\"8-8\":[1,2,3,4,5,6,7,8,9],\"4-4\":[]}"
+        };
+        for (String json : samples) {
+            CandidateMasks parsed = CandidateMasks.parse(json);
+            assertNotNull(parsed, json);
+            byte[] packed = parsed.toBytes();
+            assertEquals(CandidateMasks.PACKED_BYTES, packed.length);
+            assertEquals(parsed, CandidateMasks.fromBytes(packed));
+        }
+        assertEquals("{\"4-4\":[],\"8-8\":[1,2,3,4,5,6,7,8,9]}",
+                CandidateMasks.fromBytes(CandidateMasks.parse(samples[3]).toBytes()).toJson());
+    }
+
+    @Test
+    @DisplayName("Whitespace and digit order are normalised")
+    void testNormalisation() {
+        CandidateMasks parsed = CandidateMasks.parse(" { \"3-7\" : [ 9, 1 ,5 ] } ");
+        assertNotNull(parsed);
+        assertTrue(parsed.usesRowColKeys());
+        assertEquals((1 << 8) | (1 << 4) | 1, parsed.maskAt(34));
+        assertEquals("{\"3-7\":[1,5,9]}", parsed.toJson());
+    }
+
+    @Test
+    @DisplayName("Shapes that cannot be packed are rejected")
+    void testUnsupportedShapes() {
+        assertNull(CandidateMasks.parse(null));
+        assertNull(CandidateMasks.parse(""));
+        assertNull(CandidateMasks.parse("[]"));
+        assertNull(CandidateMasks.parse("{\"81\":[1]}"));
+        assertNull(CandidateMasks.parse("{\"9-0\":[1]}"));
+        assertNull(CandidateMasks.parse("{\"0\":[10]}"));
+        assertNull(CandidateMasks.parse("{\"0\":[0]}"));
+        assertNull(CandidateMasks.parse("{\"0\":[1],\"0-1\":[2]}"));
+        assertNull(CandidateMasks.parse("{\"0\":[1],\"0\":[2]}"));
+        assertNull(CandidateMasks.parse("{\"0\":[1]"));
+        assertNull(CandidateMasks.parse("{\"0\":\"1\"}"));
+    }
+
+    @Test
+    @DisplayName("Blank masks list every cell with no candidates")
+    void testBlank() {
+        CandidateMasks blank = CandidateMasks.blank();
+        for (int i = 0; i < CandidateMasks.CELLS; i++) {
+            assertTrue(blank.isPresent(i));
+            assertEquals(0, blank.maskAt(i));
+        }
+        assertTrue(blank.toJson().startsWith("{\"0\":[],\"1\":[]"));
+        assertTrue(blank.toJson().endsWith("\"80\":[]}"));
+    }
+
+    @Test
+    @DisplayName("Jackson writes the same JSON as toJson")
+    void testJacksonSerialization() throws Exception {
+        CandidateMasks parsed = CandidateMasks.parse("{\"0-1\":[2,3],\"2-2\":[]}");
+        assertEquals(parsed.toJson(), new ObjectMapper().writeValueAsString(parsed));
+    }
+
+    @Test
+    @DisplayName("Corrupt packed data is rejected")
+    void testCorruptBytes() {
+        assertThrows(IllegalArgumentException.class, () -> CandidateMasks.fromBytes(new byte[10]));
+        assertThrows(IllegalArgumentException.class,
+                () -> CandidateMasks.fromBytes(new byte[CandidateMasks.PACKED_BYTES]));
+    }
+}
@@ -0,0 +1,105 @@
+package com.ltp.sudomaster.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compressed Bitmap Tests")
+class CompressedBitmapTest {
+
+    @Test
+    @DisplayName("Add and contains across array and bitmap containers")
+    void testAddAndContains() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        Random random = new Random(1);
+
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(1 << 18);
+            assertEquals(!expected.get(value), bitmap.add(value));
+            expected.set(value);
+        }
+        for (int i = 0; i < 10000; i++) {
+            bitmap.add((1 << 20) + i);
+            expected.set((1 << 20) + i);
+        }
+
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        for (int value = 0; value < (1 << 18); value += 7) {
+            assertEquals(expected.get(value), bitmap.contains(value));
+        }
+        assertTrue(bitmap.contains((1 << 20) + 9999));
+        assertFalse(bitmap.contains((1 << 20) + 10000));
+    }
+
+    @Test
+    @DisplayName("Rank and absent selection match a plain bit set")
+    void testRankAndSelectAbsent() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        Random random = new Random(2);
+        int from = 1 << 24;
+        int to = from + 150000;
+
+        for (int i = 0; i < 90000; i++) {
+            int value = from + random.nextInt(to - from);
+            bitmap.add(value);
+            expected.set(value - from);
+        }
+
+        assertEquals(expected.cardinality(), bitmap.countInRange(from, to));
+        assertEquals(expected.get(0, 5000).cardinality(), bitmap.countInRange(from, from + 5000));
+
+        int absentIndex = 0;
+        for (int offset = expected.nextClearBit(0); offset < to - from; offset = expected.nextClearBit(offset + 1)) {
+            if (absentIndex % 97 == 0) {
+                assertEquals(from + offset, bitmap.selectAbsent(from, to, absentIndex));
+            }
+            absentIndex++;
+        }
+        int absent = absentIndex;
+        assertThrows(IllegalArgumentException.class, () -> bitmap.selectAbsent(from, to, absent));
+    }
+
+    @Test
+    @DisplayName("Serialization round trip preserves contents")
+    void testRoundTrip() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 70000; i += 3) {
+            bitmap.add(i);
+        }
+        bitmap.add(5 << 24);
+
+        byte[] bytes = bitmap.toBytes();
+        CompressedBitmap restored = CompressedBitmap.fromBytes(bytes);
+
+        assertEquals(bitmap.cardinality(), restored.cardinality());
+        assertTrue(restored.contains(69999));
+        assertFalse(restored.contains(70000));
+        assertTrue(restored.contains(5 << 24));
+        assertArrayEquals(bytes, restored.toBytes());
+    }
+
+    @Test
+    @DisplayName("Sparse sets serialize compactly")
+    void testCompactEncoding() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 1000; i++) {
+            bitmap.add(i * 50);
+        }
+
+        assertTrue(bitmap.toBytes().length < 2100);
+    }
+
+    @Test
+    @DisplayName("Empty and corrupt input")
+    void testEmptyAndCorrupt() {
+        assertTrue(CompressedBitmap.fromBytes(null).isEmpty());
+        assertTrue(CompressedBitmap.fromBytes(new CompressedBitmap().toBytes()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.fromBytes(new byte[] {0, 0, 0, 1, 0, 0, 0, 1, 0}));
+    }
+}
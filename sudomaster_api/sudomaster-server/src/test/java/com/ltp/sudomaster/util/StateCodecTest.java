@@ -0,0 +1,86 @@
+package com.ltp.sudomaster.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ltp.sudomaster.dto.GameResponse;
+import com.ltp.sudomaster.dto.MoveResponse;
+import com.ltp.sudomaster.dto.SavedGameResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("State Codec Tests")
+class StateCodecTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String BOARD = "534070000600195000098000060800060003400803001700020006060000280000419005000080079";
+
+    @Test
+    @DisplayName("Game responses round-trip and are far smaller than JSON")
+    void testGameResponseRoundTrip() throws Exception {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 40; i++) {
+            json.append(i > 0 ? "," : "").append('"').append(i / 9).append('-').append(i % 9).append("\":[1,5,9]");
+        }
+        CandidateMasks candidates = CandidateMasks.parse(json.append('}').toString());
+        LocalDateTime created = LocalDateTime.of(2026, 2, 10, 14, 30, 5, 123_000_000);
+        GameResponse game = new GameResponse("a1b2c3d4-e5f6-7890-abcd-ef1234567890", 42L, CLUES, BOARD, candidates,
+                "MEDIUM", "IN_PROGRESS", created, created.plusMinutes(3));
+        game.setBoardVersion(17L);
+
+        byte[] packed = StateCodec.encode(game);
+        GameResponse decoded = (GameResponse) StateCodec.decode(packed);
+
+        assertEquals(game.getSessionId(), decoded.getSessionId());
+        assertEquals(42L, decoded.getPuzzleId());
+        assertEquals(CLUES, decoded.getCluesString());
+        assertEquals(BOARD, decoded.getBoardString());
+        assertEquals(candidates, decoded.getCandidates());
+        assertEquals(created, decoded.getCreatedAt());
+        assertEquals(17L, decoded.getBoardVersion());
+
+        String asJson = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(game);
+        assertTrue(packed.length * 3 < asJson.length(), packed.length + " vs " + asJson.length());
+    }
+
+    @Test
+    @DisplayName("Absent fields, conflicts and legacy candidate JSON survive")
+    void testMoveAndSavedRoundTrip() {
+        MoveResponse move = new MoveResponse("s1", BOARD, Map.of("0", List.of(1, 2)), false,
+                "Conflict", null, "IN_PROGRESS", 3);
+        move.setConflicts(List.of(0, 80));
+        MoveResponse decodedMove = (MoveResponse) StateCodec.decode(StateCodec.encode(move));
+        assertFalse(decodedMove.getValid());
+        assertNull(decodedMove.getMoveId());
+        assertNull(decodedMove.getBoardVersion());
+        assertEquals(List.of(0, 80), decodedMove.getConflicts());
+        assertEquals("{\"0\":[1,2]}", decodedMove.getCandidates().toString());
+
+        SavedGameResponse saved = SavedGameResponse.builder()
+                .sessionId("s2")
+                .cluesString(CLUES)
+                .boardString(BOARD)
+                .candidatesJson("{\"notes\":\"kept verbatim\"}")
+                .elapsedTimeSeconds(300)
+                .isAutoCandidateMode(true)
+                .settingsJson("{\"fontSize\":\"large\"}")
+                .build();
+        SavedGameResponse decodedSaved = (SavedGameResponse) StateCodec.decode(StateCodec.encode(saved));
+        assertEquals(saved, decodedSaved);
+    }
+
+    @Test
+    @DisplayName("Unknown versions and truncated data are rejected")
+    void testCorruptData() {
+        byte[] packed = StateCodec.encode(new MoveResponse("s1", BOARD, null, true, "ok", null, "IN_PROGRESS"));
+        byte[] truncated = java.util.Arrays.copyOf(packed, packed.length - 5);
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode(truncated));
+        packed[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode(packed));
+    }
+}
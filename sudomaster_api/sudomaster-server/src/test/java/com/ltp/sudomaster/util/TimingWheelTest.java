@@ -0,0 +1,58 @@
+package com.ltp.sudomaster.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Timing Wheel Tests")
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Keys expire on the first tick at or after their deadline, across levels")
+    void testExpiryAcrossLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 3, 0);
+        wheel.schedule("soon", 25);
+        wheel.schedule("middle", 130);
+        wheel.schedule("far", 900);
+
+        assertEquals(List.of(), wheel.advance(20));
+        assertEquals(List.of("soon"), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(129));
+        assertEquals(List.of("middle"), wheel.advance(130));
+        assertEquals(List.of(), wheel.advance(899));
+        assertEquals(List.of("far"), wheel.advance(905));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Rescheduling moves a deadline and cancelled keys never expire")
+    void testRescheduleAndCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 2, 0);
+        wheel.schedule("later", 50);
+        wheel.schedule("later", 300);
+        wheel.schedule("earlier", 200);
+        wheel.schedule("earlier", 40);
+        wheel.schedule("gone", 60);
+        assertTrue(wheel.cancel("gone"));
+
+        assertEquals(List.of("earlier"), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(290));
+        assertEquals(List.of("later"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(1000));
+    }
+
+    @Test
+    @DisplayName("Deadlines beyond the top level wait and are placed again")
+    void testOverflow() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 2, 2, 0);
+        wheel.schedule(1, 17);
+        wheel.schedule(2, 0);
+
+        assertEquals(List.of(2), wheel.advance(1));
+        assertEquals(List.of(), wheel.advance(16));
+        assertEquals(List.of(1), wheel.advance(17));
+    }
+}
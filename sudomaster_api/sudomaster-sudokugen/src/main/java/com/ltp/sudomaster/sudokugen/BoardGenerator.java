@@ -1,13 +1,12 @@
 package com.ltp.sudomaster.sudokugen;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class BoardGenerator {
 
     private static final int SIZE = 9;
-    private static final int BLOCK_SIZE = 3;
     private static final int MAX_GENERATION_ATTEMPTS = 10000;
-    private static final Random RANDOM = new Random();
 
     private static final int EASY_MIN_GIVENS = 36;
     private static final int EASY_MAX_GIVENS = 45;
@@ -29,74 +28,34 @@ public class BoardGenerator {
     private static final int INSANE_MIN_COST = 200;
     private static final int INSANE_MAX_COST = Integer.MAX_VALUE;
 
-    public GeneratedPuzzle generate(Difficulty difficulty) throws Exception {
-        int[][] solution = generateCompleteBoard();
-        int[][] puzzle = removeCellsUntilDifficulty(solution, difficulty);
-        return new GeneratedPuzzle(puzzle, solution);
-    }
+    private final SolvedGridBank gridBank;
 
-    private int[][] generateCompleteBoard() {
-        int[][] board = new int[SIZE][SIZE];
-        fillBoardRecursively(board, 0);
-        return board;
+    public BoardGenerator() {
+        this(new SolvedGridBank(SolvedGridBank.DEFAULT_SIZE));
     }
 
-    private boolean fillBoardRecursively(int[][] board, int cell) {
-        if (cell == SIZE * SIZE) {
-            return true;
-        }
-
-        int row = cell / SIZE;
-        int col = cell % SIZE;
-        List<Integer> numbers = new ArrayList<>();
-        for (int i = 1; i <= SIZE; i++) {
-            numbers.add(i);
-        }
-        Collections.shuffle(numbers);
-
-        for (int num : numbers) {
-            if (isValidPlacement(board, row, col, num)) {
-                board[row][col] = num;
-                if (fillBoardRecursively(board, cell + 1)) {
-                    return true;
-                }
-                board[row][col] = 0;
-            }
-        }
-
-        return false;
+    public BoardGenerator(SolvedGridBank gridBank) {
+        this.gridBank = gridBank;
     }
 
-    private boolean isValidPlacement(int[][] board, int row, int col, int num) {
-        for (int c = 0; c < SIZE; c++) {
-            if (board[row][c] == num) {
-                return false;
-            }
-        }
-
-        for (int r = 0; r < SIZE; r++) {
-            if (board[r][col] == num) {
-                return false;
-            }
-        }
-
-        int boxRow = (row / BLOCK_SIZE) * BLOCK_SIZE;
-        int boxCol = (col / BLOCK_SIZE) * BLOCK_SIZE;
-        for (int r = boxRow; r < boxRow + BLOCK_SIZE; r++) {
-            for (int c = boxCol; c < boxCol + BLOCK_SIZE; c++) {
-                if (board[r][c] == num) {
-                    return false;
-                }
-            }
-        }
+    public GeneratedPuzzle generate(Difficulty difficulty) throws Exception {
+        int[][] solution = gridBank.draw();
+        int[][] puzzle = removeCellsUntilDifficulty(solution, difficulty);
+        return new GeneratedPuzzle(puzzle, solution);
+    }
 
-        return true;
+    public SolvedGridBank getGridBank() {
+        return gridBank;
     }
 
     private int[][] removeCellsUntilDifficulty(int[][] board, Difficulty difficulty) throws Exception {
         DifficultyProfile profile = getDifficultyProfile(difficulty);
 
         for (int attempt = 0; attempt < MAX_GENERATION_ATTEMPTS; attempt++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Puzzle generation interrupted for difficulty " + difficulty);
+            }
+
             int[][] puzzle = deepCopy(board);
             removeCellsRandomly(puzzle, profile);
 
@@ -112,12 +71,13 @@ public class BoardGenerator {
     }
 
     private void removeCellsRandomly(int[][] puzzle, DifficultyProfile profile) {
+        Random random = ThreadLocalRandom.current();
         int givens = countGivens(puzzle);
-        int targetGivens = RANDOM.nextInt(profile.maxGivens - profile.minGivens + 1) + profile.minGivens;
+        int targetGivens = random.nextInt(profile.maxGivens - profile.minGivens + 1) + profile.minGivens;
 
         while (givens > targetGivens) {
-            int row = RANDOM.nextInt(SIZE);
-            int col = RANDOM.nextInt(SIZE);
+            int row = random.nextInt(SIZE);
+            int col = random.nextInt(SIZE);
 
             if (puzzle[row][col] != 0) {
                 puzzle[row][col] = 0;
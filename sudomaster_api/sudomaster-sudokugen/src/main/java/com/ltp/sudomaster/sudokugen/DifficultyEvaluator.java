@@ -55,6 +55,108 @@ public class DifficultyEvaluator {
         return new DifficultyResult(score, difficulty, techniqueUsage, puzzle);
     }
 
+    private static final Technique[] ELIMINATION_ORDER = {
+            Technique.NAKED_PAIR, Technique.HIDDEN_PAIR, Technique.NAKED_TRIPLE, Technique.HIDDEN_TRIPLE,
+            Technique.POINTING_PAIR, Technique.BOX_LINE, Technique.X_WING, Technique.XY_WING,
+            Technique.COLORING, Technique.SWORDFISH, Technique.ADVANCED_COLORING, Technique.FORCING_CHAIN
+    };
+
+    // The next single deduction from a position, trying techniques in the order evaluate() does.
+    // candidates may be null; otherwise they are narrowed to what the board allows. Returns null
+    // when the position is contradictory or no technique makes progress.
+    public static SolveStep nextStep(int[][] board, int[][] candidates) {
+        DifficultyEvaluator evaluator = new DifficultyEvaluator(board);
+        int[][] start = evaluator.buildCandidates(evaluator.puzzle);
+        if (candidates != null) {
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    if (evaluator.puzzle[r][c] == 0) {
+                        start[r][c] &= candidates[r][c];
+                    }
+                }
+            }
+        }
+        return evaluator.findStep(start);
+    }
+
+    private SolveStep findStep(int[][] candidates) {
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (puzzle[r][c] == 0 && candidates[r][c] == 0) {
+                    return null;
+                }
+            }
+        }
+
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (puzzle[r][c] == 0 && Integer.bitCount(candidates[r][c]) == 1) {
+                    return new SolveStep(Technique.SINGLE_CANDIDATE, new Cell(r, c),
+                            Integer.numberOfTrailingZeros(candidates[r][c]) + 1, null);
+                }
+            }
+        }
+
+        for (int unit = 0; unit < SIZE * 3; unit++) {
+            for (int digit = 1; digit <= SIZE; digit++) {
+                int count = 0, lastR = -1, lastC = -1;
+                for (int i = 0; i < SIZE && count < 2; i++) {
+                    int r = unit < SIZE ? unit : unit < SIZE * 2 ? i : ((unit - SIZE * 2) / BLOCK_SIZE) * BLOCK_SIZE + i / BLOCK_SIZE;
+                    int c = unit < SIZE ? i : unit < SIZE * 2 ? unit - SIZE : ((unit - SIZE * 2) % BLOCK_SIZE) * BLOCK_SIZE + i % BLOCK_SIZE;
+                    if (puzzle[r][c] == digit) {
+                        count = 2;
+                    } else if (puzzle[r][c] == 0 && (candidates[r][c] & (1 << (digit - 1))) != 0) {
+                        count++;
+                        lastR = r;
+                        lastC = c;
+                    }
+                }
+                if (count == 1) {
+                    return new SolveStep(Technique.SINGLE_POSITION, new Cell(lastR, lastC), digit, null);
+                }
+            }
+        }
+
+        for (Technique technique : ELIMINATION_ORDER) {
+            int[][] trial = deepCopy(candidates);
+            if (!applyTechnique(technique, trial)) {
+                continue;
+            }
+            int[][] eliminations = new int[SIZE][SIZE];
+            boolean any = false;
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    if (puzzle[r][c] == 0) {
+                        eliminations[r][c] = candidates[r][c] & ~trial[r][c];
+                        any |= eliminations[r][c] != 0;
+                    }
+                }
+            }
+            if (any) {
+                return new SolveStep(technique, null, 0, eliminations);
+            }
+        }
+        return null;
+    }
+
+    private boolean applyTechnique(Technique technique, int[][] candidates) {
+        return switch (technique) {
+            case NAKED_PAIR -> applyNakedPairs(candidates);
+            case HIDDEN_PAIR -> applyHiddenPairs(candidates);
+            case NAKED_TRIPLE -> applyNakedTriples(candidates);
+            case HIDDEN_TRIPLE -> applyHiddenTriples(candidates);
+            case POINTING_PAIR -> applyPointingPairs(candidates);
+            case BOX_LINE -> applyBoxLineReduction(candidates);
+            case X_WING -> applyXWing(candidates);
+            case XY_WING -> applyXYWing(candidates);
+            case COLORING -> applyColoring(candidates);
+            case SWORDFISH -> applySwordfish(candidates);
+            case ADVANCED_COLORING -> applyAdvancedColoring(candidates);
+            case FORCING_CHAIN -> applyForcingChain(candidates);
+            default -> false;
+        };
+    }
+
     private boolean applySingleCandidates(int[][] candidates) {
         boolean changed = false;
         boolean foundFirst = false;
@@ -350,32 +452,36 @@ public class DifficultyEvaluator {
 
     private boolean findHiddenPairsInUnit(int[][] candidates, int r, int c, boolean isRow) {
         boolean changed = false;
+        int[] rows = new int[SIZE];
+        int[] cols = new int[SIZE];
         for (int d1 = 1; d1 < SIZE; d1++) {
             for (int d2 = d1 + 1; d2 <= SIZE; d2++) {
                 int m1 = 1 << (d1 - 1);
                 int m2 = 1 << (d2 - 1);
                 int mask = m1 | m2;
-                List<int[]> positions = new ArrayList<>();
+                int count = 0;
 
                 if (isRow) {
                     for (int cc = 0; cc < SIZE; cc++) {
                         if (((candidates[r][cc] & m1) != 0 || (candidates[r][cc] & m2) != 0)) {
-                            positions.add(new int[]{r, cc});
+                            rows[count] = r;
+                            cols[count++] = cc;
                         }
                     }
                 } else {
                     for (int rr = 0; rr < SIZE; rr++) {
                         if (((candidates[rr][c] & m1) != 0 || (candidates[rr][c] & m2) != 0)) {
-                            positions.add(new int[]{rr, c});
+                            rows[count] = rr;
+                            cols[count++] = c;
                         }
                     }
                 }
 
-                if (positions.size() == 2) {
-                    for (int[] pos : positions) {
-                        int before = candidates[pos[0]][pos[1]];
-                        candidates[pos[0]][pos[1]] &= mask;
-                        if (before != candidates[pos[0]][pos[1]]) {
+                if (count == 2) {
+                    for (int i = 0; i < count; i++) {
+                        int before = candidates[rows[i]][cols[i]];
+                        candidates[rows[i]][cols[i]] &= mask;
+                        if (before != candidates[rows[i]][cols[i]]) {
                             techniqueUsage.merge(Technique.HIDDEN_PAIR, 1, (a, b) -> a + b);
                             changed = true;
                         }
@@ -388,26 +494,29 @@ public class DifficultyEvaluator {
 
     private boolean findHiddenPairsInBlock(int[][] candidates, int br, int bc) {
         boolean changed = false;
+        int[] rows = new int[SIZE];
+        int[] cols = new int[SIZE];
         for (int d1 = 1; d1 < SIZE; d1++) {
             for (int d2 = d1 + 1; d2 <= SIZE; d2++) {
                 int m1 = 1 << (d1 - 1);
                 int m2 = 1 << (d2 - 1);
                 int mask = m1 | m2;
-                List<int[]> positions = new ArrayList<>();
+                int count = 0;
 
                 for (int r = br; r < br + BLOCK_SIZE; r++) {
                     for (int c = bc; c < bc + BLOCK_SIZE; c++) {
                         if (((candidates[r][c] & m1) != 0 || (candidates[r][c] & m2) != 0)) {
-                            positions.add(new int[]{r, c});
+                            rows[count] = r;
+                            cols[count++] = c;
                         }
                     }
                 }
 
-                if (positions.size() == 2) {
-                    for (int[] pos : positions) {
-                        int before = candidates[pos[0]][pos[1]];
-                        candidates[pos[0]][pos[1]] &= mask;
-                        if (before != candidates[pos[0]][pos[1]]) {
+                if (count == 2) {
+                    for (int i = 0; i < count; i++) {
+                        int before = candidates[rows[i]][cols[i]];
+                        candidates[rows[i]][cols[i]] &= mask;
+                        if (before != candidates[rows[i]][cols[i]]) {
                             techniqueUsage.merge(Technique.HIDDEN_PAIR, 1, (a, b) -> a + b);
                             changed = true;
                         }
@@ -440,6 +549,8 @@ public class DifficultyEvaluator {
 
     private boolean findHiddenTriplesInUnit(int[][] candidates, int r, int c, boolean isRow) {
         boolean changed = false;
+        int[] rows = new int[SIZE];
+        int[] cols = new int[SIZE];
 
         for (int d1 = 1; d1 < SIZE; d1++) {
             for (int d2 = d1 + 1; d2 < SIZE; d2++) {
@@ -448,27 +559,29 @@ public class DifficultyEvaluator {
                     int m2 = 1 << (d2 - 1);
                     int m3 = 1 << (d3 - 1);
                     int mask = m1 | m2 | m3;
-                    List<int[]> positions = new ArrayList<>();
+                    int count = 0;
 
                     if (isRow) {
                         for (int cc = 0; cc < SIZE; cc++) {
                             if (((candidates[r][cc] & m1) != 0 || (candidates[r][cc] & m2) != 0 || (candidates[r][cc] & m3) != 0)) {
-                                positions.add(new int[]{r, cc});
+                                rows[count] = r;
+                                cols[count++] = cc;
                             }
                         }
                     } else {
                         for (int rr = 0; rr < SIZE; rr++) {
                             if (((candidates[rr][c] & m1) != 0 || (candidates[rr][c] & m2) != 0 || (candidates[rr][c] & m3) != 0)) {
-                                positions.add(new int[]{rr, c});
+                                rows[count] = rr;
+                                cols[count++] = c;
                             }
                         }
                     }
 
-                    if (positions.size() == 3) {
-                        for (int[] pos : positions) {
-                            int before = candidates[pos[0]][pos[1]];
-                            candidates[pos[0]][pos[1]] &= mask;
-                            if (before != candidates[pos[0]][pos[1]]) {
+                    if (count == 3) {
+                        for (int i = 0; i < count; i++) {
+                            int before = candidates[rows[i]][cols[i]];
+                            candidates[rows[i]][cols[i]] &= mask;
+                            if (before != candidates[rows[i]][cols[i]]) {
                                 techniqueUsage.merge(Technique.HIDDEN_TRIPLE, 1, (a, b) -> a + b);
                                 changed = true;
                             }
@@ -482,6 +595,8 @@ public class DifficultyEvaluator {
 
     private boolean findHiddenTriplesInBlock(int[][] candidates, int br, int bc) {
         boolean changed = false;
+        int[] rows = new int[SIZE];
+        int[] cols = new int[SIZE];
 
         for (int d1 = 1; d1 < SIZE; d1++) {
             for (int d2 = d1 + 1; d2 < SIZE; d2++) {
@@ -490,21 +605,22 @@ public class DifficultyEvaluator {
                     int m2 = 1 << (d2 - 1);
                     int m3 = 1 << (d3 - 1);
                     int mask = m1 | m2 | m3;
-                    List<int[]> positions = new ArrayList<>();
+                    int count = 0;
 
                     for (int r = br; r < br + BLOCK_SIZE; r++) {
                         for (int c = bc; c < bc + BLOCK_SIZE; c++) {
                             if (((candidates[r][c] & m1) != 0 || (candidates[r][c] & m2) != 0 || (candidates[r][c] & m3) != 0)) {
-                                positions.add(new int[]{r, c});
+                                rows[count] = r;
+                                cols[count++] = c;
                             }
                         }
                     }
 
-                    if (positions.size() == 3) {
-                        for (int[] pos : positions) {
-                            int before = candidates[pos[0]][pos[1]];
-                            candidates[pos[0]][pos[1]] &= mask;
-                            if (before != candidates[pos[0]][pos[1]]) {
+                    if (count == 3) {
+                        for (int i = 0; i < count; i++) {
+                            int before = candidates[rows[i]][cols[i]];
+                            candidates[rows[i]][cols[i]] &= mask;
+                            if (before != candidates[rows[i]][cols[i]]) {
                                 techniqueUsage.merge(Technique.HIDDEN_TRIPLE, 1, (a, b) -> a + b);
                                 changed = true;
                             }
@@ -658,17 +774,17 @@ public class DifficultyEvaluator {
 
             for (int r1 = 0; r1 < SIZE; r1++) {
                 for (int r2 = r1 + 1; r2 < SIZE; r2++) {
-                    List<Integer> cols1 = new ArrayList<>();
-                    List<Integer> cols2 = new ArrayList<>();
+                    int cols1 = 0;
+                    int cols2 = 0;
 
                     for (int c = 0; c < SIZE; c++) {
-                        if ((candidates[r1][c] & mask) != 0) cols1.add(c);
-                        if ((candidates[r2][c] & mask) != 0) cols2.add(c);
+                        if ((candidates[r1][c] & mask) != 0) cols1 |= 1 << c;
+                        if ((candidates[r2][c] & mask) != 0) cols2 |= 1 << c;
                     }
 
-                    if (cols1.size() == 2 && cols1.equals(cols2)) {
-                        int c1 = cols1.get(0);
-                        int c2 = cols1.get(1);
+                    if (Integer.bitCount(cols1) == 2 && cols1 == cols2) {
+                        int c1 = Integer.numberOfTrailingZeros(cols1);
+                        int c2 = 31 - Integer.numberOfLeadingZeros(cols1);
 
                         for (int r = 0; r < SIZE; r++) {
                             if (r != r1 && r != r2) {
@@ -688,17 +804,17 @@ public class DifficultyEvaluator {
 
             for (int c1 = 0; c1 < SIZE; c1++) {
                 for (int c2 = c1 + 1; c2 < SIZE; c2++) {
-                    List<Integer> rows1 = new ArrayList<>();
-                    List<Integer> rows2 = new ArrayList<>();
+                    int rows1 = 0;
+                    int rows2 = 0;
 
                     for (int r = 0; r < SIZE; r++) {
-                        if ((candidates[r][c1] & mask) != 0) rows1.add(r);
-                        if ((candidates[r][c2] & mask) != 0) rows2.add(r);
+                        if ((candidates[r][c1] & mask) != 0) rows1 |= 1 << r;
+                        if ((candidates[r][c2] & mask) != 0) rows2 |= 1 << r;
                     }
 
-                    if (rows1.size() == 2 && rows1.equals(rows2)) {
-                        int r1 = rows1.get(0);
-                        int r2 = rows1.get(1);
+                    if (Integer.bitCount(rows1) == 2 && rows1 == rows2) {
+                        int r1 = Integer.numberOfTrailingZeros(rows1);
+                        int r2 = 31 - Integer.numberOfLeadingZeros(rows1);
 
                         for (int c = 0; c < SIZE; c++) {
                             if (c != c1 && c != c2) {
@@ -729,20 +845,21 @@ public class DifficultyEvaluator {
             for (int r1 = 0; r1 < SIZE; r1++) {
                 for (int r2 = r1 + 1; r2 < SIZE; r2++) {
                     for (int r3 = r2 + 1; r3 < SIZE; r3++) {
-                        List<Integer> cols1 = new ArrayList<>();
-                        List<Integer> cols2 = new ArrayList<>();
-                        List<Integer> cols3 = new ArrayList<>();
+                        int cols1 = 0;
+                        int cols2 = 0;
+                        int cols3 = 0;
 
                         for (int c = 0; c < SIZE; c++) {
-                            if ((candidates[r1][c] & mask) != 0) cols1.add(c);
-                            if ((candidates[r2][c] & mask) != 0) cols2.add(c);
-                            if ((candidates[r3][c] & mask) != 0) cols3.add(c);
+                            if ((candidates[r1][c] & mask) != 0) cols1 |= 1 << c;
+                            if ((candidates[r2][c] & mask) != 0) cols2 |= 1 << c;
+                            if ((candidates[r3][c] & mask) != 0) cols3 |= 1 << c;
                         }
 
-                        if (cols1.size() == 3 && cols1.equals(cols2) && cols1.equals(cols3)) {
+                        if (Integer.bitCount(cols1) == 3 && cols1 == cols2 && cols1 == cols3) {
                             for (int r = 0; r < SIZE; r++) {
                                 if (r != r1 && r != r2 && r != r3) {
-                                    for (int c : cols1) {
+                                    for (int c = 0; c < SIZE; c++) {
+                                        if ((cols1 & (1 << c)) == 0) continue;
                                         int before = candidates[r][c];
                                         candidates[r][c] &= ~mask;
                                         if (before != candidates[r][c]) {
@@ -760,20 +877,21 @@ public class DifficultyEvaluator {
             for (int c1 = 0; c1 < SIZE; c1++) {
                 for (int c2 = c1 + 1; c2 < SIZE; c2++) {
                     for (int c3 = c2 + 1; c3 < SIZE; c3++) {
-                        List<Integer> rows1 = new ArrayList<>();
-                        List<Integer> rows2 = new ArrayList<>();
-                        List<Integer> rows3 = new ArrayList<>();
+                        int rows1 = 0;
+                        int rows2 = 0;
+                        int rows3 = 0;
 
                         for (int r = 0; r < SIZE; r++) {
-                            if ((candidates[r][c1] & mask) != 0) rows1.add(r);
-                            if ((candidates[r][c2] & mask) != 0) rows2.add(r);
-                            if ((candidates[r][c3] & mask) != 0) rows3.add(r);
+                            if ((candidates[r][c1] & mask) != 0) rows1 |= 1 << r;
+                            if ((candidates[r][c2] & mask) != 0) rows2 |= 1 << r;
+                            if ((candidates[r][c3] & mask) != 0) rows3 |= 1 << r;
                         }
 
-                        if (rows1.size() == 3 && rows1.equals(rows2) && rows1.equals(rows3)) {
+                        if (Integer.bitCount(rows1) == 3 && rows1 == rows2 && rows1 == rows3) {
                             for (int c = 0; c < SIZE; c++) {
                                 if (c != c1 && c != c2 && c != c3) {
-                                    for (int r : rows1) {
+                                    for (int r = 0; r < SIZE; r++) {
+                                        if ((rows1 & (1 << r)) == 0) continue;
                                         int before = candidates[r][c];
                                         candidates[r][c] &= ~mask;
                                         if (before != candidates[r][c]) {
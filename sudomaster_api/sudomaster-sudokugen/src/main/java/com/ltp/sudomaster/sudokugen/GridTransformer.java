@@ -0,0 +1,57 @@
+package com.ltp.sudomaster.sudokugen;
+
+import java.util.Random;
+
+public final class GridTransformer {
+
+    private static final int SIZE = 9;
+    private static final int BLOCK_SIZE = 3;
+
+    private GridTransformer() {}
+
+    public static int[] transform(int[] grid, Random random) {
+        int[] digits = shuffledIdentity(SIZE, random);
+        int[] rows = structuredPermutation(random);
+        int[] cols = structuredPermutation(random);
+        boolean transpose = random.nextBoolean();
+
+        int[] result = new int[SIZE * SIZE];
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                int sourceRow = rows[r];
+                int sourceCol = cols[c];
+                int value = transpose
+                        ? grid[sourceCol * SIZE + sourceRow]
+                        : grid[sourceRow * SIZE + sourceCol];
+                result[r * SIZE + c] = digits[value - 1] + 1;
+            }
+        }
+        return result;
+    }
+
+    private static int[] structuredPermutation(Random random) {
+        int[] bands = shuffledIdentity(BLOCK_SIZE, random);
+        int[] permutation = new int[SIZE];
+        for (int band = 0; band < BLOCK_SIZE; band++) {
+            int[] inner = shuffledIdentity(BLOCK_SIZE, random);
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                permutation[band * BLOCK_SIZE + i] = bands[band] * BLOCK_SIZE + inner[i];
+            }
+        }
+        return permutation;
+    }
+
+    private static int[] shuffledIdentity(int n, Random random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ltp.sudomaster.sudokugen;
+
+// One deduction found by DifficultyEvaluator.nextStep. Singles place a digit in one cell; every
+// other technique removes candidates, given as a mask per cell (bit 0 = digit 1).
+public record SolveStep(
+    Technique technique,
+    Cell placement,
+    int digit,
+    int[][] eliminations
+) {
+    public boolean isPlacement() {
+        return placement != null;
+    }
+}
@@ -0,0 +1,230 @@
+package com.ltp.sudomaster.sudokugen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class SolvedGridBank {
+
+    public static final int DEFAULT_SIZE = 64;
+
+    private static final int SIZE = 9;
+    private static final int BLOCK_SIZE = 3;
+    private static final int CELLS = SIZE * SIZE;
+
+    private final AtomicReferenceArray<int[]> grids;
+    private final AtomicLong draws = new AtomicLong();
+    private final AtomicLong refreshedGrids = new AtomicLong();
+
+    public SolvedGridBank(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Grid bank size must be positive");
+        }
+        this.grids = new AtomicReferenceArray<>(size);
+        Random random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            grids.set(i, generateSolvedGrid(random));
+        }
+    }
+
+    private SolvedGridBank(List<int[]> loaded) {
+        this.grids = new AtomicReferenceArray<>(loaded.toArray(new int[0][]));
+    }
+
+    public static SolvedGridBank loadFrom(Path file) throws IOException {
+        List<int[]> loaded = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int[] grid = parseGrid(trimmed);
+            if (grid == null || !isValidSolution(grid)) {
+                throw new IOException("Invalid solved grid at line " + lineNumber + " of " + file);
+            }
+            loaded.add(grid);
+        }
+        if (loaded.isEmpty()) {
+            throw new IOException("Grid bank file contains no grids: " + file);
+        }
+        return new SolvedGridBank(loaded);
+    }
+
+    public void saveTo(Path file) throws IOException {
+        List<String> lines = new ArrayList<>(grids.length());
+        for (int i = 0; i < grids.length(); i++) {
+            StringBuilder sb = new StringBuilder(CELLS);
+            for (int value : grids.get(i)) {
+                sb.append(value);
+            }
+            lines.add(sb.toString());
+        }
+        // Written beside the target and moved over it, so readers never see a partial bank.
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, lines, StandardCharsets.US_ASCII);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int[][] draw() {
+        return draw(ThreadLocalRandom.current());
+    }
+
+    public int[][] draw(Random random) {
+        draws.incrementAndGet();
+        int[] base = grids.get(random.nextInt(grids.length()));
+        int[] transformed = GridTransformer.transform(base, random);
+
+        int[][] board = new int[SIZE][SIZE];
+        for (int r = 0; r < SIZE; r++) {
+            System.arraycopy(transformed, r * SIZE, board[r], 0, SIZE);
+        }
+        return board;
+    }
+
+    public int refresh(int count) {
+        Random random = ThreadLocalRandom.current();
+        int replaced = Math.min(Math.max(count, 0), grids.length());
+        for (int i = 0; i < replaced; i++) {
+            grids.set(random.nextInt(grids.length()), generateSolvedGrid(random));
+        }
+        refreshedGrids.addAndGet(replaced);
+        return replaced;
+    }
+
+    public int size() {
+        return grids.length();
+    }
+
+    public long getDrawCount() {
+        return draws.get();
+    }
+
+    public long getRefreshedCount() {
+        return refreshedGrids.get();
+    }
+
+    int[] gridAt(int index) {
+        return grids.get(index).clone();
+    }
+
+    static boolean isValidSolution(int[] grid) {
+        if (grid.length != CELLS) {
+            return false;
+        }
+        for (int unit = 0; unit < SIZE; unit++) {
+            int rowSeen = 0;
+            int colSeen = 0;
+            int boxSeen = 0;
+            int boxRow = (unit / BLOCK_SIZE) * BLOCK_SIZE;
+            int boxCol = (unit % BLOCK_SIZE) * BLOCK_SIZE;
+            for (int i = 0; i < SIZE; i++) {
+                int rowValue = grid[unit * SIZE + i];
+                int colValue = grid[i * SIZE + unit];
+                int boxValue = grid[(boxRow + i / BLOCK_SIZE) * SIZE + boxCol + i % BLOCK_SIZE];
+                if (rowValue < 1 || rowValue > SIZE || colValue < 1 || colValue > SIZE
+                        || boxValue < 1 || boxValue > SIZE) {
+                    return false;
+                }
+                rowSeen |= 1 << rowValue;
+                colSeen |= 1 << colValue;
+                boxSeen |= 1 << boxValue;
+            }
+            if (rowSeen != 0x3FE || colSeen != 0x3FE || boxSeen != 0x3FE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] parseGrid(String line) {
+        if (line.length() != CELLS) {
+            return null;
+        }
+        int[] grid = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            char ch = line.charAt(i);
+            if (ch < '1' || ch > '9') {
+                return null;
+            }
+            grid[i] = ch - '0';
+        }
+        return grid;
+    }
+
+    private static int[] generateSolvedGrid(Random random) {
+        int[][] board = new int[SIZE][SIZE];
+        fillBoardRecursively(board, 0, random);
+
+        int[] grid = new int[CELLS];
+        for (int r = 0; r < SIZE; r++) {
+            System.arraycopy(board[r], 0, grid, r * SIZE, SIZE);
+        }
+        return grid;
+    }
+
+    private static boolean fillBoardRecursively(int[][] board, int cell, Random random) {
+        if (cell == CELLS) {
+            return true;
+        }
+
+        int row = cell / SIZE;
+        int col = cell % SIZE;
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 1; i <= SIZE; i++) {
+            numbers.add(i);
+        }
+        Collections.shuffle(numbers, random);
+
+        for (int num : numbers) {
+            if (isValidPlacement(board, row, col, num)) {
+                board[row][col] = num;
+                if (fillBoardRecursively(board, cell + 1, random)) {
+                    return true;
+                }
+                board[row][col] = 0;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isValidPlacement(int[][] board, int row, int col, int num) {
+        for (int c = 0; c < SIZE; c++) {
+            if (board[row][c] == num) {
+                return false;
+            }
+        }
+
+        for (int r = 0; r < SIZE; r++) {
+            if (board[r][col] == num) {
+                return false;
+            }
+        }
+
+        int boxRow = (row / BLOCK_SIZE) * BLOCK_SIZE;
+        int boxCol = (col / BLOCK_SIZE) * BLOCK_SIZE;
+        for (int r = boxRow; r < boxRow + BLOCK_SIZE; r++) {
+            for (int c = boxCol; c < boxCol + BLOCK_SIZE; c++) {
+                if (board[r][c] == num) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,202 @@
+package com.ltp.sudomaster.sudokugen.cli;
+
+import com.ltp.sudomaster.sudokugen.BoardGenerator;
+import com.ltp.sudomaster.sudokugen.Difficulty;
+import com.ltp.sudomaster.sudokugen.DifficultyEvaluator;
+import com.ltp.sudomaster.sudokugen.GeneratedPuzzle;
+import com.ltp.sudomaster.sudokugen.SolvedGridBank;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+public final class SudokugenCli {
+
+    private static final String USAGE = """
+            Usage: java -jar sudomaster-sudokugen.jar [options]
+              --difficulty <LIST>   Comma-separated difficulties (default: EASY,MEDIUM,HARD,INSANE)
+              --count <N>           Puzzles per difficulty (default: 100)
+              --out <DIR>           Output directory (default: current directory)
+              --threads <N>         Worker threads (default: available processors)
+              --bank-size <N>       Solved grids in the base bank (default: %d)
+              --bank-file <FILE>    Load base grids from FILE instead of building a bank
+              --append              Append to existing files instead of overwriting
+              --help                Show this message
+
+            Each difficulty is written to <DIR>/<DIFFICULTY>.txt, one puzzle per line:
+              <81-digit clues> <81-digit solution> <score> <cost>
+            """.formatted(SolvedGridBank.DEFAULT_SIZE);
+
+    private final List<Difficulty> difficulties;
+    private final int count;
+    private final Path outputDir;
+    private final int threads;
+    private final int bankSize;
+    private final Path bankFile;
+    private final boolean append;
+
+    private SudokugenCli(List<Difficulty> difficulties, int count, Path outputDir, int threads,
+                         int bankSize, Path bankFile, boolean append) {
+        this.difficulties = difficulties;
+        this.count = count;
+        this.outputDir = outputDir;
+        this.threads = threads;
+        this.bankSize = bankSize;
+        this.bankFile = bankFile;
+        this.append = append;
+    }
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            SudokugenCli cli = parse(args);
+            exitCode = cli == null ? 0 : cli.run(System.err);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            exitCode = 2;
+        } catch (Exception e) {
+            System.err.println("Generation failed: " + e.getMessage());
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    static SudokugenCli parse(String[] args) {
+        List<Difficulty> difficulties = List.of(Difficulty.values());
+        int count = 100;
+        Path outputDir = Path.of(".");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int bankSize = SolvedGridBank.DEFAULT_SIZE;
+        Path bankFile = null;
+        boolean append = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    return null;
+                }
+                case "--append" -> append = true;
+                case "--difficulty" -> difficulties = parseDifficulties(value(args, ++i, arg));
+                case "--count" -> count = positiveInt(value(args, ++i, arg), arg);
+                case "--out" -> outputDir = Path.of(value(args, ++i, arg));
+                case "--threads" -> threads = positiveInt(value(args, ++i, arg), arg);
+                case "--bank-size" -> bankSize = positiveInt(value(args, ++i, arg), arg);
+                case "--bank-file" -> bankFile = Path.of(value(args, ++i, arg));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        return new SudokugenCli(difficulties, count, outputDir, threads, bankSize, bankFile, append);
+    }
+
+    int run(PrintStream progress) throws Exception {
+        SolvedGridBank bank = bankFile != null ? SolvedGridBank.loadFrom(bankFile) : new SolvedGridBank(bankSize);
+        BoardGenerator generator = new BoardGenerator(bank);
+        Files.createDirectories(outputDir);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sudokugen-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int failures = 0;
+        try {
+            for (Difficulty difficulty : difficulties) {
+                failures += generateDifficulty(generator, difficulty, pool, progress);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    private int generateDifficulty(BoardGenerator generator, Difficulty difficulty, ExecutorService pool,
+                                   PrintStream progress) throws IOException, InterruptedException {
+        CompletionService<String> completion = new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < count; i++) {
+            completion.submit(() -> generateLine(generator, difficulty));
+        }
+
+        Path file = outputDir.resolve(difficulty.name() + ".txt");
+        OpenOption[] options = append
+                ? new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.APPEND}
+                : new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING};
+
+        long start = System.nanoTime();
+        int failures = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII, options)) {
+            for (int done = 1; done <= count; done++) {
+                try {
+                    writer.write(completion.take().get());
+                    writer.newLine();
+                } catch (ExecutionException e) {
+                    failures++;
+                    progress.println(difficulty + ": generation failed - " + e.getCause().getMessage());
+                }
+                if (done % 100 == 0 || done == count) {
+                    progress.printf("%s: %d/%d%n", difficulty, done, count);
+                }
+            }
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        progress.printf("%s: wrote %d puzzles to %s in %d ms%n", difficulty, count - failures, file, elapsedMs);
+        return failures;
+    }
+
+    static String generateLine(BoardGenerator generator, Difficulty difficulty) throws Exception {
+        GeneratedPuzzle generated = generator.generate(difficulty);
+        DifficultyEvaluator.DifficultyResult grade = new DifficultyEvaluator(generated.puzzle()).evaluate();
+        return toDigits(generated.puzzle()) + " " + toDigits(generated.solution()) + " " + grade.score + " " + grade.cost;
+    }
+
+    private static String toDigits(int[][] board) {
+        StringBuilder sb = new StringBuilder(81);
+        for (int[] row : board) {
+            for (int value : row) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int positiveInt(String value, String option) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a positive integer");
+    }
+
+    private static List<Difficulty> parseDifficulties(String value) {
+        List<Difficulty> parsed = new ArrayList<>();
+        for (String part : value.split(",")) {
+            try {
+                parsed.add(Difficulty.valueOf(part.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown difficulty: " + part.trim());
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ltp.sudomaster.sudokugen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Difficulty Evaluator Step Tests")
+class DifficultyEvaluatorStepTest {
+
+    private static final String CLUES = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION = "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+    private static final String[] HARD = {
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400",
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000",
+            "100007090030020008009600500005300900010080002600004000300000010040000007007000300"
+    };
+
+    private static int[][] grid(String board) {
+        int[][] grid = new int[9][9];
+        for (int i = 0; i < 81; i++) {
+            grid[i / 9][i % 9] = board.charAt(i) - '0';
+        }
+        return grid;
+    }
+
+    private static boolean solve(int[][] grid) {
+        for (int i = 0; i < 81; i++) {
+            if (grid[i / 9][i % 9] == 0) {
+                for (int digit = 1; digit <= 9; digit++) {
+                    if (fits(grid, i / 9, i % 9, digit)) {
+                        grid[i / 9][i % 9] = digit;
+                        if (solve(grid)) {
+                            return true;
+                        }
+                    }
+                }
+                grid[i / 9][i % 9] = 0;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean fits(int[][] grid, int r, int c, int digit) {
+        for (int i = 0; i < 9; i++) {
+            if (grid[r][i] == digit || grid[i][c] == digit
+                    || grid[(r / 3) * 3 + i / 3][(c / 3) * 3 + i % 3] == digit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("An easy position yields a single that matches the solution")
+    void testSingle() {
+        SolveStep step = DifficultyEvaluator.nextStep(grid(CLUES), null);
+
+        assertNotNull(step);
+        assertTrue(step.isPlacement());
+        assertTrue(step.technique() == Technique.SINGLE_CANDIDATE || step.technique() == Technique.SINGLE_POSITION);
+        assertEquals(SOLUTION.charAt(step.placement().r * 9 + step.placement().c) - '0', step.digit());
+    }
+
+    @Test
+    @DisplayName("Stepping through hard puzzles never contradicts the solution")
+    void testStepsAgreeWithSolution() {
+        for (String puzzle : HARD) {
+            int[][] board = grid(puzzle);
+            int[][] solution = grid(puzzle);
+            assertTrue(solve(solution));
+            int[][] notes = null;
+
+            for (int steps = 0; steps < 500; steps++) {
+                SolveStep step = DifficultyEvaluator.nextStep(board, notes);
+                if (step == null) {
+                    break;
+                }
+                if (step.isPlacement()) {
+                    assertEquals(solution[step.placement().r][step.placement().c], step.digit(), step.technique().name());
+                    board[step.placement().r][step.placement().c] = step.digit();
+                    continue;
+                }
+                if (notes == null) {
+                    notes = new int[9][9];
+                    for (int[] row : notes) {
+                        java.util.Arrays.fill(row, 0x1FF);
+                    }
+                }
+                for (int r = 0; r < 9; r++) {
+                    for (int c = 0; c < 9; c++) {
+                        int removed = step.eliminations()[r][c];
+                        assertEquals(0, removed & (1 << (solution[r][c] - 1)), step.technique().name());
+                        notes[r][c] &= ~removed;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ltp.sudomaster.sudokugen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Solved Grid Bank Tests")
+class SolvedGridBankTest {
+
+    private static final double CHI_SQUARE_CRITICAL_DF8_P001 = 26.124;
+
+    private static int[] flatten(int[][] board) {
+        int[] grid = new int[81];
+        for (int r = 0; r < 9; r++) {
+            System.arraycopy(board[r], 0, grid, r * 9, 9);
+        }
+        return grid;
+    }
+
+    private static double chiSquare(int[] observed, int samples) {
+        double expected = (double) samples / observed.length;
+        double sum = 0;
+        for (int count : observed) {
+            double diff = count - expected;
+            sum += diff * diff / expected;
+        }
+        return sum;
+    }
+
+    @Test
+    @DisplayName("Every drawn grid is a valid solution")
+    void testDrawsAreValidSolutions() {
+        SolvedGridBank bank = new SolvedGridBank(4);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(SolvedGridBank.isValidSolution(flatten(bank.draw(random))));
+        }
+        assertEquals(500, bank.getDrawCount());
+    }
+
+    @Test
+    @DisplayName("Transformations spread digits uniformly over a cell")
+    void testDigitDistributionIsUniform() {
+        SolvedGridBank bank = new SolvedGridBank(1);
+        Random random = new Random(7);
+        int samples = 18000;
+        int[] counts = new int[9];
+
+        for (int i = 0; i < samples; i++) {
+            counts[bank.draw(random)[0][0] - 1]++;
+        }
+
+        assertTrue(chiSquare(counts, samples) < CHI_SQUARE_CRITICAL_DF8_P001);
+    }
+
+    @Test
+    @DisplayName("Transformations spread a digit uniformly over the columns of a row")
+    void testPositionDistributionIsUniform() {
+        SolvedGridBank bank = new SolvedGridBank(1);
+        Random random = new Random(11);
+        int samples = 18000;
+        int[] counts = new int[9];
+
+        for (int i = 0; i < samples; i++) {
+            int[][] board = bank.draw(random);
+            for (int c = 0; c < 9; c++) {
+                if (board[0][c] == 1) {
+                    counts[c]++;
+                    break;
+                }
+            }
+        }
+
+        assertTrue(chiSquare(counts, samples) < CHI_SQUARE_CRITICAL_DF8_P001);
+    }
+
+    @Test
+    @DisplayName("A single base grid still yields distinct puzzles")
+    void testDrawsAreDistinct() {
+        SolvedGridBank bank = new SolvedGridBank(1);
+        Random random = new Random(3);
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int value : flatten(bank.draw(random))) {
+                sb.append(value);
+            }
+            seen.add(sb.toString());
+        }
+
+        assertTrue(seen.size() > 995);
+    }
+
+    @Test
+    @DisplayName("Bank survives a save and load round trip")
+    void testSaveAndLoad(@TempDir Path dir) throws Exception {
+        SolvedGridBank bank = new SolvedGridBank(5);
+        Path file = dir.resolve("grids.txt");
+        new SolvedGridBank(3).saveTo(file);
+        bank.saveTo(file);
+
+        SolvedGridBank loaded = SolvedGridBank.loadFrom(file);
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+
+        assertEquals(5, loaded.size());
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(bank.gridAt(i), loaded.gridAt(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Loading rejects an invalid grid")
+    void testLoadRejectsInvalidGrid(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("grids.txt");
+        Files.writeString(file, "1".repeat(81) + "\n");
+
+        assertThrows(java.io.IOException.class, () -> SolvedGridBank.loadFrom(file));
+    }
+
+    @Test
+    @DisplayName("Refresh keeps the bank size and validity")
+    void testRefresh() {
+        SolvedGridBank bank = new SolvedGridBank(3);
+
+        assertEquals(3, bank.refresh(10));
+        assertEquals(3, bank.size());
+        assertEquals(3, bank.getRefreshedCount());
+        for (int i = 0; i < bank.size(); i++) {
+            assertTrue(SolvedGridBank.isValidSolution(bank.gridAt(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Bank size must be positive")
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SolvedGridBank(0));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ltp.sudomaster.sudokugen.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sudokugen CLI Tests")
+class SudokugenCliTest {
+
+    @Test
+    @DisplayName("Writes graded puzzles per difficulty")
+    void testWritesPuzzleFiles(@TempDir Path dir) throws Exception {
+        SudokugenCli cli = SudokugenCli.parse(new String[] {
+                "--difficulty", "easy,medium", "--count", "3", "--threads", "2", "--bank-size", "2", "--out", dir.toString()
+        });
+
+        int exitCode = cli.run(new PrintStream(new ByteArrayOutputStream()));
+
+        assertEquals(0, exitCode);
+        for (String name : List.of("EASY.txt", "MEDIUM.txt")) {
+            List<String> lines = Files.readAllLines(dir.resolve(name));
+            assertEquals(3, lines.size());
+            for (String line : lines) {
+                String[] parts = line.split(" ");
+                assertEquals(4, parts.length);
+                assertTrue(parts[0].matches("[0-9]{81}"));
+                assertTrue(parts[1].matches("[1-9]{81}"));
+                for (int i = 0; i < 81; i++) {
+                    char clue = parts[0].charAt(i);
+                    assertTrue(clue == '0' || clue == parts[1].charAt(i));
+                }
+                Integer.parseInt(parts[2]);
+                Integer.parseInt(parts[3]);
+            }
+        }
+        assertFalse(Files.exists(dir.resolve("HARD.txt")));
+    }
+
+    @Test
+    @DisplayName("Rejects unknown options and difficulties")
+    void testRejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> SudokugenCli.parse(new String[] {"--bogus"}));
+        assertThrows(IllegalArgumentException.class, () -> SudokugenCli.parse(new String[] {"--difficulty", "EXTREME"}));
+        assertThrows(IllegalArgumentException.class, () -> SudokugenCli.parse(new String[] {"--count", "0"}));
+        assertThrows(IllegalArgumentException.class, () -> SudokugenCli.parse(new String[] {"--out"}));
+    }
+}